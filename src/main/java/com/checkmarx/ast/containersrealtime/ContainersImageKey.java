@@ -0,0 +1,49 @@
+package com.checkmarx.ast.containersrealtime;
+
+import lombok.Value;
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * Identity of a container image as far as vulnerability status is concerned: {@code name:tag},
+ * narrowed by the digest when the reference pins one.
+ */
+@Value
+public class ContainersImageKey {
+    static final String DEFAULT_TAG = "latest";
+
+    String imageName;
+    String imageTag;
+    String digest;
+
+    public static ContainersImageKey of(String imageName, String imageTag, String digest) {
+        return new ContainersImageKey(StringUtils.defaultString(imageName).trim(),
+                StringUtils.defaultIfBlank(imageTag, DEFAULT_TAG).trim(),
+                StringUtils.trimToNull(digest));
+    }
+
+    /**
+     * Builds the key of a scanned image. The CLI reports the tag either separately or as part of the name.
+     */
+    public static ContainersImageKey of(ContainersRealtimeImage image) {
+        String name = StringUtils.defaultString(image.getImageName());
+        String tag = image.getImageTag();
+        int colon = name.lastIndexOf(':');
+        if (StringUtils.isBlank(tag) && colon > name.lastIndexOf('/')) {
+            tag = name.substring(colon + 1);
+            name = name.substring(0, colon);
+        }
+        return of(name, tag, null);
+    }
+
+    /**
+     * @return the same key without its digest
+     */
+    ContainersImageKey withoutDigest() {
+        return digest == null ? this : new ContainersImageKey(imageName, imageTag, null);
+    }
+
+    @Override
+    public String toString() {
+        return imageName + ":" + imageTag + (digest == null ? "" : "@" + digest);
+    }
+}
@@ -0,0 +1,19 @@
+package com.checkmarx.ast.containersrealtime;
+
+import com.checkmarx.ast.realtime.RealtimeLocation;
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * An image referenced by a Dockerfile or compose file, as read in-process by
+ * {@link ContainersImageReferenceParser}.
+ */
+@Value
+public class ContainersImageReference {
+    ContainersImageKey key;
+    /**
+     * Location of the reference in the file (zero based line).
+     */
+    List<RealtimeLocation> locations;
+}
@@ -0,0 +1,155 @@
+package com.checkmarx.ast.containersrealtime;
+
+import com.checkmarx.ast.realtime.RealtimeLocation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Reads the image references of Dockerfiles and compose files in-process.
+ * <p>
+ * Parsing is deliberately conservative: references built from variables, continued instructions or files of
+ * any other type yield {@code null} and callers must fall back to a CLI scan.
+ */
+public final class ContainersImageReferenceParser {
+    private static final Logger log = LoggerFactory.getLogger(ContainersImageReferenceParser.class);
+
+    private static final Pattern DOCKERFILE_NAME = Pattern.compile("(?i)^(dockerfile|dockerfile\\..+|.+\\.dockerfile)$");
+    private static final Pattern COMPOSE_NAME = Pattern.compile("(?i)^(docker-)?compose([.-].+)?\\.ya?ml$");
+    private static final Pattern FROM = Pattern.compile(
+            "(?i)^\\s*FROM\\s+(?:--\\S+\\s+)*(\\S+)(?:\\s+AS\\s+(\\S+))?\\s*$");
+    private static final Pattern FROM_KEYWORD = Pattern.compile("(?i)^\\s*FROM\\b.*");
+    private static final Pattern COMPOSE_IMAGE = Pattern.compile(
+            "^\\s*(?:-\\s+)?image\\s*:\\s*([\"']?)([^\"'\\s#]+)\\1\\s*(?:#.*)?$");
+    private static final Pattern COMPOSE_IMAGE_KEYWORD = Pattern.compile("^\\s*(?:-\\s+)?image\\s*:.*");
+    private static final String SCRATCH = "scratch";
+
+    private ContainersImageReferenceParser() {
+    }
+
+    /**
+     * @return true when the file name is a Dockerfile or compose file
+     */
+    public static boolean isSupported(Path file) {
+        String fileName = fileName(file);
+        return DOCKERFILE_NAME.matcher(fileName).matches() || COMPOSE_NAME.matcher(fileName).matches();
+    }
+
+    /**
+     * @return the image references in file order, or null when the file is unsupported or not understood
+     */
+    public static List<ContainersImageReference> parse(Path file) {
+        if (!isSupported(file)) {
+            return null;
+        }
+        try {
+            return parse(fileName(file), new String(Files.readAllBytes(file), StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            log.debug("Failed to read container file {}", file, e);
+            return null;
+        }
+    }
+
+    /**
+     * @return the image references in file order, or null when the content cannot be understood
+     */
+    public static List<ContainersImageReference> parse(String fileName, String content) {
+        if (DOCKERFILE_NAME.matcher(fileName).matches()) {
+            return parseDockerfile(content);
+        }
+        if (COMPOSE_NAME.matcher(fileName).matches()) {
+            return parseCompose(content);
+        }
+        return null;
+    }
+
+    private static List<ContainersImageReference> parseDockerfile(String content) {
+        List<ContainersImageReference> references = new ArrayList<>();
+        Set<String> stages = new HashSet<>();
+        String[] lines = content.split("\\r?\\n", -1);
+        for (int i = 0; i < lines.length; i++) {
+            String line = lines[i];
+            if (!FROM_KEYWORD.matcher(line).matches()) {
+                continue;
+            }
+            Matcher matcher = FROM.matcher(line);
+            if (!matcher.matches()) {
+                return null;
+            }
+            String image = matcher.group(1);
+            boolean previousStage = stages.contains(image.toLowerCase(Locale.ENGLISH));
+            if (matcher.group(2) != null) {
+                stages.add(matcher.group(2).toLowerCase(Locale.ENGLISH));
+            }
+            if (SCRATCH.equalsIgnoreCase(image) || previousStage) {
+                continue;
+            }
+            ContainersImageReference reference = reference(image, i, matcher.start(1));
+            if (reference == null) {
+                return null;
+            }
+            references.add(reference);
+        }
+        return references;
+    }
+
+    private static List<ContainersImageReference> parseCompose(String content) {
+        List<ContainersImageReference> references = new ArrayList<>();
+        String[] lines = content.split("\\r?\\n", -1);
+        for (int i = 0; i < lines.length; i++) {
+            String line = lines[i];
+            if (!COMPOSE_IMAGE_KEYWORD.matcher(line).matches()) {
+                continue;
+            }
+            Matcher matcher = COMPOSE_IMAGE.matcher(line);
+            if (!matcher.matches()) {
+                return null;
+            }
+            ContainersImageReference reference = reference(matcher.group(2), i, matcher.start(2));
+            if (reference == null) {
+                return null;
+            }
+            references.add(reference);
+        }
+        return references;
+    }
+
+    /**
+     * Splits {@code [registry/]name[:tag][@digest]}; returns null for references that use variables.
+     */
+    static ContainersImageReference reference(String image, int line, int start) {
+        if (image.indexOf('$') >= 0 || image.indexOf('{') >= 0) {
+            return null;
+        }
+        String name = image;
+        String digest = null;
+        int at = name.indexOf('@');
+        if (at >= 0) {
+            digest = name.substring(at + 1);
+            name = name.substring(0, at);
+        }
+        String tag = null;
+        int colon = name.lastIndexOf(':');
+        if (colon > name.lastIndexOf('/')) {
+            tag = name.substring(colon + 1);
+            name = name.substring(0, colon);
+        }
+        if (name.isEmpty()) {
+            return null;
+        }
+        return new ContainersImageReference(ContainersImageKey.of(name, tag, digest),
+                Collections.singletonList(new RealtimeLocation(line, start, start + image.length())));
+    }
+
+    private static String fileName(Path file) {
+        Path fileName = file.getFileName();
+        return fileName == null ? "" : fileName.toString();
+    }
+}
@@ -0,0 +1,101 @@
+package com.checkmarx.ast.containersrealtime;
+
+import com.checkmarx.ast.realtime.RealtimeLocation;
+import com.checkmarx.ast.utils.ExpiringCache;
+import lombok.NonNull;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.function.LongSupplier;
+
+/**
+ * Image-level cache of containers realtime answers keyed by {@code name:tag} (and digest where present).
+ * <p>
+ * Answers depend only on the image, so one scan of an image serves every Dockerfile and compose file that
+ * references it.
+ */
+public class ContainersRealtimeCache {
+
+    /**
+     * Upper bound of cached image answers, least recently used evicted first, so that a long-lived process does
+     * not keep every image it ever scanned.
+     */
+    static final int MAX_IMAGES = 5_000;
+
+    private final ExpiringCache<ContainersImageKey, ContainersRealtimeImage> images;
+
+    public ContainersRealtimeCache(@NonNull Duration ttl) {
+        this(ttl, MAX_IMAGES, System::currentTimeMillis);
+    }
+
+    public ContainersRealtimeCache(@NonNull Duration ttl, @NonNull LongSupplier clock) {
+        this(ttl, MAX_IMAGES, clock);
+    }
+
+    ContainersRealtimeCache(@NonNull Duration ttl, int maxImages, @NonNull LongSupplier clock) {
+        this.images = new ExpiringCache<>(ttl, maxImages, clock);
+    }
+
+    public ContainersRealtimeImage lookup(@NonNull ContainersImageKey key) {
+        return images.get(key);
+    }
+
+    /**
+     * Answers a file from the cache when every image it references is known.
+     *
+     * @return the images relocated to {@code filePath}, one per distinct image in file order,
+     * or null when at least one reference is unknown
+     */
+    public ContainersRealtimeResults answer(@NonNull String filePath, @NonNull List<ContainersImageReference> references) {
+        Map<ContainersImageKey, List<RealtimeLocation>> locations = new LinkedHashMap<>();
+        for (ContainersImageReference reference : references) {
+            locations.computeIfAbsent(reference.getKey(), k -> new ArrayList<>()).addAll(reference.getLocations());
+        }
+        List<ContainersRealtimeImage> answered = new ArrayList<>();
+        for (Map.Entry<ContainersImageKey, List<RealtimeLocation>> entry : locations.entrySet()) {
+            ContainersRealtimeImage image = lookup(entry.getKey());
+            if (image == null) {
+                return null;
+            }
+            answered.add(image.relocate(filePath, entry.getValue()));
+        }
+        return new ContainersRealtimeResults(answered);
+    }
+
+    /**
+     * Stores the images of a scan answer under {@code name:tag}, and also under the digest of the
+     * references they were scanned for.
+     *
+     * @param references the references of the scanned file, or an empty list when unknown
+     */
+    public void store(@NonNull List<ContainersImageReference> references, ContainersRealtimeResults results) {
+        if (results == null || results.getImages() == null) {
+            return;
+        }
+        Map<ContainersImageKey, List<ContainersImageKey>> pinned = new HashMap<>();
+        for (ContainersImageReference reference : references) {
+            if (reference.getKey().getDigest() != null) {
+                pinned.computeIfAbsent(reference.getKey().withoutDigest(), k -> new ArrayList<>()).add(reference.getKey());
+            }
+        }
+        for (ContainersRealtimeImage image : results.getImages()) {
+            ContainersImageKey key = ContainersImageKey.of(image);
+            images.put(key, image);
+            for (ContainersImageKey digestKey : pinned.getOrDefault(key, Collections.emptyList())) {
+                images.put(digestKey, image);
+            }
+        }
+    }
+
+    public void invalidate(@NonNull ContainersImageKey key) {
+        images.invalidateIf((k, v) -> k.withoutDigest().equals(key.withoutDigest()));
+    }
+
+    public void invalidateAll() {
+        images.invalidateAll();
+    }
+
+    public int size() {
+        return images.size();
+    }
+}
@@ -37,4 +37,11 @@ public class ContainersRealtimeImage {
         this.status = status;
         this.vulnerabilities = vulnerabilities == null ? Collections.emptyList() : vulnerabilities;
     }
-}
\ No newline at end of file
+
+    /**
+     * @return a copy of this image reported against another file and locations
+     */
+    public ContainersRealtimeImage relocate(String filePath, List<RealtimeLocation> locations) {
+        return new ContainersRealtimeImage(imageName, imageTag, filePath, locations, status, vulnerabilities);
+    }
+}
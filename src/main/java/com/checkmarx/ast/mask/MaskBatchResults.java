@@ -0,0 +1,40 @@
+package com.checkmarx.ast.mask;
+
+import lombok.Value;
+
+import java.nio.file.Path;
+import java.util.Map;
+
+/**
+ * Outcome of masking many files: the result and failure of each file, in the order the files were given,
+ * with throughput figures of the batch.
+ */
+@Value
+public class MaskBatchResults {
+
+    Map<Path, MaskResult> results;
+    Map<Path, Exception> failures;
+    /**
+     * Number of distinct files given.
+     */
+    int fileCount;
+    /**
+     * Number of CLI processes spawned; files sharing content with another file of the batch, or with a file
+     * masked earlier in the session, do not spawn one.
+     */
+    int maskedCount;
+    /**
+     * Number of files answered from content already masked in this session.
+     */
+    int cachedCount;
+    long bytesRead;
+    long elapsedMillis;
+
+    public double getFilesPerSecond() {
+        return elapsedMillis == 0 ? fileCount : fileCount * 1000.0 / elapsedMillis;
+    }
+
+    public double getBytesPerSecond() {
+        return elapsedMillis == 0 ? bytesRead : bytesRead * 1000.0 / elapsedMillis;
+    }
+}
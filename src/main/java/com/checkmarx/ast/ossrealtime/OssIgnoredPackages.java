@@ -0,0 +1,85 @@
+package com.checkmarx.ast.ossrealtime;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.NonNull;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * In-process view of the ignored packages file passed to {@code scan oss-realtime --ignored-file-path},
+ * so that answers served without the CLI honour it as well.
+ */
+public final class OssIgnoredPackages {
+    private static final Logger log = LoggerFactory.getLogger(OssIgnoredPackages.class);
+    private static final String ANY_VERSION = "*";
+    private static final OssIgnoredPackages NONE = new OssIgnoredPackages(Collections.emptyList());
+
+    private final List<OssPackageKey> ignored;
+
+    private OssIgnoredPackages(List<OssPackageKey> ignored) {
+        this.ignored = ignored;
+    }
+
+    public static OssIgnoredPackages none() {
+        return NONE;
+    }
+
+    /**
+     * @return the ignored packages, or null when the file cannot be read or its layout is not understood
+     */
+    public static OssIgnoredPackages load(@NonNull Path ignoredFile) {
+        JsonNode root;
+        try {
+            root = new ObjectMapper().readTree(ignoredFile.toFile());
+        } catch (IOException e) {
+            log.debug("Failed to read ignored packages file {}", ignoredFile, e);
+            return null;
+        }
+        if (root == null || !root.isArray()) {
+            return null;
+        }
+        List<OssPackageKey> ignored = new ArrayList<>();
+        for (JsonNode entry : root) {
+            String name = text(entry, "PackageName", "name");
+            if (StringUtils.isBlank(name)) {
+                return null;
+            }
+            ignored.add(OssPackageKey.of(text(entry, "PackageManager", "packageManager"), name,
+                    StringUtils.defaultIfBlank(text(entry, "PackageVersion", "version"), ANY_VERSION)));
+        }
+        return new OssIgnoredPackages(ignored);
+    }
+
+    public boolean isIgnored(@NonNull OssRealtimeScanPackage scanPackage) {
+        OssPackageKey key = OssPackageKey.of(scanPackage);
+        for (OssPackageKey entry : ignored) {
+            boolean sameManager = entry.getPackageManager().isEmpty()
+                    || entry.getPackageManager().equals(key.getPackageManager());
+            boolean sameName = entry.getPackageName().equalsIgnoreCase(key.getPackageName());
+            boolean sameVersion = ANY_VERSION.equals(entry.getPackageVersion())
+                    || entry.getPackageVersion().equals(key.getPackageVersion());
+            if (sameManager && sameName && sameVersion) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String text(JsonNode entry, String... fields) {
+        for (String field : fields) {
+            JsonNode value = entry.get(field);
+            if (value != null && value.isTextual()) {
+                return value.asText();
+            }
+        }
+        return null;
+    }
+}
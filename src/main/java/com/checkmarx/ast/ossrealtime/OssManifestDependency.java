@@ -0,0 +1,25 @@
+package com.checkmarx.ast.ossrealtime;
+
+import com.checkmarx.ast.realtime.RealtimeLocation;
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * A direct dependency declared in a manifest, as read in-process by {@link OssManifestParser}.
+ */
+@Value
+public class OssManifestDependency {
+    /**
+     * Key built from the declared version, e.g. {@code ^4.17.15} or {@code ==2.31.0}.
+     */
+    OssPackageKey key;
+    /**
+     * Declared version specification exactly as written in the manifest.
+     */
+    String versionSpec;
+    /**
+     * Location of the declaration in the manifest (zero based line).
+     */
+    List<RealtimeLocation> locations;
+}
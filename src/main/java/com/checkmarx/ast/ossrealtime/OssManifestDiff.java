@@ -0,0 +1,49 @@
+package com.checkmarx.ast.ossrealtime;
+
+import lombok.Value;
+
+import java.util.*;
+
+/**
+ * Difference between the dependencies of a manifest and the dependencies it declared when it was last
+ * scanned. Dependencies are matched by manager and name, so a version bump is a change, not a removal
+ * and an addition.
+ */
+@Value
+public class OssManifestDiff {
+    List<OssManifestDependency> added;
+    List<OssManifestDependency> changed;
+    List<OssPackageKey> removed;
+    int unchanged;
+
+    /**
+     * @param previous the dependency keys of the last scan, or null when the file was never scanned
+     */
+    static OssManifestDiff of(Collection<OssPackageKey> previous, List<OssManifestDependency> current) {
+        Map<OssPackageKey, OssPackageKey> remaining = new LinkedHashMap<>();
+        if (previous != null) {
+            for (OssPackageKey key : previous) {
+                remaining.putIfAbsent(key.withoutVersion(), key);
+            }
+        }
+        List<OssManifestDependency> added = new ArrayList<>();
+        List<OssManifestDependency> changed = new ArrayList<>();
+        int unchanged = 0;
+        for (OssManifestDependency dependency : current) {
+            OssPackageKey before = remaining.remove(dependency.getKey().withoutVersion());
+            if (before == null) {
+                added.add(dependency);
+            } else if (before.equals(dependency.getKey())) {
+                unchanged++;
+            } else {
+                changed.add(dependency);
+            }
+        }
+        return new OssManifestDiff(Collections.unmodifiableList(added), Collections.unmodifiableList(changed),
+                Collections.unmodifiableList(new ArrayList<>(remaining.values())), unchanged);
+    }
+
+    public boolean isEmpty() {
+        return added.isEmpty() && changed.isEmpty() && removed.isEmpty();
+    }
+}
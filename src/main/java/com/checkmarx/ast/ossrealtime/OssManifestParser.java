@@ -0,0 +1,327 @@
+package com.checkmarx.ast.ossrealtime;
+
+import com.checkmarx.ast.realtime.RealtimeLocation;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Reads the direct dependencies of the manifests whose layout can be understood without the CLI
+ * (npm {@code package.json}, pip {@code requirements.txt} and Maven {@code pom.xml}), and writes reduced
+ * manifests that only declare a subset of them.
+ * <p>
+ * Parsing is deliberately conservative: whenever a manifest uses a construct that is not understood
+ * (includes, editable installs, unusual formatting) {@code null} is returned and callers must fall
+ * back to a full CLI scan.
+ */
+public final class OssManifestParser {
+    private static final Logger log = LoggerFactory.getLogger(OssManifestParser.class);
+
+    static final String PACKAGE_JSON = "package.json";
+    static final String REQUIREMENTS_TXT = "requirements.txt";
+    static final String POM_XML = "pom.xml";
+    private static final String NPM = "npm";
+    private static final String PYPI = "pypi";
+    private static final String MAVEN = "maven";
+    private static final Pattern MAVEN_PROPERTY = Pattern.compile("\\$\\{([^}]+)}");
+    private static final Pattern XML_UNSAFE = Pattern.compile("[<>&\"']");
+    private static final List<String> NPM_SECTIONS = Arrays.asList(
+            "dependencies", "devDependencies", "peerDependencies", "optionalDependencies");
+    private static final Pattern NPM_SECTION = Pattern.compile("^\\s*\"([A-Za-z]+)\"\\s*:\\s*\\{\\s*$");
+    private static final Pattern NPM_ENTRY = Pattern.compile("^(\\s*)\"([^\"]+)\"\\s*:\\s*\"([^\"]*)\"\\s*,?\\s*$");
+    private static final Pattern PIP_ENTRY = Pattern.compile(
+            "^([A-Za-z0-9][A-Za-z0-9._-]*)(\\[[^]]*])?\\s*([=<>!~][^;]*)?(;.*)?$");
+    private static final String PINNED = "==";
+
+    private OssManifestParser() {
+    }
+
+    /**
+     * @return true when the file name is one of the manifests this parser understands
+     */
+    public static boolean isSupported(Path manifest) {
+        String fileName = fileName(manifest);
+        return PACKAGE_JSON.equals(fileName) || REQUIREMENTS_TXT.equals(fileName) || POM_XML.equals(fileName);
+    }
+
+    /**
+     * @return the declared dependencies in file order, or null when the manifest is unsupported or unreadable
+     */
+    public static List<OssManifestDependency> parse(Path manifest) {
+        if (!isSupported(manifest)) {
+            return null;
+        }
+        try {
+            return parse(fileName(manifest), new String(Files.readAllBytes(manifest), StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            log.debug("Failed to read manifest {}", manifest, e);
+            return null;
+        }
+    }
+
+    /**
+     * @return the declared dependencies in file order, or null when the content cannot be understood
+     */
+    public static List<OssManifestDependency> parse(String fileName, String content) {
+        if (PACKAGE_JSON.equals(fileName)) {
+            return parsePackageJson(content);
+        }
+        if (REQUIREMENTS_TXT.equals(fileName)) {
+            return parseRequirements(content);
+        }
+        if (POM_XML.equals(fileName)) {
+            return parsePom(content);
+        }
+        return null;
+    }
+
+    /**
+     * Writes a manifest with the same file name as the original that declares only the given dependencies.
+     *
+     * @return the path of the written manifest
+     */
+    public static Path writeReducedManifest(Path directory, String fileName, List<OssManifestDependency> dependencies)
+            throws IOException {
+        String content;
+        if (PACKAGE_JSON.equals(fileName)) {
+            ObjectMapper mapper = new ObjectMapper();
+            ObjectNode root = mapper.createObjectNode();
+            ObjectNode section = root.putObject(NPM_SECTIONS.get(0));
+            for (OssManifestDependency dependency : dependencies) {
+                section.put(dependency.getKey().getPackageName(), dependency.getVersionSpec());
+            }
+            content = mapper.writerWithDefaultPrettyPrinter().writeValueAsString(root);
+        } else if (REQUIREMENTS_TXT.equals(fileName)) {
+            StringBuilder builder = new StringBuilder();
+            for (OssManifestDependency dependency : dependencies) {
+                builder.append(dependency.getKey().getPackageName())
+                        .append(dependency.getVersionSpec())
+                        .append('\n');
+            }
+            content = builder.toString();
+        } else if (POM_XML.equals(fileName)) {
+            StringBuilder builder = new StringBuilder("<project xmlns=\"http://maven.apache.org/POM/4.0.0\">\n")
+                    .append("  <modelVersion>4.0.0</modelVersion>\n")
+                    .append("  <groupId>com.checkmarx.realtime</groupId>\n")
+                    .append("  <artifactId>reduced</artifactId>\n")
+                    .append("  <version>0</version>\n")
+                    .append("  <dependencies>\n");
+            for (OssManifestDependency dependency : dependencies) {
+                String packageName = dependency.getKey().getPackageName();
+                int separator = packageName.indexOf(':');
+                builder.append("    <dependency>\n")
+                        .append("      <groupId>").append(packageName, 0, separator).append("</groupId>\n")
+                        .append("      <artifactId>").append(packageName.substring(separator + 1)).append("</artifactId>\n")
+                        .append("      <version>").append(dependency.getVersionSpec()).append("</version>\n")
+                        .append("    </dependency>\n");
+            }
+            content = builder.append("  </dependencies>\n</project>\n").toString();
+        } else {
+            throw new IOException("Unsupported manifest: " + fileName);
+        }
+        Path reduced = directory.resolve(fileName);
+        Files.write(reduced, content.getBytes(StandardCharsets.UTF_8));
+        return reduced;
+    }
+
+    private static List<OssManifestDependency> parsePackageJson(String content) {
+        JsonNode root;
+        try {
+            root = new ObjectMapper().readTree(content);
+        } catch (IOException e) {
+            return null;
+        }
+        if (root == null || !root.isObject()) {
+            return null;
+        }
+        int expected = 0;
+        for (String section : NPM_SECTIONS) {
+            JsonNode node = root.get(section);
+            if (node != null) {
+                if (!node.isObject()) {
+                    return null;
+                }
+                expected += node.size();
+            }
+        }
+
+        // Locations are taken from a line scan; the JSON tree is only used to check that nothing was missed.
+        List<OssManifestDependency> dependencies = new ArrayList<>();
+        String[] lines = content.split("\\r?\\n", -1);
+        String section = null;
+        for (int i = 0; i < lines.length; i++) {
+            String line = lines[i];
+            if (section == null) {
+                Matcher matcher = NPM_SECTION.matcher(line);
+                if (matcher.matches() && NPM_SECTIONS.contains(matcher.group(1))) {
+                    section = matcher.group(1);
+                }
+                continue;
+            }
+            if (line.trim().startsWith("}")) {
+                section = null;
+                continue;
+            }
+            Matcher matcher = NPM_ENTRY.matcher(line);
+            if (!matcher.matches()) {
+                return null;
+            }
+            String name = matcher.group(2);
+            String version = matcher.group(3);
+            JsonNode declared = root.get(section).get(name);
+            if (declared == null || !version.equals(declared.asText())) {
+                return null;
+            }
+            int start = matcher.group(1).length();
+            dependencies.add(new OssManifestDependency(OssPackageKey.of(NPM, name, version), version,
+                    Collections.singletonList(new RealtimeLocation(i, start, matcher.end(3) + 1))));
+        }
+        return dependencies.size() == expected ? dependencies : null;
+    }
+
+    private static List<OssManifestDependency> parseRequirements(String content) {
+        List<OssManifestDependency> dependencies = new ArrayList<>();
+        String[] lines = content.split("\\r?\\n", -1);
+        for (int i = 0; i < lines.length; i++) {
+            String line = lines[i];
+            int comment = line.indexOf('#');
+            String declaration = (comment >= 0 ? line.substring(0, comment) : line).trim();
+            if (declaration.isEmpty()) {
+                continue;
+            }
+            if (declaration.startsWith("-") || declaration.contains("://") || declaration.endsWith("\\")) {
+                // includes, constraints, options, direct references and continuations need the CLI
+                return null;
+            }
+            Matcher matcher = PIP_ENTRY.matcher(declaration);
+            if (!matcher.matches()) {
+                return null;
+            }
+            String name = matcher.group(1);
+            String spec = StringUtils.deleteWhitespace(StringUtils.defaultString(matcher.group(3)));
+            String version = spec.startsWith(PINNED) && spec.indexOf(',') < 0 ? spec.substring(PINNED.length()) : spec;
+            String versionSpec = StringUtils.defaultString(matcher.group(2)) + spec
+                    + StringUtils.defaultString(matcher.group(4));
+            int start = line.indexOf(name);
+            dependencies.add(new OssManifestDependency(OssPackageKey.of(PYPI, name, version), versionSpec,
+                    Collections.singletonList(new RealtimeLocation(i, start, start + declaration.length()))));
+        }
+        return dependencies;
+    }
+
+    /**
+     * Reads the dependencies declared directly under {@code project/dependencies}. Dependencies without an
+     * explicit version, versions using properties that are not defined in the same file, and files without
+     * any dependency are left to the CLI, since resolving them needs the parent POM or profiles.
+     */
+    private static List<OssManifestDependency> parsePom(String content) {
+        String[] lines = content.split("\\r?\\n", -1);
+        Map<String, String> properties = new HashMap<>();
+        List<Map<String, String>> declared = new ArrayList<>();
+        List<Integer> declaredLines = new ArrayList<>();
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        try {
+            XMLStreamReader reader = factory.createXMLStreamReader(new StringReader(content));
+            Deque<String> path = new ArrayDeque<>();
+            Map<String, String> dependency = null;
+            StringBuilder text = new StringBuilder();
+            while (reader.hasNext()) {
+                int event = reader.next();
+                if (event == XMLStreamReader.START_ELEMENT) {
+                    path.addLast(reader.getLocalName());
+                    text.setLength(0);
+                    if (path.size() == 3 && "dependency".equals(path.peekLast()) && isUnder(path, "project", "dependencies")) {
+                        dependency = new HashMap<>();
+                        declared.add(dependency);
+                        declaredLines.add(reader.getLocation().getLineNumber() - 1);
+                    }
+                } else if (event == XMLStreamReader.CHARACTERS || event == XMLStreamReader.CDATA) {
+                    text.append(reader.getText());
+                } else if (event == XMLStreamReader.END_ELEMENT) {
+                    String value = text.toString().trim();
+                    if (path.size() == 3 && isUnder(path, "project", "properties")) {
+                        properties.put(path.peekLast(), value);
+                    } else if (path.size() == 4 && dependency != null) {
+                        dependency.put(path.peekLast(), value);
+                    } else if (path.size() == 3) {
+                        dependency = null;
+                    }
+                    path.removeLast();
+                    text.setLength(0);
+                }
+            }
+        } catch (XMLStreamException e) {
+            return null;
+        }
+        if (declared.isEmpty()) {
+            return null;
+        }
+
+        List<OssManifestDependency> dependencies = new ArrayList<>();
+        for (int i = 0; i < declared.size(); i++) {
+            Map<String, String> dependency = declared.get(i);
+            String groupId = dependency.get("groupId");
+            String artifactId = dependency.get("artifactId");
+            String version = resolveProperty(dependency.get("version"), properties);
+            if (StringUtils.isAnyBlank(groupId, artifactId, version)
+                    || XML_UNSAFE.matcher(groupId + artifactId + version).find()) {
+                return null;
+            }
+            int line = Math.min(declaredLines.get(i), lines.length - 1);
+            String declaration = lines[line];
+            int start = declaration.length() - StringUtils.stripStart(declaration, null).length();
+            dependencies.add(new OssManifestDependency(OssPackageKey.of(MAVEN, groupId + ":" + artifactId, version),
+                    version, Collections.singletonList(new RealtimeLocation(line, start,
+                    StringUtils.stripEnd(declaration, null).length()))));
+        }
+        return dependencies;
+    }
+
+    private static boolean isUnder(Deque<String> path, String root, String parent) {
+        Iterator<String> elements = path.iterator();
+        return root.equals(elements.next()) && parent.equals(elements.next());
+    }
+
+    /**
+     * @return the version with {@code ${name}} references replaced by properties of the same file,
+     * or null when a reference cannot be resolved
+     */
+    private static String resolveProperty(String version, Map<String, String> properties) {
+        if (version == null) {
+            return null;
+        }
+        Matcher matcher = MAVEN_PROPERTY.matcher(version);
+        StringBuffer resolved = new StringBuffer();
+        while (matcher.find()) {
+            String value = properties.get(matcher.group(1));
+            if (value == null || value.contains("${")) {
+                return null;
+            }
+            matcher.appendReplacement(resolved, Matcher.quoteReplacement(value));
+        }
+        matcher.appendTail(resolved);
+        return resolved.toString();
+    }
+
+    private static String fileName(Path manifest) {
+        Path fileName = manifest.getFileName();
+        return fileName == null ? "" : fileName.toString();
+    }
+}
@@ -0,0 +1,59 @@
+package com.checkmarx.ast.ossrealtime;
+
+import lombok.Value;
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.Locale;
+
+/**
+ * Identity of a package as far as vulnerability status is concerned: the same
+ * (manager, name, version) tuple has the same status in every manifest.
+ */
+@Value
+public class OssPackageKey {
+    private static final String PYPI = "pypi";
+
+    String packageManager;
+    String packageName;
+    String packageVersion;
+
+    /**
+     * Builds a key with the manager aliases used by the CLI and by manifests folded together,
+     * so that a tuple read from a manifest matches the tuple reported by the scan.
+     */
+    public static OssPackageKey of(String packageManager, String packageName, String packageVersion) {
+        String manager = normalizeManager(packageManager);
+        String name = StringUtils.defaultString(packageName).trim();
+        if (PYPI.equals(manager)) {
+            // PEP 503 name normalization
+            name = name.toLowerCase(Locale.ENGLISH).replaceAll("[-_.]+", "-");
+        }
+        return new OssPackageKey(manager, name, StringUtils.defaultString(packageVersion).trim());
+    }
+
+    public static OssPackageKey of(OssRealtimeScanPackage scanPackage) {
+        return of(scanPackage.getPackageManager(), scanPackage.getPackageName(), scanPackage.getPackageVersion());
+    }
+
+    /**
+     * @return the same key without its version, used to pair scan answers with manifest entries
+     */
+    OssPackageKey withoutVersion() {
+        return new OssPackageKey(packageManager, packageName, "");
+    }
+
+    private static String normalizeManager(String packageManager) {
+        String manager = StringUtils.defaultString(packageManager).trim().toLowerCase(Locale.ENGLISH);
+        switch (manager) {
+            case "pip":
+            case "python":
+                return PYPI;
+            case "mvn":
+                return "maven";
+            case "golang":
+                return "go";
+            default:
+                return manager;
+        }
+    }
+}
@@ -0,0 +1,265 @@
+package com.checkmarx.ast.ossrealtime;
+
+import com.checkmarx.ast.utils.ExpiringCache;
+import lombok.NonNull;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.function.LongSupplier;
+
+/**
+ * Package-level cache of OSS realtime answers keyed by (PackageManager, PackageName, PackageVersion).
+ * <p>
+ * Answers do not depend on the manifest that declares a package, so one scan of a package serves every
+ * manifest that declares the same tuple. Entries are stored under the tuple reported by the CLI and, when
+ * known, under the tuple declared in the manifest, since the two differ for version ranges.
+ * <p>
+ * The last successful scan of each manifest is remembered as well: the dependencies it declared and the
+ * answers it received. A rescan reuses those answers for unchanged declarations, as long as they are younger
+ * than the TTL and the scan ran in the same context, e.g. the same ignore file content, so that only added or
+ * changed packages have to be answered by the package cache or the CLI.
+ */
+public class OssRealtimeCache {
+
+    /**
+     * Upper bound of manifests whose last scan is remembered.
+     */
+    static final int MAX_REMEMBERED_MANIFESTS = 256;
+    /**
+     * Upper bound of cached package answers, least recently used evicted first, so that a long-lived process
+     * scanning many workspaces does not grow without limit.
+     */
+    static final int MAX_PACKAGES = 20_000;
+
+    private final ExpiringCache<OssPackageKey, OssRealtimeScanPackage> packages;
+    private final ExpiringCache<String, LastScan> lastScans;
+    private final long ttlMillis;
+    private final LongSupplier clock;
+
+    public OssRealtimeCache(@NonNull Duration ttl) {
+        this(ttl, MAX_PACKAGES, System::currentTimeMillis);
+    }
+
+    public OssRealtimeCache(@NonNull Duration ttl, @NonNull LongSupplier clock) {
+        this(ttl, MAX_PACKAGES, clock);
+    }
+
+    OssRealtimeCache(@NonNull Duration ttl, int maxPackages, @NonNull LongSupplier clock) {
+        this.packages = new ExpiringCache<>(ttl, maxPackages, clock);
+        this.lastScans = new ExpiringCache<>(ttl, MAX_REMEMBERED_MANIFESTS, clock);
+        this.ttlMillis = ttl.toMillis();
+        this.clock = clock;
+    }
+
+    /**
+     * @return the cached answer for a declared dependency, or null when it must be scanned
+     */
+    public OssRealtimeScanPackage lookup(@NonNull OssManifestDependency dependency) {
+        return packages.get(dependency.getKey());
+    }
+
+    public OssRealtimeScanPackage lookup(@NonNull OssPackageKey key) {
+        return packages.get(key);
+    }
+
+    /**
+     * Splits the dependencies of a manifest into cached answers, relocated to {@code filePath}, and the
+     * dependencies still unknown. Declarations unchanged since the last scan of the file take the answer of that
+     * scan; added and changed ones are looked up in the package cache. Nothing is remembered until
+     * {@link #remember} is called after a successful scan.
+     */
+    public Partition partition(@NonNull String filePath, @NonNull List<OssManifestDependency> dependencies) {
+        return partition(filePath, "", dependencies);
+    }
+
+    /**
+     * @param context what else the answers of the CLI depend on, e.g. the ignore file and a hash of its content;
+     *                the answers of a last scan in another context are not reused, since the CLI leaves ignored
+     *                packages out of its answer
+     */
+    public Partition partition(@NonNull String filePath, @NonNull String context,
+                               @NonNull List<OssManifestDependency> dependencies) {
+        LastScan last = lastScans.get(filePath);
+        OssManifestDiff diff = OssManifestDiff.of(last == null ? null : last.declared, dependencies);
+        boolean sameContext = last != null && last.context.equals(context);
+        long now = clock.getAsLong();
+        Map<OssManifestDependency, OssRealtimeScanPackage> cached = new LinkedHashMap<>();
+        Map<OssPackageKey, Answer> carried = new HashMap<>();
+        List<OssManifestDependency> missing = new ArrayList<>();
+        for (OssManifestDependency dependency : dependencies) {
+            Answer answer = sameContext ? last.answers.get(dependency.getKey()) : null;
+            if (answer != null && now - answer.scannedAt < ttlMillis) {
+                carried.put(dependency.getKey(), answer);
+                if (answer.scanPackage != null) {
+                    cached.put(dependency, answer.scanPackage.relocate(filePath, dependency.getLocations()));
+                }
+                continue;
+            }
+            OssRealtimeScanPackage scanPackage = lookup(dependency);
+            if (scanPackage == null) {
+                missing.add(dependency);
+            } else {
+                cached.put(dependency, scanPackage.relocate(filePath, dependency.getLocations()));
+            }
+        }
+        return new Partition(dependencies, context, cached, missing, diff, carried);
+    }
+
+    /**
+     * Remembers a successful scan of a manifest, so that the next {@link #partition} of the file only leaves
+     * added or changed declarations to answer.
+     *
+     * @param partition the partition the scan was planned with
+     * @param scanned   the dependencies that were sent to the CLI
+     * @param paired    the answer of the CLI as returned by {@link #store}
+     */
+    public void remember(@NonNull String filePath, @NonNull Partition partition,
+                         @NonNull List<OssManifestDependency> scanned,
+                         @NonNull Map<OssRealtimeScanPackage, OssManifestDependency> paired) {
+        long now = clock.getAsLong();
+        Map<OssPackageKey, Answer> answers = new HashMap<>(partition.carried);
+        for (OssManifestDependency dependency : scanned) {
+            // a declaration the CLI did not report on has nothing to report until it changes
+            answers.put(dependency.getKey(), new Answer(null, now));
+        }
+        for (Map.Entry<OssRealtimeScanPackage, OssManifestDependency> answer : paired.entrySet()) {
+            if (answer.getValue() != null) {
+                answers.put(answer.getValue().getKey(), new Answer(answer.getKey(), now));
+            }
+        }
+        Set<OssPackageKey> declared = new HashSet<>();
+        for (OssManifestDependency dependency : partition.dependencies) {
+            declared.add(dependency.getKey());
+        }
+        answers.keySet().retainAll(declared);
+        lastScans.put(filePath, new LastScan(declared, partition.context, answers));
+    }
+
+    /**
+     * Stores the packages of a scan answer. Packages are paired with the scanned dependency of the same manager,
+     * name and version, or else with the only scanned dependency of the same manager and name, so they are also
+     * reachable through their declared version, e.g. a range.
+     *
+     * @param scannedDependencies the dependencies that were sent to the CLI, or an empty list when unknown
+     * @return the answer paired with the scanned dependencies; unpaired packages are mapped to null
+     */
+    public Map<OssRealtimeScanPackage, OssManifestDependency> store(@NonNull List<OssManifestDependency> scannedDependencies,
+                                                                    OssRealtimeResults results) {
+        Map<OssRealtimeScanPackage, OssManifestDependency> paired = new LinkedHashMap<>();
+        if (results == null) {
+            return paired;
+        }
+        Map<OssPackageKey, OssManifestDependency> byKey = new HashMap<>();
+        Map<OssPackageKey, List<OssManifestDependency>> byName = new HashMap<>();
+        for (OssManifestDependency dependency : scannedDependencies) {
+            byKey.putIfAbsent(dependency.getKey(), dependency);
+            byName.computeIfAbsent(dependency.getKey().withoutVersion(), name -> new ArrayList<>()).add(dependency);
+        }
+        for (OssRealtimeScanPackage scanPackage : results.getPackages()) {
+            OssPackageKey key = OssPackageKey.of(scanPackage);
+            OssManifestDependency dependency = byKey.get(key);
+            if (dependency == null) {
+                List<OssManifestDependency> sameName = byName.get(key.withoutVersion());
+                // with several declarations of the name, the declared one the answer belongs to is unknown
+                dependency = sameName != null && sameName.size() == 1 ? sameName.get(0) : null;
+            }
+            packages.put(key, scanPackage);
+            if (dependency != null) {
+                packages.put(dependency.getKey(), scanPackage);
+            }
+            paired.put(scanPackage, dependency);
+        }
+        return paired;
+    }
+
+    /**
+     * Compares the dependencies of a manifest with the ones it declared at its last remembered scan.
+     */
+    public OssManifestDiff diff(@NonNull String filePath, @NonNull List<OssManifestDependency> dependencies) {
+        LastScan last = lastScans.get(filePath);
+        return OssManifestDiff.of(last == null ? null : last.declared, dependencies);
+    }
+
+    public void invalidate(@NonNull OssPackageKey key) {
+        packages.invalidate(key);
+    }
+
+    public void invalidateAll() {
+        packages.invalidateAll();
+        lastScans.invalidateAll();
+    }
+
+    public int size() {
+        return packages.size();
+    }
+
+    /**
+     * Result of {@link #partition(String, List)}.
+     */
+    public static final class Partition {
+        private final List<OssManifestDependency> dependencies;
+        private final String context;
+        private final Map<OssManifestDependency, OssRealtimeScanPackage> cached;
+        private final List<OssManifestDependency> missing;
+        private final OssManifestDiff diff;
+        private final Map<OssPackageKey, Answer> carried;
+
+        private Partition(List<OssManifestDependency> dependencies, String context,
+                          Map<OssManifestDependency, OssRealtimeScanPackage> cached, List<OssManifestDependency> missing,
+                          OssManifestDiff diff, Map<OssPackageKey, Answer> carried) {
+            this.dependencies = Collections.unmodifiableList(new ArrayList<>(dependencies));
+            this.context = context;
+            this.cached = Collections.unmodifiableMap(cached);
+            this.missing = Collections.unmodifiableList(missing);
+            this.diff = diff;
+            this.carried = carried;
+        }
+
+        /**
+         * @return cached answers already relocated to the requesting file, in manifest order
+         */
+        public Map<OssManifestDependency, OssRealtimeScanPackage> getCached() {
+            return cached;
+        }
+
+        public List<OssManifestDependency> getMissing() {
+            return missing;
+        }
+
+        public List<OssManifestDependency> getDependencies() {
+            return dependencies;
+        }
+
+        /**
+         * @return what changed in the manifest since its last remembered scan
+         */
+        public OssManifestDiff getDiff() {
+            return diff;
+        }
+    }
+
+    private static final class LastScan {
+        private final Set<OssPackageKey> declared;
+        private final String context;
+        private final Map<OssPackageKey, Answer> answers;
+
+        private LastScan(Set<OssPackageKey> declared, String context, Map<OssPackageKey, Answer> answers) {
+            this.declared = declared;
+            this.context = context;
+            this.answers = answers;
+        }
+    }
+
+    /**
+     * The answer a declaration received and when; a null package means the CLI reported nothing for it.
+     */
+    private static final class Answer {
+        private final OssRealtimeScanPackage scanPackage;
+        private final long scannedAt;
+
+        private Answer(OssRealtimeScanPackage scanPackage, long scannedAt) {
+            this.scanPackage = scanPackage;
+            this.scannedAt = scannedAt;
+        }
+    }
+}
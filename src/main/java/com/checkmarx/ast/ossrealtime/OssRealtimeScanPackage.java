@@ -40,5 +40,13 @@ public class OssRealtimeScanPackage {
         this.status = status;
         this.vulnerabilities = vulnerabilities == null ? Collections.emptyList() : vulnerabilities;
     }
+
+    /**
+     * @return a copy of this package reported against another file and locations
+     */
+    public OssRealtimeScanPackage relocate(String filePath, List<RealtimeLocation> locations) {
+        return new OssRealtimeScanPackage(packageManager, packageName, packageVersion, filePath, locations, status,
+                vulnerabilities);
+    }
 }
 
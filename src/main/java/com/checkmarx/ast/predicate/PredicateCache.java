@@ -0,0 +1,100 @@
+package com.checkmarx.ast.predicate;
+
+import com.checkmarx.ast.utils.ExpiringCache;
+import lombok.NonNull;
+import lombok.Value;
+import org.apache.commons.lang3.StringUtils;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.function.LongSupplier;
+
+/**
+ * Cache of triage predicates keyed by (projectId, similarity id or SCA vulnerability identifiers, scanType),
+ * with the custom-state list kept alongside.
+ * <p>
+ * Updates made through the same wrapper invalidate the affected entries; the TTL bounds how long changes made
+ * by other users can go unnoticed.
+ */
+public class PredicateCache {
+
+    /**
+     * Upper bound of cached predicate lists, least recently used evicted first, so that a long-running client does
+     * not keep the predicates of every result it ever showed.
+     */
+    static final int MAX_PREDICATES = 10_000;
+
+    private final ExpiringCache<Key, List<Predicate>> predicates;
+    private final ExpiringCache<Boolean, List<CustomState>> states;
+
+    public PredicateCache(@NonNull Duration ttl) {
+        this(ttl, System::currentTimeMillis);
+    }
+
+    public PredicateCache(@NonNull Duration ttl, @NonNull LongSupplier clock) {
+        this(ttl, MAX_PREDICATES, clock);
+    }
+
+    PredicateCache(@NonNull Duration ttl, int maxPredicates, @NonNull LongSupplier clock) {
+        this.predicates = new ExpiringCache<>(ttl, maxPredicates, clock);
+        // keyed by the all flag, so never more than two lists
+        this.states = new ExpiringCache<>(ttl, 2, clock);
+    }
+
+    /**
+     * @param ids a similarity id, or SCA vulnerability identifiers separated by commas or semicolons
+     * @return the cached predicates, or null when they must be fetched
+     */
+    public List<Predicate> get(@NonNull UUID projectId, String ids, String scanType) {
+        return predicates.get(Key.of(projectId, ids, scanType));
+    }
+
+    public void put(@NonNull UUID projectId, String ids, String scanType, List<Predicate> value) {
+        if (value != null) {
+            predicates.put(Key.of(projectId, ids, scanType), Collections.unmodifiableList(new ArrayList<>(value)));
+        }
+    }
+
+    /**
+     * Drops every entry of the project and scan type that covers at least one of the given ids.
+     */
+    public void invalidate(@NonNull UUID projectId, String ids, String scanType) {
+        Key updated = Key.of(projectId, ids, scanType);
+        predicates.invalidateIf((key, value) -> key.getProjectId().equals(updated.getProjectId())
+                && key.getScanType().equals(updated.getScanType())
+                && !Collections.disjoint(key.getIds(), updated.getIds()));
+    }
+
+    public List<CustomState> getStates(boolean all) {
+        return states.get(all);
+    }
+
+    public void putStates(boolean all, List<CustomState> value) {
+        if (value != null) {
+            states.put(all, Collections.unmodifiableList(new ArrayList<>(value)));
+        }
+    }
+
+    public void invalidateAll() {
+        predicates.invalidateAll();
+        states.invalidateAll();
+    }
+
+    @Value
+    static class Key {
+        String projectId;
+        Set<String> ids;
+        String scanType;
+
+        static Key of(UUID projectId, String ids, String scanType) {
+            Set<String> split = new TreeSet<>();
+            for (String id : StringUtils.defaultString(ids).split("[,;]")) {
+                if (StringUtils.isNotBlank(id)) {
+                    split.add(id.trim());
+                }
+            }
+            return new Key(projectId.toString(), split,
+                    StringUtils.defaultString(scanType).trim().toLowerCase(Locale.ENGLISH));
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.checkmarx.ast.predicate;
+
+import lombok.Builder;
+import lombok.NonNull;
+import lombok.Value;
+
+import java.util.Locale;
+import java.util.UUID;
+
+/**
+ * One triage change for {@code triageUpdateBatch}. SAST and KICS updates identify the finding by
+ * {@code similarityId}; SCA updates by {@code vulnerabilities}, the identifier accepted by
+ * {@code --vulnerability-identifiers}.
+ */
+@Value
+@Builder
+public class TriageUpdate {
+
+    static final String SCA = "sca";
+
+    @NonNull
+    UUID projectId;
+    String scanType;
+    String similarityId;
+    String vulnerabilities;
+    String state;
+    String comment;
+    String severity;
+    String customStateId;
+
+    public boolean isSca() {
+        return scanType != null && SCA.equals(scanType.trim().toLowerCase(Locale.ENGLISH));
+    }
+}
@@ -0,0 +1,21 @@
+package com.checkmarx.ast.predicate;
+
+import lombok.Value;
+
+/**
+ * Outcome of one {@link TriageUpdate} of a batch. SCA updates merged into one command share the outcome of
+ * that command.
+ */
+@Value
+public class TriageUpdateOutcome {
+
+    TriageUpdate update;
+    /**
+     * The failure of the command that carried the update, or null when it succeeded.
+     */
+    Exception error;
+
+    public boolean isSuccess() {
+        return error == null;
+    }
+}
@@ -0,0 +1,23 @@
+package com.checkmarx.ast.realtime;
+
+import lombok.Value;
+
+import java.nio.file.Path;
+import java.util.Map;
+
+/**
+ * Aggregated outcome of a multi-file realtime scan: the parsed result and the failure of each file, in the
+ * order the files were given.
+ *
+ * @param <T> the parsed result of one file
+ */
+@Value
+public class RealtimeBatchResults<T> {
+
+    Map<Path, T> results;
+    Map<Path, Exception> failures;
+
+    public boolean isComplete() {
+        return failures.isEmpty();
+    }
+}
@@ -0,0 +1,42 @@
+package com.checkmarx.ast.realtime;
+
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * Difference between the issues of the latest realtime scan of a file and those of the previous scan of the
+ * same file by the same engine. Issues are matched by {@link RealtimeIssue#getId()}.
+ */
+@Value
+public class RealtimeDelta {
+    String engine;
+    String filePath;
+    /**
+     * Issues whose id was not reported by the previous scan.
+     */
+    List<RealtimeIssue> added;
+    /**
+     * Issues of the previous scan whose id is no longer reported.
+     */
+    List<RealtimeIssue> removed;
+    /**
+     * Issues reported again with the same content at other locations, as they are now.
+     */
+    List<RealtimeIssue> moved;
+    /**
+     * Issues reported again with another title, description or severity, as they are now.
+     */
+    List<RealtimeIssue> changed;
+    /**
+     * Issues reported again exactly as before.
+     */
+    List<RealtimeIssue> unchanged;
+
+    /**
+     * @return true when nothing needs to be redrawn
+     */
+    public boolean isEmpty() {
+        return added.isEmpty() && removed.isEmpty() && moved.isEmpty() && changed.isEmpty();
+    }
+}
@@ -0,0 +1,104 @@
+package com.checkmarx.ast.realtime;
+
+import lombok.NonNull;
+import lombok.Value;
+
+import java.util.*;
+
+/**
+ * Remembers the issues of the last realtime scan of each (engine, file) and turns every new scan into a
+ * {@link RealtimeDelta} against it. Safe for concurrent use; scans of the same file by the same engine are
+ * expected to be reported in order.
+ * <p>
+ * Callers should {@link #forget} files that are closed or deleted. At most {@link #MAX_FILES} files (or the
+ * bound given to the constructor) are remembered in any case, least recently scanned forgotten first; the next
+ * scan of a forgotten file reports every issue as added.
+ */
+public class RealtimeDeltaTracker {
+
+    public static final int MAX_FILES = 10_000;
+
+    private final Map<Key, Map<String, RealtimeIssue>> previous;
+
+    public RealtimeDeltaTracker() {
+        this(MAX_FILES);
+    }
+
+    public RealtimeDeltaTracker(int maxFiles) {
+        if (maxFiles < 1) {
+            throw new IllegalArgumentException("maxFiles must be positive");
+        }
+        this.previous = Collections.synchronizedMap(new LinkedHashMap<Key, Map<String, RealtimeIssue>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Map<String, RealtimeIssue>> eldest) {
+                return size() > maxFiles;
+            }
+        });
+    }
+
+    /**
+     * Compares the issues with the previous ones of the same file and engine, and remembers them for the next
+     * call. The first call for a file reports every issue as added.
+     */
+    public RealtimeDelta update(@NonNull String engine, @NonNull String filePath, @NonNull List<RealtimeIssue> issues) {
+        Map<String, RealtimeIssue> current = new LinkedHashMap<>();
+        for (RealtimeIssue issue : issues) {
+            current.putIfAbsent(issue.getId(), issue);
+        }
+        Map<String, RealtimeIssue> before = previous.put(new Key(engine, filePath), current);
+        if (before == null) {
+            before = Collections.emptyMap();
+        }
+
+        List<RealtimeIssue> added = new ArrayList<>();
+        List<RealtimeIssue> moved = new ArrayList<>();
+        List<RealtimeIssue> changed = new ArrayList<>();
+        List<RealtimeIssue> unchanged = new ArrayList<>();
+        for (RealtimeIssue issue : current.values()) {
+            RealtimeIssue old = before.get(issue.getId());
+            if (old == null) {
+                added.add(issue);
+            } else if (!old.sameContent(issue)) {
+                changed.add(issue);
+            } else if (!old.getLocations().equals(issue.getLocations())) {
+                moved.add(issue);
+            } else {
+                unchanged.add(issue);
+            }
+        }
+        List<RealtimeIssue> removed = new ArrayList<>();
+        for (RealtimeIssue old : before.values()) {
+            if (!current.containsKey(old.getId())) {
+                removed.add(old);
+            }
+        }
+        return new RealtimeDelta(engine, filePath, Collections.unmodifiableList(added),
+                Collections.unmodifiableList(removed), Collections.unmodifiableList(moved),
+                Collections.unmodifiableList(changed), Collections.unmodifiableList(unchanged));
+    }
+
+    /**
+     * @return the issues of the last scan of the file by the engine, or an empty list when unknown
+     */
+    public List<RealtimeIssue> getIssues(@NonNull String engine, @NonNull String filePath) {
+        Map<String, RealtimeIssue> issues = previous.get(new Key(engine, filePath));
+        return issues == null ? Collections.emptyList() : Collections.unmodifiableList(new ArrayList<>(issues.values()));
+    }
+
+    /**
+     * Forgets a file, e.g. when it is closed or deleted; its next scan reports every issue as added.
+     */
+    public void forget(@NonNull String engine, @NonNull String filePath) {
+        previous.remove(new Key(engine, filePath));
+    }
+
+    public void clear() {
+        previous.clear();
+    }
+
+    @Value
+    private static class Key {
+        String engine;
+        String filePath;
+    }
+}
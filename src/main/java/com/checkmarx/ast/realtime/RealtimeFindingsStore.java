@@ -0,0 +1,262 @@
+package com.checkmarx.ast.realtime;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.NonNull;
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.*;
+
+/**
+ * Workspace-wide store of the realtime issues of every engine per file, within a memory budget.
+ * <p>
+ * When the estimated size of the stored issues exceeds the budget, the issues of the least recently used
+ * files that are not open are evicted. Per-file and workspace severity counts are updated on every change
+ * and survive eviction, so problem counts stay exact without walking any issue; an evicted file only needs
+ * a rescan when its issues are asked for again.
+ * <p>
+ * Stored issues are also kept in a {@link RealtimeLocationIndex} for position lookups.
+ */
+public class RealtimeFindingsStore {
+
+    public static final long DEFAULT_BUDGET_BYTES = 64L * 1024 * 1024;
+    static final String UNKNOWN_SEVERITY = "UNKNOWN";
+    private static final int ISSUE_OVERHEAD_BYTES = 96;
+    private static final int LOCATION_BYTES = 32;
+    private static final int ENGINE_OVERHEAD_BYTES = 128;
+    /**
+     * Charged for engine details that cannot be measured.
+     */
+    private static final int UNKNOWN_DETAILS_BYTES = 4 * 1024;
+    private static final ObjectMapper DETAILS_MAPPER = new ObjectMapper();
+
+    private final long budgetBytes;
+    private final Map<String, FileEntry> files = new LinkedHashMap<>(16, 0.75f, true);
+    private final Set<String> open = new HashSet<>();
+    private final Map<String, Integer> totals = new TreeMap<>();
+    private final RealtimeLocationIndex index = new RealtimeLocationIndex();
+    private long estimatedBytes;
+    private long evictions;
+
+    public RealtimeFindingsStore() {
+        this(DEFAULT_BUDGET_BYTES);
+    }
+
+    public RealtimeFindingsStore(long budgetBytes) {
+        if (budgetBytes <= 0) {
+            throw new IllegalArgumentException("budgetBytes must be positive");
+        }
+        this.budgetBytes = budgetBytes;
+    }
+
+    /**
+     * Replaces the issues an engine reported for a file, e.g. {@code engine.issues(result)}.
+     */
+    public synchronized void put(@NonNull String filePath, @NonNull String engine, @NonNull List<RealtimeIssue> issues) {
+        FileEntry file = files.computeIfAbsent(filePath, path -> new FileEntry());
+        EngineEntry previous = file.engines.get(engine);
+        if (previous != null) {
+            discard(previous);
+        }
+        EngineEntry entry = new EngineEntry(new ArrayList<>(issues));
+        for (RealtimeIssue issue : issues) {
+            entry.counts.merge(severity(issue), 1, Integer::sum);
+            entry.bytes += estimate(issue);
+        }
+        entry.counts.forEach((severity, count) -> totals.merge(severity, count, Integer::sum));
+        estimatedBytes += entry.bytes;
+        file.engines.put(engine, entry);
+        index.update(filePath, engine, issues);
+        evict();
+    }
+
+    /**
+     * Drops a file and its counts, e.g. when it is deleted.
+     */
+    public synchronized void remove(@NonNull String filePath) {
+        FileEntry file = files.remove(filePath);
+        open.remove(filePath);
+        if (file != null) {
+            for (EngineEntry entry : file.engines.values()) {
+                discard(entry);
+            }
+            index.remove(filePath);
+        }
+    }
+
+    /**
+     * Marks a file as open in the editor; the issues of open files are never evicted.
+     */
+    public synchronized void open(@NonNull String filePath) {
+        open.add(filePath);
+    }
+
+    public synchronized void close(@NonNull String filePath) {
+        if (open.remove(filePath)) {
+            evict();
+        }
+    }
+
+    /**
+     * @return the issues of the file reported by the engine, or null when none were stored or they were evicted
+     */
+    public synchronized List<RealtimeIssue> getIssues(@NonNull String filePath, @NonNull String engine) {
+        FileEntry file = files.get(filePath);
+        EngineEntry entry = file == null ? null : file.engines.get(engine);
+        return entry == null || entry.issues == null ? null : Collections.unmodifiableList(entry.issues);
+    }
+
+    /**
+     * @return the retained issues of every engine for the file
+     */
+    public synchronized List<RealtimeIssue> getIssues(@NonNull String filePath) {
+        FileEntry file = files.get(filePath);
+        List<RealtimeIssue> issues = new ArrayList<>();
+        if (file != null) {
+            for (EngineEntry entry : file.engines.values()) {
+                if (entry.issues != null) {
+                    issues.addAll(entry.issues);
+                }
+            }
+        }
+        return issues;
+    }
+
+    /**
+     * @return true when issues of the file were evicted and must be rescanned to be shown again
+     */
+    public synchronized boolean isEvicted(@NonNull String filePath) {
+        FileEntry file = files.get(filePath);
+        if (file == null) {
+            return false;
+        }
+        for (EngineEntry entry : file.engines.values()) {
+            if (entry.issues == null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return the number of issues of the file per upper-case severity, including evicted issues
+     */
+    public synchronized Map<String, Integer> getSeverityCounts(@NonNull String filePath) {
+        Map<String, Integer> counts = new TreeMap<>();
+        FileEntry file = files.get(filePath);
+        if (file != null) {
+            for (EngineEntry entry : file.engines.values()) {
+                entry.counts.forEach((severity, count) -> counts.merge(severity, count, Integer::sum));
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * @return the number of issues of the workspace per upper-case severity, including evicted issues
+     */
+    public synchronized Map<String, Integer> getSeverityCounts() {
+        return new TreeMap<>(totals);
+    }
+
+    public synchronized int getIssueCount() {
+        int count = 0;
+        for (int value : totals.values()) {
+            count += value;
+        }
+        return count;
+    }
+
+    public RealtimeLocationIndex getLocationIndex() {
+        return index;
+    }
+
+    public synchronized long getEstimatedBytes() {
+        return estimatedBytes;
+    }
+
+    /**
+     * @return how many times the issues of a file were evicted
+     */
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    private void discard(EngineEntry entry) {
+        entry.counts.forEach((severity, count) -> {
+            if (totals.merge(severity, -count, Integer::sum) == 0) {
+                totals.remove(severity);
+            }
+        });
+        estimatedBytes -= entry.bytes;
+    }
+
+    private void evict() {
+        Iterator<Map.Entry<String, FileEntry>> eldest = files.entrySet().iterator();
+        while (estimatedBytes > budgetBytes && eldest.hasNext()) {
+            Map.Entry<String, FileEntry> file = eldest.next();
+            if (open.contains(file.getKey())) {
+                continue;
+            }
+            boolean evicted = false;
+            for (EngineEntry entry : file.getValue().engines.values()) {
+                if (entry.issues != null) {
+                    estimatedBytes -= entry.bytes;
+                    entry.bytes = 0;
+                    entry.issues = null;
+                    evicted = true;
+                }
+            }
+            if (evicted) {
+                index.remove(file.getKey());
+                evictions++;
+            }
+        }
+    }
+
+    private static String severity(RealtimeIssue issue) {
+        return StringUtils.isBlank(issue.getSeverity())
+                ? UNKNOWN_SEVERITY
+                : issue.getSeverity().trim().toUpperCase(Locale.ENGLISH);
+    }
+
+    /**
+     * Rough heap size of an issue: the characters of its strings and of its engine details, e.g. the whole
+     * vulnerability list of an OSS package, plus fixed overheads.
+     */
+    static long estimate(RealtimeIssue issue) {
+        long chars = StringUtils.length(issue.getId()) + StringUtils.length(issue.getTitle())
+                + StringUtils.length(issue.getDescription()) + StringUtils.length(issue.getSeverity())
+                + StringUtils.length(issue.getFilePath());
+        return ISSUE_OVERHEAD_BYTES + 2 * chars + (long) LOCATION_BYTES * issue.getLocations().size()
+                + estimateDetails(issue.getDetails());
+    }
+
+    /**
+     * @return twice the length of the JSON form of the details, which holds every string they retain
+     */
+    private static long estimateDetails(Object details) {
+        if (details == null) {
+            return 0;
+        }
+        try {
+            return 2L * DETAILS_MAPPER.writeValueAsString(details).length();
+        } catch (JsonProcessingException | RuntimeException e) {
+            return UNKNOWN_DETAILS_BYTES;
+        }
+    }
+
+    private static final class FileEntry {
+        private final Map<String, EngineEntry> engines = new HashMap<>();
+    }
+
+    private static final class EngineEntry {
+        private final Map<String, Integer> counts = new HashMap<>();
+        private List<RealtimeIssue> issues;
+        private long bytes = ENGINE_OVERHEAD_BYTES;
+
+        private EngineEntry(List<RealtimeIssue> issues) {
+            this.issues = issues;
+        }
+    }
+}
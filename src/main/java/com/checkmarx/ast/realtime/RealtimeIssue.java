@@ -0,0 +1,43 @@
+package com.checkmarx.ast.realtime;
+
+import lombok.Value;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * One finding of a realtime engine in a common shape, whatever engine produced it.
+ * <p>
+ * The id identifies the same finding across scans of the same file: it does not depend on where the
+ * finding is, so a finding pushed down by an edit keeps its id and only its locations change.
+ */
+@Value
+public class RealtimeIssue {
+    String engine;
+    String id;
+    String title;
+    String description;
+    String severity;
+    String filePath;
+    /**
+     * Zero based lines, as reported by the realtime engines.
+     */
+    List<RealtimeLocation> locations;
+    /**
+     * The engine specific model the issue was built from, e.g. an {@code IacRealtimeResults.Issue}.
+     */
+    Object details;
+
+    /**
+     * @return true when the two issues report the same thing, regardless of where
+     */
+    public boolean sameContent(RealtimeIssue other) {
+        return Objects.equals(title, other.title)
+                && Objects.equals(description, other.description)
+                && Objects.equals(severity, other.severity);
+    }
+
+    RealtimeIssue withId(String id) {
+        return new RealtimeIssue(engine, id, title, description, severity, filePath, locations, details);
+    }
+}
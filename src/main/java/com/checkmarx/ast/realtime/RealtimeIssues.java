@@ -0,0 +1,185 @@
+package com.checkmarx.ast.realtime;
+
+import com.checkmarx.ast.asca.ScanDetail;
+import com.checkmarx.ast.asca.ScanResult;
+import com.checkmarx.ast.containersrealtime.ContainersRealtimeImage;
+import com.checkmarx.ast.containersrealtime.ContainersRealtimeResults;
+import com.checkmarx.ast.iacrealtime.IacRealtimeResults;
+import com.checkmarx.ast.kicsRealtimeResults.KicsRealtimeResults;
+import com.checkmarx.ast.kicsRealtimeResults.ast.kicsRealtimeResult.KicsLocation;
+import com.checkmarx.ast.kicsRealtimeResults.ast.kicsRealtimeResult.KicsResult;
+import com.checkmarx.ast.ossrealtime.OssRealtimeResults;
+import com.checkmarx.ast.ossrealtime.OssRealtimeScanPackage;
+import com.checkmarx.ast.secretsrealtime.SecretsRealtimeResults;
+import com.checkmarx.ast.utils.Hashing;
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.*;
+
+/**
+ * Converts the results of each realtime engine into {@link RealtimeIssue}s with stable ids.
+ * <p>
+ * The id is the {@code SimilarityID} where the engine reports one. Otherwise it is built from what the
+ * finding is about: the package or image coordinates, or a hash of the title, file and flagged content.
+ * Locations are left out so that moving a finding does not change its id. When the same id occurs more
+ * than once in a file, the occurrences are numbered in file order.
+ */
+public final class RealtimeIssues {
+
+    public static final String OSS = "oss";
+    public static final String SECRETS = "secrets";
+    public static final String CONTAINERS = "containers";
+    public static final String IAC = "iac";
+    public static final String ASCA = "asca";
+    public static final String KICS = "kics";
+
+    private RealtimeIssues() {
+    }
+
+    public static List<RealtimeIssue> of(OssRealtimeResults results) {
+        List<RealtimeIssue> issues = new ArrayList<>();
+        if (results != null && results.getPackages() != null) {
+            for (OssRealtimeScanPackage scanPackage : results.getPackages()) {
+                String coordinates = scanPackage.getPackageManager() + ":" + scanPackage.getPackageName() + ":"
+                        + scanPackage.getPackageVersion();
+                issues.add(new RealtimeIssue(OSS, coordinates,
+                        scanPackage.getPackageName() + "@" + scanPackage.getPackageVersion(), null,
+                        scanPackage.getStatus(), scanPackage.getFilePath(), locations(scanPackage.getLocations()),
+                        scanPackage));
+            }
+        }
+        return numbered(issues);
+    }
+
+    public static List<RealtimeIssue> of(SecretsRealtimeResults results) {
+        List<RealtimeIssue> issues = new ArrayList<>();
+        if (results != null) {
+            for (SecretsRealtimeResults.Secret secret : results.getSecrets()) {
+                issues.add(new RealtimeIssue(SECRETS,
+                        hash(secret.getTitle(), secret.getFilePath(), secret.getSecretValue()),
+                        secret.getTitle(), secret.getDescription(), secret.getSeverity(), secret.getFilePath(),
+                        locations(secret.getLocations()), secret));
+            }
+        }
+        return numbered(issues);
+    }
+
+    public static List<RealtimeIssue> of(ContainersRealtimeResults results) {
+        List<RealtimeIssue> issues = new ArrayList<>();
+        if (results != null && results.getImages() != null) {
+            for (ContainersRealtimeImage image : results.getImages()) {
+                String reference = image.getImageName() + ":" + image.getImageTag();
+                issues.add(new RealtimeIssue(CONTAINERS, reference, reference, null, image.getStatus(),
+                        image.getFilePath(), locations(image.getLocations()), image));
+            }
+        }
+        return numbered(issues);
+    }
+
+    public static List<RealtimeIssue> of(IacRealtimeResults results) {
+        List<RealtimeIssue> issues = new ArrayList<>();
+        if (results != null) {
+            for (IacRealtimeResults.Issue issue : results.getResults()) {
+                String id = StringUtils.isNotBlank(issue.getSimilarityId())
+                        ? issue.getSimilarityId()
+                        : hash(issue.getTitle(), issue.getFilePath(), issue.getExpectedValue(), issue.getActualValue());
+                issues.add(new RealtimeIssue(IAC, id, issue.getTitle(), issue.getDescription(), issue.getSeverity(),
+                        issue.getFilePath(), locations(issue.getLocations()), issue));
+            }
+        }
+        return numbered(issues);
+    }
+
+    /**
+     * ASCA reports one based lines without columns; they are converted to a zero based location spanning the
+     * flagged line.
+     */
+    public static List<RealtimeIssue> of(ScanResult result) {
+        List<RealtimeIssue> issues = new ArrayList<>();
+        if (result != null && result.getScanDetails() != null) {
+            for (ScanDetail detail : result.getScanDetails()) {
+                String problematicLine = StringUtils.defaultString(detail.getProblematicLine());
+                issues.add(new RealtimeIssue(ASCA,
+                        hash(String.valueOf(detail.getRuleID()), detail.getFileName(), problematicLine.trim()),
+                        detail.getRuleName(), detail.getDescription(), detail.getSeverity(), detail.getFileName(),
+                        Collections.singletonList(new RealtimeLocation(Math.max(0, detail.getLine() - 1), 0,
+                                problematicLine.length())),
+                        detail));
+            }
+        }
+        return numbered(issues);
+    }
+
+    /**
+     * KICS reports one based lines without columns; each file entry becomes an issue whose location spans the
+     * whole zero based line.
+     */
+    public static List<RealtimeIssue> of(KicsRealtimeResults results) {
+        List<RealtimeIssue> issues = new ArrayList<>();
+        if (results != null && results.getResults() != null) {
+            for (KicsResult result : results.getResults()) {
+                if (result.getLocations() == null) {
+                    continue;
+                }
+                for (KicsLocation location : result.getLocations()) {
+                    String id = StringUtils.isNotBlank(location.getSimilarityID())
+                            ? location.getSimilarityID()
+                            : hash(result.getQueryID(), location.getFileName(), location.getSearchKey());
+                    issues.add(new RealtimeIssue(KICS, id, result.getQueryName(), result.getDescription(),
+                            result.getSeverity(), location.getFileName(),
+                            Collections.singletonList(new RealtimeLocation(Math.max(0, location.getLine() - 1), 0,
+                                    Integer.MAX_VALUE)),
+                            location));
+                }
+            }
+        }
+        return numbered(issues);
+    }
+
+    private static List<RealtimeLocation> locations(List<RealtimeLocation> locations) {
+        return locations == null ? Collections.emptyList() : locations;
+    }
+
+    /**
+     * Numbers repeated ids in order of their first location, leaving the first occurrence unchanged.
+     */
+    private static List<RealtimeIssue> numbered(List<RealtimeIssue> issues) {
+        Map<String, List<Integer>> byId = new HashMap<>();
+        for (int i = 0; i < issues.size(); i++) {
+            byId.computeIfAbsent(issues.get(i).getId(), id -> new ArrayList<>()).add(i);
+        }
+        for (List<Integer> indexes : byId.values()) {
+            if (indexes.size() < 2) {
+                continue;
+            }
+            indexes.sort(Comparator.comparing((Integer i) -> firstLocation(issues.get(i)), RealtimeIssues::compare));
+            for (int occurrence = 1; occurrence < indexes.size(); occurrence++) {
+                int index = indexes.get(occurrence);
+                issues.set(index, issues.get(index).withId(issues.get(index).getId() + "#" + (occurrence + 1)));
+            }
+        }
+        return Collections.unmodifiableList(issues);
+    }
+
+    private static RealtimeLocation firstLocation(RealtimeIssue issue) {
+        RealtimeLocation first = null;
+        for (RealtimeLocation location : issue.getLocations()) {
+            if (first == null || compare(location, first) < 0) {
+                first = location;
+            }
+        }
+        return first;
+    }
+
+    static int compare(RealtimeLocation a, RealtimeLocation b) {
+        if (a == null || b == null) {
+            return a == null ? (b == null ? 0 : 1) : -1;
+        }
+        int byLine = Integer.compare(a.getLine(), b.getLine());
+        return byLine != 0 ? byLine : Integer.compare(a.getStartIndex(), b.getStartIndex());
+    }
+
+    private static String hash(String... parts) {
+        return Hashing.sha256Fields(parts).substring(0, 32);
+    }
+}
@@ -0,0 +1,181 @@
+package com.checkmarx.ast.realtime;
+
+import lombok.NonNull;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-file index of the locations of realtime issues, answering "which issues cover this line, this position
+ * or this range of lines" in O(log n + k) for n locations and k matches.
+ * <p>
+ * Each (file, engine) pair has its own immutable index, replaced as a whole by {@link #update}, so new results
+ * of one engine only rebuild that engine's part of the file and readers never block. A location covers its line
+ * from {@code StartIndex} up to, but not including, {@code EndIndex}; a location whose end is not after its start
+ * covers the start position only.
+ */
+public class RealtimeLocationIndex {
+
+    private final Map<String, Map<String, Intervals>> files = new ConcurrentHashMap<>();
+
+    /**
+     * Replaces the issues an engine reported for a file. An empty list removes them.
+     */
+    public void update(@NonNull String filePath, @NonNull String engine, @NonNull Collection<RealtimeIssue> issues) {
+        Intervals intervals = issues.isEmpty() ? null : new Intervals(issues);
+        files.compute(filePath, (path, engines) -> {
+            Map<String, Intervals> updated = engines == null ? new HashMap<>() : new HashMap<>(engines);
+            if (intervals == null) {
+                updated.remove(engine);
+            } else {
+                updated.put(engine, intervals);
+            }
+            return updated.isEmpty() ? null : Collections.unmodifiableMap(updated);
+        });
+    }
+
+    public void remove(@NonNull String filePath) {
+        files.remove(filePath);
+    }
+
+    public void clear() {
+        files.clear();
+    }
+
+    /**
+     * @return the issues with a location on the zero based line, in position order
+     */
+    public List<RealtimeIssue> at(@NonNull String filePath, int line) {
+        return between(filePath, line, line);
+    }
+
+    /**
+     * @return the issues with a location covering the position, in position order
+     */
+    public List<RealtimeIssue> at(@NonNull String filePath, int line, int column) {
+        long position = position(line, column);
+        return query(filePath, position, position);
+    }
+
+    /**
+     * @return the issues with a location on any line from {@code fromLine} to {@code toLine} inclusive, in
+     * position order
+     */
+    public List<RealtimeIssue> between(@NonNull String filePath, int fromLine, int toLine) {
+        return query(filePath, position(fromLine, 0), position(toLine, Integer.MAX_VALUE));
+    }
+
+    /**
+     * @return the number of indexed locations of the file
+     */
+    public int size(@NonNull String filePath) {
+        int size = 0;
+        for (Intervals intervals : files.getOrDefault(filePath, Collections.emptyMap()).values()) {
+            size += intervals.starts.length;
+        }
+        return size;
+    }
+
+    private List<RealtimeIssue> query(String filePath, long from, long to) {
+        Map<String, Intervals> engines = files.get(filePath);
+        if (engines == null || from > to) {
+            return Collections.emptyList();
+        }
+        List<Match> matches = new ArrayList<>();
+        for (Intervals intervals : engines.values()) {
+            intervals.query(0, intervals.starts.length, from, to, matches);
+        }
+        if (engines.size() > 1) {
+            matches.sort(Comparator.comparingLong(match -> match.start));
+        }
+        // an issue with several matching locations is reported once
+        Set<RealtimeIssue> issues = Collections.newSetFromMap(new IdentityHashMap<>());
+        List<RealtimeIssue> result = new ArrayList<>();
+        for (Match match : matches) {
+            if (issues.add(match.issue)) {
+                result.add(match.issue);
+            }
+        }
+        return result;
+    }
+
+    private static long position(int line, int column) {
+        return ((long) Math.max(0, line) << 32) | (Math.max(0, column) & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Locations sorted by start, stored as an implicit balanced search tree: the middle of every range is the
+     * root of that range, and {@code maxEnd} holds the largest end within the range it roots.
+     */
+    private static final class Intervals {
+        private final long[] starts;
+        private final long[] ends;
+        private final long[] maxEnd;
+        private final RealtimeIssue[] issues;
+
+        private Intervals(Collection<RealtimeIssue> source) {
+            List<Match> entries = new ArrayList<>();
+            for (RealtimeIssue issue : source) {
+                for (RealtimeLocation location : issue.getLocations()) {
+                    long start = position(location.getLine(), location.getStartIndex());
+                    long end = location.getEndIndex() > location.getStartIndex()
+                            ? position(location.getLine(), location.getEndIndex() - 1)
+                            : start;
+                    entries.add(new Match(start, end, issue));
+                }
+            }
+            entries.sort(Comparator.comparingLong(entry -> entry.start));
+            int size = entries.size();
+            starts = new long[size];
+            ends = new long[size];
+            maxEnd = new long[size];
+            issues = new RealtimeIssue[size];
+            for (int i = 0; i < size; i++) {
+                starts[i] = entries.get(i).start;
+                ends[i] = entries.get(i).end;
+                issues[i] = entries.get(i).issue;
+            }
+            build(0, size);
+        }
+
+        private long build(int low, int high) {
+            if (low >= high) {
+                return Long.MIN_VALUE;
+            }
+            int middle = (low + high) >>> 1;
+            maxEnd[middle] = Math.max(ends[middle], Math.max(build(low, middle), build(middle + 1, high)));
+            return maxEnd[middle];
+        }
+
+        private void query(int low, int high, long from, long to, List<Match> matches) {
+            if (low >= high) {
+                return;
+            }
+            int middle = (low + high) >>> 1;
+            if (maxEnd[middle] < from) {
+                return;
+            }
+            query(low, middle, from, to, matches);
+            if (starts[middle] > to) {
+                // everything to the right starts even later
+                return;
+            }
+            if (ends[middle] >= from) {
+                matches.add(new Match(starts[middle], ends[middle], issues[middle]));
+            }
+            query(middle + 1, high, from, to, matches);
+        }
+    }
+
+    private static final class Match {
+        private final long start;
+        private final long end;
+        private final RealtimeIssue issue;
+
+        private Match(long start, long end, RealtimeIssue issue) {
+            this.start = start;
+            this.end = end;
+            this.issue = issue;
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.checkmarx.ast.results;
+
+import com.checkmarx.ast.results.result.Result;
+
+import java.util.UUID;
+
+/**
+ * Receives the results of many scans one at a time, tagged with the scan they belong to.
+ */
+@FunctionalInterface
+public interface ResultsSink {
+
+    void accept(UUID scanId, Result result);
+
+    /**
+     * Called once every result of a scan has been passed to {@link #accept(UUID, Result)}.
+     *
+     * @param totalCount the total count declared by the report
+     */
+    default void complete(UUID scanId, int totalCount) {
+    }
+}
@@ -0,0 +1,62 @@
+package com.checkmarx.ast.results;
+
+import com.checkmarx.ast.results.result.Result;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.NonNull;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.function.Consumer;
+
+/**
+ * Reads a JSON results report one {@link Result} at a time, so that memory does not grow with the size
+ * of the report.
+ */
+public final class ResultsStreamReader {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final String RESULTS = "results";
+    private static final String TOTAL_COUNT = "totalCount";
+
+    private ResultsStreamReader() {
+    }
+
+    /**
+     * @return the total count declared by the report
+     */
+    public static int read(@NonNull Path report, @NonNull Consumer<Result> consumer) throws IOException {
+        try (InputStream in = Files.newInputStream(report)) {
+            return read(in, consumer);
+        }
+    }
+
+    /**
+     * @return the total count declared by the report
+     */
+    public static int read(@NonNull InputStream report, @NonNull Consumer<Result> consumer) throws IOException {
+        int totalCount = 0;
+        try (JsonParser parser = MAPPER.getFactory().createParser(report)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("Results report is not a JSON object");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                JsonToken value = parser.nextToken();
+                if (RESULTS.equals(field) && value == JsonToken.START_ARRAY) {
+                    while (parser.nextToken() == JsonToken.START_OBJECT) {
+                        consumer.accept(MAPPER.readValue(parser, Result.class));
+                    }
+                } else if (TOTAL_COUNT.equals(field) && value == JsonToken.VALUE_NUMBER_INT) {
+                    totalCount = parser.getIntValue();
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+        return totalCount;
+    }
+}
@@ -112,8 +112,12 @@ public class Node {
                 Objects.equals(methodLine, node.methodLine);
     }
 
+    /**
+     * Hashes the location fields compared by {@link #equals(Object)}, so that nodes can be used as hash keys
+     * when matching best fix locations.
+     */
     @Override
     public int hashCode() {
-        return id.hashCode();
+        return Objects.hash(line, column, length, name, method, domType, fileName, fullName, methodLine);
     }
 }
@@ -0,0 +1,319 @@
+package com.checkmarx.ast.scan;
+
+import com.checkmarx.ast.results.Results;
+import com.checkmarx.ast.wrapper.CxWrapper;
+import lombok.NonNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+/**
+ * Waits for any number of scans with one {@code scan list} call per poll instead of one {@code scan show}
+ * per scan.
+ * <p>
+ * Each watched scan is due for a status check after an interval that grows with the age of the scan, from
+ * {@code minInterval} up to {@code maxInterval}. The age is counted from the {@code CreatedAt} the poll
+ * reports, or from when the scan was first watched when that is missing. Whenever at least one scan is due, every
+ * pending scan is fetched through a single {@code scan-ids} filter, so young scans keep the poll rate up
+ * for the whole batch while a batch of old scans is checked rarely.
+ * <p>
+ * When a scan reaches a terminal status its future completes and the listeners are notified. With
+ * {@code prefetchResults} enabled, the results report of completed and partial scans is fetched right
+ * away on a separate thread.
+ * <p>
+ * A scan is forgotten once its status and, when prefetching, its results are known, so that a long-running
+ * watcher does not keep every report reachable. Keep the futures returned by {@link #watch} and
+ * {@link #results} to use the outcome afterwards.
+ */
+public class ScanWatcher implements AutoCloseable {
+    private static final Logger log = LoggerFactory.getLogger(ScanWatcher.class);
+
+    public static final Duration DEFAULT_MIN_INTERVAL = Duration.ofSeconds(5);
+    public static final Duration DEFAULT_MAX_INTERVAL = Duration.ofMinutes(1);
+    static final Set<String> TERMINAL_STATUSES = Collections.unmodifiableSet(new HashSet<>(
+            Arrays.asList("completed", "failed", "canceled", "partial")));
+    private static final Set<String> RESULT_STATUSES = Collections.unmodifiableSet(new HashSet<>(
+            Arrays.asList("completed", "partial")));
+    /**
+     * The poll interval of a scan is its age divided by this factor, within the configured bounds.
+     */
+    private static final int AGE_DIVISOR = 10;
+    /**
+     * Upper bound of ids sent in one filter, to keep the command line and the page size reasonable.
+     */
+    static final int MAX_IDS_PER_CALL = 100;
+
+    /**
+     * Receives the outcome of watched scans. Callbacks run on the watcher threads and should return quickly.
+     */
+    public interface Listener {
+        void onTerminal(Scan scan);
+
+        default void onResults(Scan scan, Results results) {
+        }
+
+        default void onResultsFailed(Scan scan, Exception e) {
+        }
+    }
+
+    private final CxWrapper wrapper;
+    private final long minIntervalMillis;
+    private final long maxIntervalMillis;
+    private final boolean prefetchResults;
+    private final LongSupplier clock;
+    private final ScheduledExecutorService executor;
+    private final Map<UUID, Watch> watches = new ConcurrentHashMap<>();
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    private volatile boolean closed;
+
+    public ScanWatcher(@NonNull CxWrapper wrapper) {
+        this(wrapper, DEFAULT_MIN_INTERVAL, DEFAULT_MAX_INTERVAL, false);
+    }
+
+    public ScanWatcher(@NonNull CxWrapper wrapper, @NonNull Duration minInterval, @NonNull Duration maxInterval,
+                       boolean prefetchResults) {
+        this(wrapper, minInterval, maxInterval, prefetchResults, System::currentTimeMillis, true);
+    }
+
+    ScanWatcher(@NonNull CxWrapper wrapper, @NonNull Duration minInterval, @NonNull Duration maxInterval,
+                boolean prefetchResults, @NonNull LongSupplier clock, boolean schedule) {
+        if (minInterval.isNegative() || minInterval.isZero() || maxInterval.compareTo(minInterval) < 0) {
+            throw new IllegalArgumentException("Poll intervals must be positive and minInterval <= maxInterval");
+        }
+        this.wrapper = wrapper;
+        this.minIntervalMillis = minInterval.toMillis();
+        this.maxIntervalMillis = maxInterval.toMillis();
+        this.prefetchResults = prefetchResults;
+        this.clock = clock;
+        // one thread polls, the other fetches result reports so that polling is never held up
+        this.executor = Executors.newScheduledThreadPool(2, runnable -> {
+            Thread thread = new Thread(runnable, "cx-scan-watcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (schedule) {
+            executor.scheduleWithFixedDelay(this::pollIfDue, minIntervalMillis, minIntervalMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    public void addListener(@NonNull Listener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(@NonNull Listener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Starts watching a scan. Watching the same scan twice returns the same future.
+     *
+     * @return a future completed with the scan once it reaches a terminal status
+     */
+    public CompletableFuture<Scan> watch(@NonNull UUID scanId) {
+        if (closed) {
+            throw new IllegalStateException("ScanWatcher is closed");
+        }
+        return watches.computeIfAbsent(scanId, id -> new Watch(clock.getAsLong())).terminal;
+    }
+
+    /**
+     * @return the future of the prefetched results report of a watched scan, or null when the scan is not
+     * watched, has already been forgotten, or prefetching is disabled
+     */
+    public CompletableFuture<Results> results(@NonNull UUID scanId) {
+        Watch watch = watches.get(scanId);
+        return watch == null || !prefetchResults ? null : watch.results;
+    }
+
+    /**
+     * Stops watching a scan and cancels its futures.
+     */
+    public void unwatch(@NonNull UUID scanId) {
+        Watch watch = watches.remove(scanId);
+        if (watch != null) {
+            watch.terminal.cancel(false);
+            watch.results.cancel(false);
+        }
+    }
+
+    /**
+     * @return the ids of the scans that have not reached a terminal status yet
+     */
+    public Set<UUID> pending() {
+        Set<UUID> pending = new HashSet<>();
+        watches.forEach((id, watch) -> {
+            if (!watch.terminal.isDone()) {
+                pending.add(id);
+            }
+        });
+        return pending;
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        executor.shutdownNow();
+        for (UUID scanId : new ArrayList<>(watches.keySet())) {
+            unwatch(scanId);
+        }
+    }
+
+    /**
+     * Polls every pending scan when at least one of them is due.
+     */
+    void pollIfDue() {
+        long now = clock.getAsLong();
+        boolean due = false;
+        for (Watch watch : watches.values()) {
+            if (!watch.terminal.isDone() && watch.nextPollAt <= now) {
+                due = true;
+                break;
+            }
+        }
+        if (due) {
+            poll();
+        }
+    }
+
+    /**
+     * Fetches the status of every pending scan, in as few {@code scan list} calls as the id limit allows.
+     */
+    void poll() {
+        List<UUID> pending = new ArrayList<>(pending());
+        for (int from = 0; from < pending.size(); from += MAX_IDS_PER_CALL) {
+            List<UUID> chunk = pending.subList(from, Math.min(pending.size(), from + MAX_IDS_PER_CALL));
+            List<Scan> scans;
+            try {
+                scans = wrapper.scanList(filter(chunk));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                // the scans stay pending and are retried when due again
+                log.warn("Failed to poll the status of {} scans: {}", chunk.size(), e.getMessage());
+                reschedule(chunk);
+                continue;
+            }
+            if (scans != null) {
+                for (Scan scan : scans) {
+                    update(scan);
+                }
+            }
+            reschedule(chunk);
+        }
+    }
+
+    static String filter(Collection<UUID> scanIds) {
+        StringJoiner ids = new StringJoiner(";");
+        for (UUID scanId : scanIds) {
+            ids.add(scanId.toString());
+        }
+        return "scan-ids=" + ids + ",limit=" + scanIds.size();
+    }
+
+    long intervalFor(long ageMillis) {
+        return Math.max(minIntervalMillis, Math.min(maxIntervalMillis, ageMillis / AGE_DIVISOR));
+    }
+
+    /**
+     * @return when the scan was created, or {@code since} when that is unknown or later
+     */
+    static long createdAt(Scan scan, long since) {
+        if (scan.getCreatedAt() == null) {
+            return since;
+        }
+        try {
+            return Math.min(since, OffsetDateTime.parse(scan.getCreatedAt()).toInstant().toEpochMilli());
+        } catch (DateTimeParseException e) {
+            return since;
+        }
+    }
+
+    private void reschedule(List<UUID> scanIds) {
+        long now = clock.getAsLong();
+        for (UUID scanId : scanIds) {
+            Watch watch = watches.get(scanId);
+            if (watch != null) {
+                watch.nextPollAt = now + intervalFor(now - watch.createdAt);
+            }
+        }
+    }
+
+    private void update(Scan scan) {
+        if (scan == null || scan.getId() == null || scan.getStatus() == null) {
+            return;
+        }
+        UUID scanId;
+        try {
+            scanId = UUID.fromString(scan.getId());
+        } catch (IllegalArgumentException e) {
+            return;
+        }
+        Watch watch = watches.get(scanId);
+        if (watch == null) {
+            return;
+        }
+        watch.createdAt = createdAt(scan, watch.since);
+        String status = scan.getStatus().toLowerCase(Locale.ENGLISH);
+        if (!TERMINAL_STATUSES.contains(status) || !watch.terminal.complete(scan)) {
+            return;
+        }
+        watch.results.whenComplete((results, e) -> watches.remove(scanId, watch));
+        notifyListeners(scanId, listener -> listener.onTerminal(scan));
+        if (!prefetchResults) {
+            watches.remove(scanId, watch);
+            return;
+        }
+        if (RESULT_STATUSES.contains(status)) {
+            executor.execute(() -> prefetch(scanId, scan, watch));
+        } else {
+            watch.results.complete(null);
+        }
+    }
+
+    private void prefetch(UUID scanId, Scan scan, Watch watch) {
+        try {
+            Results results = wrapper.results(scanId);
+            watch.results.complete(results);
+            notifyListeners(scanId, listener -> listener.onResults(scan, results));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            watch.results.completeExceptionally(e);
+        } catch (Exception e) {
+            log.warn("Failed to prefetch the results of scan {}: {}", scanId, e.getMessage());
+            watch.results.completeExceptionally(e);
+            notifyListeners(scanId, listener -> listener.onResultsFailed(scan, e));
+        }
+    }
+
+    private void notifyListeners(UUID scanId, Consumer<Listener> callback) {
+        for (Listener listener : listeners) {
+            try {
+                callback.accept(listener);
+            } catch (RuntimeException e) {
+                log.warn("Scan watcher listener failed for scan {}", scanId, e);
+            }
+        }
+    }
+
+    private static final class Watch {
+        private final long since;
+        private final CompletableFuture<Scan> terminal = new CompletableFuture<>();
+        private final CompletableFuture<Results> results = new CompletableFuture<>();
+        private volatile long createdAt;
+        private volatile long nextPollAt;
+
+        private Watch(long since) {
+            this.since = since;
+            this.createdAt = since;
+            this.nextPollAt = since;
+        }
+    }
+}
@@ -0,0 +1,260 @@
+package com.checkmarx.ast.secretsrealtime;
+
+import com.checkmarx.ast.realtime.RealtimeLocation;
+import com.checkmarx.ast.utils.ExpiringCache;
+import lombok.NonNull;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.function.LongSupplier;
+
+/**
+ * Keeps the content and the answer of the last secrets realtime scan of each file, so that a rescan only
+ * needs to cover the lines that changed.
+ * <p>
+ * The new content is compared with the last scanned one by common leading and trailing lines. The changed
+ * region, widened by {@link #CONTEXT_LINES} on both sides and by the extent of any secret it touches, is
+ * the only part sent to the CLI. Secrets found outside of it are carried forward with their lines shifted
+ * by the number of lines inserted or removed. Only whole lines are sliced, so start and end indexes, which
+ * are positions within a line, stay valid.
+ */
+public class SecretsRealtimeCache {
+
+    /**
+     * Unchanged lines scanned on each side of a changed region, so that secrets spanning the edge of an edit
+     * are still detected as a whole.
+     */
+    public static final int CONTEXT_LINES = 3;
+
+    private final ExpiringCache<String, Snapshot> snapshots;
+
+    public SecretsRealtimeCache(@NonNull Duration ttl) {
+        this.snapshots = new ExpiringCache<>(ttl);
+    }
+
+    public SecretsRealtimeCache(@NonNull Duration ttl, @NonNull LongSupplier clock) {
+        this.snapshots = new ExpiringCache<>(ttl, clock);
+    }
+
+    /**
+     * Splits content into lines, keeping a trailing carriage return on each line so that joining the lines
+     * with {@code \n} restores the content exactly.
+     */
+    public static List<String> lines(@NonNull String content) {
+        return Arrays.asList(content.split("\n", -1));
+    }
+
+    /**
+     * Plans the rescan of a file against its last scan.
+     *
+     * @param context identifies everything besides the content that affects the answer, such as the ignore
+     *                file; a snapshot taken with another context is not reused
+     * @return the plan, or null when the file must be scanned as a whole
+     */
+    public Plan plan(@NonNull String filePath, @NonNull String context, @NonNull List<String> lines) {
+        Snapshot snapshot = snapshots.get(filePath);
+        if (snapshot == null || !snapshot.context.equals(context)) {
+            return null;
+        }
+        List<String> previous = snapshot.lines;
+        int common = Math.min(previous.size(), lines.size());
+        int prefix = 0;
+        while (prefix < common && previous.get(prefix).equals(lines.get(prefix))) {
+            prefix++;
+        }
+        int suffix = 0;
+        while (suffix < common - prefix
+                && previous.get(previous.size() - 1 - suffix).equals(lines.get(lines.size() - 1 - suffix))) {
+            suffix++;
+        }
+        List<SecretsRealtimeResults.Secret> secrets = snapshot.results.getSecrets();
+        if (prefix + suffix == previous.size() && previous.size() == lines.size()) {
+            return new Plan(0, 0, 0, relocate(secrets, filePath, 0), false);
+        }
+
+        // region of the previous content to rescan is [start, previous.size() - kept)
+        int start = Math.max(0, prefix - CONTEXT_LINES);
+        int kept = Math.max(0, suffix - CONTEXT_LINES);
+        boolean widened = true;
+        while (widened) {
+            widened = false;
+            for (SecretsRealtimeResults.Secret secret : secrets) {
+                int first = firstLine(secret);
+                int last = lastLine(secret);
+                int end = previous.size() - kept;
+                if (first < 0 || last < start || first >= end) {
+                    continue;
+                }
+                if (first < start) {
+                    start = first;
+                    widened = true;
+                }
+                if (last >= end) {
+                    kept = Math.max(0, previous.size() - 1 - last);
+                    widened = true;
+                }
+            }
+        }
+        if (start == 0 && kept == 0) {
+            return null;
+        }
+
+        int previousEnd = previous.size() - kept;
+        int shift = lines.size() - previous.size();
+        List<SecretsRealtimeResults.Secret> carried = new ArrayList<>();
+        for (SecretsRealtimeResults.Secret secret : secrets) {
+            int first = firstLine(secret);
+            if (first < 0) {
+                continue;
+            }
+            if (lastLine(secret) < start) {
+                carried.add(secret.relocate(filePath, secret.getLocations()));
+            } else if (first >= previousEnd) {
+                carried.add(secret.relocate(filePath, shift(secret.getLocations(), shift)));
+            }
+        }
+        return new Plan(start, lines.size() - kept, start, carried, true);
+    }
+
+    /**
+     * Remembers the content and the complete answer of a file as the base of its next rescan.
+     */
+    public void store(@NonNull String filePath, @NonNull String context, @NonNull List<String> lines,
+                      SecretsRealtimeResults results) {
+        if (results == null) {
+            snapshots.invalidate(filePath);
+            return;
+        }
+        snapshots.purgeExpired();
+        snapshots.put(filePath, new Snapshot(context, new ArrayList<>(lines), results));
+    }
+
+    public void invalidate(@NonNull String filePath) {
+        snapshots.invalidate(filePath);
+    }
+
+    public void invalidateAll() {
+        snapshots.invalidateAll();
+    }
+
+    public int size() {
+        return snapshots.size();
+    }
+
+    private static List<SecretsRealtimeResults.Secret> relocate(List<SecretsRealtimeResults.Secret> secrets,
+                                                              String filePath, int lineShift) {
+        List<SecretsRealtimeResults.Secret> relocated = new ArrayList<>(secrets.size());
+        for (SecretsRealtimeResults.Secret secret : secrets) {
+            relocated.add(secret.relocate(filePath, shift(secret.getLocations(), lineShift)));
+        }
+        return relocated;
+    }
+
+    private static List<RealtimeLocation> shift(List<RealtimeLocation> locations, int lineShift) {
+        if (lineShift == 0) {
+            return locations;
+        }
+        List<RealtimeLocation> shifted = new ArrayList<>(locations.size());
+        for (RealtimeLocation location : locations) {
+            shifted.add(new RealtimeLocation(location.getLine() + lineShift, location.getStartIndex(),
+                    location.getEndIndex()));
+        }
+        return shifted;
+    }
+
+    private static int firstLine(SecretsRealtimeResults.Secret secret) {
+        int first = -1;
+        for (RealtimeLocation location : secret.getLocations()) {
+            if (first < 0 || location.getLine() < first) {
+                first = location.getLine();
+            }
+        }
+        return first;
+    }
+
+    private static int lastLine(SecretsRealtimeResults.Secret secret) {
+        int last = -1;
+        for (RealtimeLocation location : secret.getLocations()) {
+            last = Math.max(last, location.getLine());
+        }
+        return last;
+    }
+
+    private static final class Snapshot {
+        private final String context;
+        private final List<String> lines;
+        private final SecretsRealtimeResults results;
+
+        private Snapshot(String context, List<String> lines, SecretsRealtimeResults results) {
+            this.context = context;
+            this.lines = lines;
+            this.results = results;
+        }
+    }
+
+    /**
+     * Result of {@link #plan(String, String, List)}: the lines of the new content to scan and the secrets
+     * carried forward from the previous answer.
+     */
+    public static final class Plan {
+        private final int sliceStart;
+        private final int sliceEnd;
+        private final int lineOffset;
+        private final List<SecretsRealtimeResults.Secret> carried;
+        private final boolean scanNeeded;
+
+        private Plan(int sliceStart, int sliceEnd, int lineOffset, List<SecretsRealtimeResults.Secret> carried,
+                     boolean scanNeeded) {
+            this.sliceStart = sliceStart;
+            this.sliceEnd = sliceEnd;
+            this.lineOffset = lineOffset;
+            this.carried = Collections.unmodifiableList(carried);
+            this.scanNeeded = scanNeeded;
+        }
+
+        /**
+         * @return false when the content did not change and the previous answer is complete
+         */
+        public boolean isScanNeeded() {
+            return scanNeeded;
+        }
+
+        /**
+         * @return first line of the new content to scan, zero based
+         */
+        public int getSliceStart() {
+            return sliceStart;
+        }
+
+        /**
+         * @return line after the last line of the new content to scan
+         */
+        public int getSliceEnd() {
+            return sliceEnd;
+        }
+
+        public List<SecretsRealtimeResults.Secret> getCarried() {
+            return carried;
+        }
+
+        /**
+         * @return the content of the lines to scan, joined the way {@link #lines(String)} split them
+         */
+        public String slice(@NonNull List<String> lines) {
+            return String.join("\n", lines.subList(sliceStart, sliceEnd));
+        }
+
+        /**
+         * Combines the carried secrets with the answer of the slice, whose lines are moved back to their
+         * position in {@code filePath}.
+         */
+        public SecretsRealtimeResults merge(@NonNull String filePath, SecretsRealtimeResults sliceResults) {
+            List<SecretsRealtimeResults.Secret> merged = new ArrayList<>(carried);
+            if (sliceResults != null) {
+                merged.addAll(relocate(sliceResults.getSecrets(), filePath, lineOffset));
+            }
+            merged.sort(Comparator.comparingInt(SecretsRealtimeCache::firstLine));
+            return new SecretsRealtimeResults(merged);
+        }
+    }
+}
@@ -56,6 +56,13 @@ public class SecretsRealtimeResults {
             this.severity = severity;
             this.locations = locations == null ? Collections.emptyList() : locations;
         }
+
+        /**
+         * @return a copy of this secret reported at other locations, possibly in another file
+         */
+        public Secret relocate(String filePath, List<RealtimeLocation> locations) {
+            return new Secret(title, description, secretValue, filePath, severity, locations);
+        }
     }
 
     public static SecretsRealtimeResults fromLine(String line) {
@@ -0,0 +1,174 @@
+package com.checkmarx.ast.telemetry;
+
+import com.checkmarx.ast.wrapper.CxWrapper;
+import lombok.NonNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sends telemetry events off the caller's thread.
+ * <p>
+ * {@link #submit(TelemetryEvent)} only enqueues the event on a bounded lock-free queue. A background thread
+ * drains the queue every flush interval, merges identical events by summing their counts and sends one
+ * {@code telemetry ai} command per distinct event. When the queue is full new events are dropped and counted.
+ */
+public class AsyncTelemetrySink implements AutoCloseable {
+    private static final Logger log = LoggerFactory.getLogger(AsyncTelemetrySink.class);
+
+    public static final int DEFAULT_CAPACITY = 1000;
+    public static final Duration DEFAULT_FLUSH_INTERVAL = Duration.ofSeconds(30);
+
+    /**
+     * Delivers one aggregated event.
+     */
+    public interface Sender {
+        void send(TelemetryEvent event) throws Exception;
+    }
+
+    private final Sender sender;
+    private final int capacity;
+    private final Queue<TelemetryEvent> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final ScheduledExecutorService scheduler;
+    private volatile boolean closed;
+
+    public AsyncTelemetrySink(@NonNull CxWrapper wrapper) {
+        this(event -> wrapper.telemetryAIEvent(event.getAiProvider(), event.getAgent(), event.getEventType(),
+                event.getSubType(), event.getEngine(), event.getProblemSeverity(), event.getScanType(),
+                event.getStatus(), event.getTotalCount()), DEFAULT_CAPACITY, DEFAULT_FLUSH_INTERVAL);
+    }
+
+    /**
+     * @param flushInterval how often queued events are sent; zero disables the background flush so that only
+     *                      {@link #flush()} and {@link #close()} send events
+     */
+    public AsyncTelemetrySink(@NonNull Sender sender, int capacity, @NonNull Duration flushInterval) {
+        if (capacity < 1 || flushInterval.isNegative()) {
+            throw new IllegalArgumentException("Capacity must be positive and the flush interval not negative");
+        }
+        this.sender = sender;
+        this.capacity = capacity;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "cx-telemetry");
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (!flushInterval.isZero()) {
+            long millis = flushInterval.toMillis();
+            scheduler.scheduleWithFixedDelay(this::flushQuietly, millis, millis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Enqueues an event without blocking.
+     *
+     * @return false when the event was dropped because the queue is full or the sink is closed
+     */
+    public boolean submit(@NonNull TelemetryEvent event) {
+        if (closed || queued.incrementAndGet() > capacity) {
+            if (!closed) {
+                queued.decrementAndGet();
+            }
+            dropped.incrementAndGet();
+            return false;
+        }
+        queue.offer(event);
+        if (closed && queue.remove(event)) {
+            // close() raced with this call and its final flush has already drained the queue
+            queued.decrementAndGet();
+            dropped.incrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Sends every queued event now, on the calling thread.
+     *
+     * @return the number of commands sent
+     */
+    public synchronized int flush() {
+        Map<List<String>, TelemetryEvent> aggregated = new LinkedHashMap<>();
+        TelemetryEvent event;
+        while ((event = queue.poll()) != null) {
+            queued.decrementAndGet();
+            aggregated.merge(event.aggregationKey(), event, (previous, next) -> previous.toBuilder()
+                    .totalCount(count(previous) + count(next))
+                    .build());
+        }
+        int commands = 0;
+        for (TelemetryEvent aggregate : aggregated.values()) {
+            try {
+                sender.send(aggregate);
+                sent.incrementAndGet();
+                commands++;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                failed.incrementAndGet();
+                break;
+            } catch (Exception e) {
+                failed.incrementAndGet();
+                log.debug("Failed to send telemetry event {}: {}", aggregate.getSubType(), e.getMessage());
+            }
+        }
+        return commands;
+    }
+
+    public int getQueued() {
+        return Math.max(0, queued.get());
+    }
+
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    public long getSent() {
+        return sent.get();
+    }
+
+    public long getFailed() {
+        return failed.get();
+    }
+
+    /**
+     * Stops the background flush and sends the events still queued.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        scheduler.shutdown();
+        try {
+            scheduler.awaitTermination(DEFAULT_FLUSH_INTERVAL.getSeconds(), TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.debug("Telemetry flush failed: {}", e.getMessage());
+        }
+    }
+
+    private static int count(TelemetryEvent event) {
+        return event.getTotalCount() == null ? 0 : event.getTotalCount();
+    }
+}
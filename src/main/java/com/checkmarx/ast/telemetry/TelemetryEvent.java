@@ -0,0 +1,32 @@
+package com.checkmarx.ast.telemetry;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * One {@code telemetry ai} event, with the parameters of {@code CxWrapper#telemetryAIEvent}.
+ */
+@Value
+@Builder(toBuilder = true)
+public class TelemetryEvent {
+
+    String aiProvider;
+    String agent;
+    String eventType;
+    String subType;
+    String engine;
+    String problemSeverity;
+    String scanType;
+    String status;
+    Integer totalCount;
+
+    /**
+     * Events with the same key differ only by their count and are sent as one event with the counts summed.
+     */
+    List<String> aggregationKey() {
+        return Arrays.asList(aiProvider, agent, eventType, subType, engine, problemSeverity, scanType, status);
+    }
+}
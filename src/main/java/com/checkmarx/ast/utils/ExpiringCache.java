@@ -0,0 +1,120 @@
+package com.checkmarx.ast.utils;
+
+import lombok.NonNull;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.BiPredicate;
+import java.util.function.LongSupplier;
+
+/**
+ * Thread-safe in-memory cache whose entries expire after a time-to-live.
+ * Expired entries are dropped lazily on access and on {@link #purgeExpired()}. When a maximum number of entries
+ * is given, the least recently used entry is evicted to make room for a new one.
+ *
+ * @param <K> key type
+ * @param <V> value type
+ */
+public class ExpiringCache<K, V> {
+
+    private final Map<K, Entry<V>> entries;
+    private final long defaultTtlMillis;
+    private final LongSupplier clock;
+
+    public ExpiringCache(@NonNull Duration defaultTtl) {
+        this(defaultTtl, System::currentTimeMillis);
+    }
+
+    public ExpiringCache(@NonNull Duration defaultTtl, @NonNull LongSupplier clock) {
+        this(defaultTtl, Integer.MAX_VALUE, clock);
+    }
+
+    public ExpiringCache(@NonNull Duration defaultTtl, int maxEntries) {
+        this(defaultTtl, maxEntries, System::currentTimeMillis);
+    }
+
+    /**
+     * @param maxEntries upper bound of stored entries, expired or not
+     */
+    public ExpiringCache(@NonNull Duration defaultTtl, int maxEntries, @NonNull LongSupplier clock) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("maxEntries must be positive");
+        }
+        this.defaultTtlMillis = defaultTtl.toMillis();
+        this.clock = clock;
+        this.entries = new LinkedHashMap<K, Entry<V>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * @return the cached value, or null when absent or expired
+     */
+    public synchronized V get(@NonNull K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAt <= clock.getAsLong()) {
+            entries.remove(key);
+            return null;
+        }
+        return entry.value;
+    }
+
+    public void put(@NonNull K key, @NonNull V value) {
+        put(key, value, defaultTtlMillis);
+    }
+
+    public void put(@NonNull K key, @NonNull V value, @NonNull Duration ttl) {
+        put(key, value, ttl.toMillis());
+    }
+
+    private synchronized void put(K key, V value, long ttlMillis) {
+        if (ttlMillis <= 0) {
+            return;
+        }
+        entries.put(key, new Entry<>(value, clock.getAsLong() + ttlMillis));
+    }
+
+    public synchronized void invalidate(@NonNull K key) {
+        entries.remove(key);
+    }
+
+    /**
+     * Removes every entry for which the predicate holds, expired or not.
+     */
+    public synchronized void invalidateIf(@NonNull BiPredicate<? super K, ? super V> predicate) {
+        entries.entrySet().removeIf(e -> predicate.test(e.getKey(), e.getValue().value));
+    }
+
+    public synchronized void invalidateAll() {
+        entries.clear();
+    }
+
+    public synchronized void purgeExpired() {
+        long now = clock.getAsLong();
+        entries.values().removeIf(e -> e.expiresAt <= now);
+    }
+
+    /**
+     * @return the number of stored entries, including expired ones not yet purged
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private static final class Entry<V> {
+        private final V value;
+        private final long expiresAt;
+
+        private Entry(V value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.checkmarx.ast.utils;
+
+import lombok.NonNull;
+import org.apache.commons.lang3.StringUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * SHA-256 digests as lowercase hex strings.
+ */
+public final class Hashing {
+
+    private Hashing() {
+    }
+
+    public static String sha256(@NonNull byte[] content) {
+        return hex(digest().digest(content));
+    }
+
+    /**
+     * Digests the UTF-8 bytes of every field followed by a NUL byte, so that {@code ("ab", "c")} and
+     * {@code ("a", "bc")} differ. Null fields are digested as empty.
+     */
+    public static String sha256Fields(@NonNull String... fields) {
+        MessageDigest digest = digest();
+        for (String field : fields) {
+            digest.update(StringUtils.defaultString(field).getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+        }
+        return hex(digest.digest());
+    }
+
+    private static MessageDigest digest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String hex(byte[] bytes) {
+        StringBuilder hex = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            hex.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+        }
+        return hex.toString();
+    }
+}
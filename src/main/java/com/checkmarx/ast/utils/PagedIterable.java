@@ -0,0 +1,104 @@
+package com.checkmarx.ast.utils;
+
+import lombok.NonNull;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Iterates over a listing one page at a time. While the caller consumes a page the next one is fetched
+ * in the background, so at most two pages are held in memory. A page shorter than the page size ends
+ * the listing.
+ * <p>
+ * Each call to {@link #iterator()} starts a new listing from the first page. Failures to fetch a page
+ * are rethrown from {@link Iterator#hasNext()} as an {@link IllegalStateException} with the original cause.
+ *
+ * @param <T> element type
+ */
+public class PagedIterable<T> implements Iterable<T> {
+
+    private static final AtomicInteger THREAD_COUNT = new AtomicInteger();
+    private static final ExecutorService PREFETCH = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "cx-page-prefetch-" + THREAD_COUNT.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Fetches the elements at {@code offset}, at most {@code limit} of them.
+     */
+    public interface PageFetcher<T> {
+        List<T> fetch(int offset, int limit) throws Exception;
+    }
+
+    private final PageFetcher<T> fetcher;
+    private final int pageSize;
+
+    public PagedIterable(@NonNull PageFetcher<T> fetcher, int pageSize) {
+        if (pageSize < 1) {
+            throw new IllegalArgumentException("Page size must be positive");
+        }
+        this.fetcher = fetcher;
+        this.pageSize = pageSize;
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return new PageIterator();
+    }
+
+    public Stream<T> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    private final class PageIterator implements Iterator<T> {
+        private Iterator<T> current = Collections.emptyIterator();
+        private Future<List<T>> next;
+        private int nextOffset;
+
+        private PageIterator() {
+            next = prefetch(0);
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (!current.hasNext()) {
+                if (next == null) {
+                    return false;
+                }
+                List<T> page = await(next);
+                nextOffset += pageSize;
+                next = page == null || page.size() < pageSize ? null : prefetch(nextOffset);
+                current = page == null ? Collections.<T>emptyIterator() : page.iterator();
+            }
+            return true;
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return current.next();
+        }
+
+        private Future<List<T>> prefetch(int offset) {
+            return PREFETCH.submit(() -> fetcher.fetch(offset, pageSize));
+        }
+
+        private List<T> await(Future<List<T>> page) {
+            try {
+                return page.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while fetching a page", e);
+            } catch (ExecutionException e) {
+                next = null;
+                throw new IllegalStateException("Failed to fetch a page: " + e.getCause().getMessage(), e.getCause());
+            }
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.checkmarx.ast.wrapper;
+
+import com.checkmarx.ast.utils.ExpiringCache;
+import lombok.NonNull;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+/**
+ * Remembers {@code auth validate} outcomes per credential fingerprint (see {@link CxConfig#credentialFingerprint()}).
+ * Successes are kept for the configured window, failures briefly so that retry storms do not each perform a
+ * token exchange. When the fingerprint changes every remembered outcome is dropped.
+ */
+final class AuthValidationCache {
+
+    private final ExpiringCache<String, CommandOutcome<String>> outcomes;
+    private final Duration successTtl;
+    private final Duration failureTtl;
+    private volatile String lastFingerprint;
+
+    AuthValidationCache(@NonNull Duration successTtl, @NonNull Duration failureTtl) {
+        this(successTtl, failureTtl, System::currentTimeMillis);
+    }
+
+    AuthValidationCache(@NonNull Duration successTtl, @NonNull Duration failureTtl, @NonNull LongSupplier clock) {
+        this.outcomes = new ExpiringCache<>(successTtl, clock);
+        this.successTtl = successTtl;
+        this.failureTtl = failureTtl;
+    }
+
+    /**
+     * @return the remembered output of a successful validation, or null when the CLI must be called
+     * @throws CxException the remembered failure of a recent validation
+     */
+    String get(@NonNull String fingerprint) throws CxException {
+        String previous = lastFingerprint;
+        if (previous != null && !previous.equals(fingerprint)) {
+            outcomes.invalidateAll();
+        }
+        lastFingerprint = fingerprint;
+        CommandOutcome<String> outcome = outcomes.get(fingerprint);
+        return outcome == null ? null : outcome.get();
+    }
+
+    void success(@NonNull String fingerprint, String output) {
+        outcomes.put(fingerprint, CommandOutcome.success(output == null ? "" : output), successTtl);
+    }
+
+    void failure(@NonNull String fingerprint, @NonNull CxException failure) {
+        outcomes.put(fingerprint, CommandOutcome.failure(failure), failureTtl);
+    }
+
+    void invalidateAll() {
+        outcomes.invalidateAll();
+    }
+}
@@ -0,0 +1,71 @@
+package com.checkmarx.ast.wrapper;
+
+import lombok.NonNull;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+
+/**
+ * Lets another thread cancel the CLI commands run by a task: {@link #run(Callable)} binds the token to the
+ * calling thread, {@link Execution} attaches every process it starts there, and {@link #cancel()} kills the
+ * running process. A cancelled command ends with a {@link CancellationException}.
+ */
+final class CommandCancellation {
+
+    private static final ThreadLocal<CommandCancellation> CURRENT = new ThreadLocal<>();
+
+    private volatile boolean cancelled;
+    private Process process;
+
+    <T> T run(@NonNull Callable<T> task) throws Exception {
+        CommandCancellation previous = CURRENT.get();
+        CURRENT.set(this);
+        try {
+            throwIfCancelled(this);
+            return task.call();
+        } finally {
+            CURRENT.set(previous);
+        }
+    }
+
+    synchronized void cancel() {
+        cancelled = true;
+        if (process != null) {
+            process.destroyForcibly();
+        }
+    }
+
+    boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Registers a started process with the token bound to the current thread, if any.
+     */
+    static void attach(@NonNull Process process) {
+        CommandCancellation token = CURRENT.get();
+        if (token != null) {
+            token.register(process);
+        }
+    }
+
+    /**
+     * @throws CancellationException when the token bound to the current thread was cancelled
+     */
+    static void throwIfCancelled() {
+        throwIfCancelled(CURRENT.get());
+    }
+
+    private static void throwIfCancelled(CommandCancellation token) {
+        if (token != null && token.cancelled) {
+            throw new CancellationException("Command cancelled");
+        }
+    }
+
+    private synchronized void register(Process started) {
+        process = started;
+        if (cancelled) {
+            started.destroyForcibly();
+        }
+    }
+}
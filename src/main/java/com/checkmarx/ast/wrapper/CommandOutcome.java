@@ -0,0 +1,35 @@
+package com.checkmarx.ast.wrapper;
+
+import lombok.NonNull;
+
+/**
+ * Remembered outcome of a CLI command: its value, or the {@link CxException} it failed with. A remembered failure
+ * is rethrown as a new exception with the same exit code and message on every use.
+ *
+ * @param <T> the value of a successful command
+ */
+final class CommandOutcome<T> {
+
+    private final T value;
+    private final CxException failure;
+
+    private CommandOutcome(T value, CxException failure) {
+        this.value = value;
+        this.failure = failure;
+    }
+
+    static <T> CommandOutcome<T> success(T value) {
+        return new CommandOutcome<>(value, null);
+    }
+
+    static <T> CommandOutcome<T> failure(@NonNull CxException failure) {
+        return new CommandOutcome<>(null, failure);
+    }
+
+    T get() throws CxException {
+        if (failure != null) {
+            throw new CxException(failure.getExitCode(), failure.getMessage());
+        }
+        return value;
+    }
+}
@@ -0,0 +1,111 @@
+package com.checkmarx.ast.wrapper;
+
+import com.checkmarx.ast.utils.ExpiringCache;
+import lombok.NonNull;
+import org.apache.commons.lang3.StringUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+
+/**
+ * Memoizes container engine detection so that repeated {@code checkEngineExist} calls do not spawn
+ * processes. Found engines are remembered for {@link #POSITIVE_TTL}, missing ones for {@link #NEGATIVE_TTL},
+ * and each resolved executable is verified at most once per TTL.
+ */
+final class ContainerEngineLookup {
+
+    static final Duration POSITIVE_TTL = Duration.ofMinutes(10);
+    static final Duration NEGATIVE_TTL = Duration.ofSeconds(30);
+
+    private final ExpiringCache<String, CommandOutcome<String>> outcomes;
+    private final ExpiringCache<String, Boolean> verifiedPaths;
+
+    ContainerEngineLookup() {
+        this(System::currentTimeMillis);
+    }
+
+    ContainerEngineLookup(@NonNull LongSupplier clock) {
+        this.outcomes = new ExpiringCache<>(POSITIVE_TTL, clock);
+        this.verifiedPaths = new ExpiringCache<>(POSITIVE_TTL, clock);
+    }
+
+    interface Probe {
+        String resolve() throws CxException, IOException, InterruptedException;
+    }
+
+    /**
+     * Returns the memoized outcome for the key, running the probe only when nothing valid is remembered.
+     * A remembered failure is rethrown as a new {@link CxException} with the same exit code and message.
+     */
+    String resolve(@NonNull String key, @NonNull Probe probe) throws CxException, IOException, InterruptedException {
+        CommandOutcome<String> outcome = outcomes.get(key);
+        if (outcome != null) {
+            return outcome.get();
+        }
+        try {
+            String resolved = probe.resolve();
+            outcomes.put(key, CommandOutcome.success(resolved), POSITIVE_TTL);
+            return resolved;
+        } catch (CxException e) {
+            outcomes.put(key, CommandOutcome.failure(e), NEGATIVE_TTL);
+            throw e;
+        }
+    }
+
+    /**
+     * Runs the verification of an executable at most once per TTL.
+     */
+    boolean verify(@NonNull String path, @NonNull Predicate<String> verification) {
+        Boolean verified = verifiedPaths.get(path);
+        if (verified == null) {
+            verified = verification.test(path);
+            verifiedPaths.put(path, verified, verified ? POSITIVE_TTL : NEGATIVE_TTL);
+        }
+        return verified;
+    }
+
+    void invalidateAll() {
+        outcomes.invalidateAll();
+        verifiedPaths.invalidateAll();
+    }
+
+    /**
+     * Resolves an executable the way a shell would, by walking the directories of the given PATH value.
+     *
+     * @return the absolute path of the first regular executable file named {@code engineName}, or null
+     */
+    static String findOnPath(@NonNull String engineName, String pathVariable) {
+        if (engineName.indexOf('/') >= 0 || engineName.indexOf(File.separatorChar) >= 0) {
+            return isExecutableFile(engineName) ? Paths.get(engineName).toAbsolutePath().toString() : null;
+        }
+        if (StringUtils.isBlank(pathVariable)) {
+            return null;
+        }
+        for (String directory : pathVariable.split(File.pathSeparator)) {
+            if (directory.isEmpty()) {
+                continue;
+            }
+            String candidate = directory + File.separator + engineName;
+            if (isExecutableFile(candidate)) {
+                return Paths.get(candidate).toAbsolutePath().toString();
+            }
+        }
+        return null;
+    }
+
+    private static boolean isExecutableFile(String candidate) {
+        try {
+            Path path = Paths.get(candidate);
+            return Files.isRegularFile(path) && Files.isExecutable(path);
+        } catch (InvalidPathException e) {
+            return false;
+        }
+    }
+}
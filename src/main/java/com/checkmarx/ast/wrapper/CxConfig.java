@@ -1,13 +1,17 @@
 package com.checkmarx.ast.wrapper;
 
+import com.checkmarx.ast.utils.Hashing;
 import lombok.AccessLevel;
 import lombok.Builder;
 import lombok.Data;
 import lombok.Setter;
 import org.apache.commons.lang3.StringUtils;
 
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -26,6 +30,53 @@ public class CxConfig {
     private String pathToExecutable;
     @Setter(AccessLevel.NONE)
     private List<String> additionalParameters;
+    /**
+     * How long OSS realtime answers are reused per package across manifests; null or zero disables the cache.
+     */
+    private Duration ossRealtimeCacheTtl;
+    /**
+     * How long containers realtime answers are reused per image across files; null or zero disables the cache.
+     */
+    private Duration containersRealtimeCacheTtl;
+    /**
+     * How long the content and answer of the last secrets realtime scan of a file are kept so that a rescan
+     * only covers the changed lines; null or zero disables incremental secrets scanning.
+     */
+    private Duration secretsRealtimeCacheTtl;
+    /**
+     * How long triage predicates and custom states are reused before being fetched again; null or zero
+     * disables the cache. Updates made through the same wrapper invalidate it immediately.
+     */
+    private Duration triageCacheTtl;
+    /**
+     * How long a successful {@code auth validate} is remembered for the same credentials; null or zero
+     * disables the cache.
+     */
+    private Duration authValidationCacheTtl;
+    /**
+     * How long a failed {@code auth validate} is remembered when the cache is enabled; defaults to
+     * {@link #DEFAULT_AUTH_VALIDATION_FAILURE_TTL}.
+     */
+    private Duration authValidationFailureCacheTtl;
+    /**
+     * Upper bound of CLI processes a batch operation runs at once; null or less than one uses the default of 4.
+     */
+    private Integer maxParallelCommands;
+    /**
+     * Relevance gates asked before a realtime engine is spawned, by engine name, e.g.
+     * {@link RealtimeEngine#defaultRelevanceGates()}; a scan ruled out by its gate returns an empty result without
+     * running the CLI. Null disables gating, and engines missing from the map are never gated, except that
+     * {@link CxWrapper#realtimeScanFile} still skips them for files they do not apply to by name.
+     */
+    private Map<String, RelevanceGate> relevanceGates;
+    /**
+     * Largest file, in bytes, whose content the relevance gates get to see; larger files are gated by name only.
+     * Null or less than one uses {@link #DEFAULT_RELEVANCE_SNIFF_BYTES}.
+     */
+    private Integer relevanceSniffBytes;
+
+    static final Duration DEFAULT_AUTH_VALIDATION_FAILURE_TTL = Duration.ofSeconds(10);
+    static final int DEFAULT_RELEVANCE_SNIFF_BYTES = 256 * 1024;
 
     public void setAdditionalParameters(String additionalParameters) {
         this.additionalParameters = parseAdditionalParameters(additionalParameters);
@@ -77,6 +128,21 @@ public class CxConfig {
     }
 
 
+    /**
+     * Identifies the target and credentials of this configuration without exposing them: base URIs and tenant
+     * in clear, followed by the SHA-256 of the client id, client secret, API key, agent name and additional
+     * parameters, since the latter can carry their own {@code --apikey}, {@code --base-uri} or {@code --tenant}.
+     */
+    String credentialFingerprint() {
+        List<String> parts = new ArrayList<>(Arrays.asList(getClientId(), getClientSecret(), getApiKey(), getAgentName()));
+        if (getAdditionalParameters() != null) {
+            parts.addAll(getAdditionalParameters());
+        }
+        String hex = Hashing.sha256Fields(parts.toArray(new String[0]));
+        return StringUtils.defaultString(getBaseUri()) + '|' + StringUtils.defaultString(getBaseAuthUri()) + '|'
+                + StringUtils.defaultString(getTenant()) + '|' + hex;
+    }
+
     @SuppressWarnings("ALL")
     public static class CxConfigBuilder {
 
@@ -0,0 +1,45 @@
+package com.checkmarx.ast.wrapper;
+
+import lombok.Getter;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Thrown when a command split into chunks failed for one or more of them. The failures are kept per chunk,
+ * together with whatever the successful chunks returned.
+ */
+public class CxPartialFailureException extends CxException {
+
+    /**
+     * Failure per chunk, keyed by the argument value the chunk was sent with.
+     */
+    @Getter
+    private final Map<String, Exception> chunkFailures;
+    @Getter
+    private final int chunkCount;
+    /**
+     * The merged result of the chunks that succeeded.
+     */
+    @Getter
+    private final transient List<?> partialResult;
+
+    CxPartialFailureException(Map<String, Exception> chunkFailures, int chunkCount, List<?> partialResult) {
+        super(exitCode(chunkFailures), chunkFailures.size() + " of " + chunkCount + " chunks failed: "
+                + chunkFailures.values().iterator().next().getMessage());
+        this.chunkFailures = Collections.unmodifiableMap(new LinkedHashMap<>(chunkFailures));
+        this.chunkCount = chunkCount;
+        this.partialResult = Collections.unmodifiableList(partialResult);
+    }
+
+    private static int exitCode(Map<String, Exception> chunkFailures) {
+        for (Exception failure : chunkFailures.values()) {
+            if (failure instanceof CxException) {
+                return ((CxException) failure).getExitCode();
+            }
+        }
+        return 1;
+    }
+}
@@ -4,36 +4,71 @@ import com.checkmarx.ast.asca.ScanResult;
 import com.checkmarx.ast.codebashing.CodeBashing;
 import com.checkmarx.ast.kicsRealtimeResults.KicsRealtimeResults;
 import com.checkmarx.ast.learnMore.LearnMore;
+import com.checkmarx.ast.mask.MaskBatchResults;
 import com.checkmarx.ast.mask.MaskResult;
+import com.checkmarx.ast.ossrealtime.OssIgnoredPackages;
+import com.checkmarx.ast.ossrealtime.OssManifestDependency;
+import com.checkmarx.ast.ossrealtime.OssManifestDiff;
+import com.checkmarx.ast.ossrealtime.OssManifestParser;
+import com.checkmarx.ast.ossrealtime.OssRealtimeCache;
 import com.checkmarx.ast.ossrealtime.OssRealtimeResults;
+import com.checkmarx.ast.ossrealtime.OssRealtimeScanPackage;
+import com.checkmarx.ast.secretsrealtime.SecretsRealtimeCache;
 import com.checkmarx.ast.secretsrealtime.SecretsRealtimeResults;
 
 import com.checkmarx.ast.iacrealtime.IacRealtimeResults;
+import com.checkmarx.ast.containersrealtime.ContainersImageReference;
+import com.checkmarx.ast.containersrealtime.ContainersImageReferenceParser;
+import com.checkmarx.ast.containersrealtime.ContainersRealtimeCache;
 import com.checkmarx.ast.containersrealtime.ContainersRealtimeResults;
 import com.checkmarx.ast.predicate.CustomState;
 import com.checkmarx.ast.predicate.Predicate;
+import com.checkmarx.ast.predicate.PredicateCache;
+import com.checkmarx.ast.predicate.TriageUpdate;
+import com.checkmarx.ast.predicate.TriageUpdateOutcome;
 import com.checkmarx.ast.project.Project;
+import com.checkmarx.ast.realtime.RealtimeBatchResults;
+import com.checkmarx.ast.realtime.RealtimeDelta;
+import com.checkmarx.ast.realtime.RealtimeDeltaTracker;
+import com.checkmarx.ast.realtime.RealtimeIssue;
+import com.checkmarx.ast.realtime.RealtimeIssues;
 import com.checkmarx.ast.remediation.KicsRemediation;
 import com.checkmarx.ast.results.ReportFormat;
 import com.checkmarx.ast.results.Results;
+import com.checkmarx.ast.results.ResultsSink;
+import com.checkmarx.ast.results.ResultsStreamReader;
 import com.checkmarx.ast.results.ResultsSummary;
 import com.checkmarx.ast.results.result.Node;
 import com.checkmarx.ast.scan.Scan;
 import com.checkmarx.ast.tenant.TenantSetting;
+import com.checkmarx.ast.utils.Hashing;
 import com.checkmarx.ast.utils.JsonParser;
+import com.checkmarx.ast.utils.PagedIterable;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.type.CollectionType;
 import com.fasterxml.jackson.databind.type.TypeFactory;
 import lombok.NonNull;
+import org.apache.commons.lang3.ObjectUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
 
 
 public class CxWrapper {
@@ -43,6 +78,13 @@ public class CxWrapper {
     private static final String OS_LINUX = "linux";
     private static final String OS_WINDOWS = "windows";
     private static final String OS_MAC = "mac";
+    private static final ContainerEngineLookup ENGINE_LOOKUP = new ContainerEngineLookup();
+    /**
+     * Keeps a merged {@code --vulnerability-identifiers} value well below the Windows command line limit.
+     */
+    static final int SCA_IDENTIFIERS_MAX_LENGTH = 16_000;
+    private static final String SCA_IDENTIFIERS_SEPARATOR = ";";
+    private static final int MASKED_CONTENTS_LIMIT = 1024;
 
     @NonNull
     private final CxConfig cxConfig;
@@ -50,6 +92,29 @@ public class CxWrapper {
     private final Logger logger;
     @NonNull
     private final String executable;
+    private final OssRealtimeCache ossRealtimeCache;
+    private final ContainersRealtimeCache containersRealtimeCache;
+    private final SecretsRealtimeCache secretsRealtimeCache;
+    private final PredicateCache predicateCache;
+    private final AuthValidationCache authValidationCache;
+    private final RealtimeDeltaTracker realtimeDeltas = new RealtimeDeltaTracker();
+    private final StagingLocks stagingLocks = new StagingLocks();
+    private final StagingDirectory staging = new StagingDirectory();
+    /**
+     * Realtime scans that were not spawned because their engine could not find anything in the file, by engine.
+     */
+    private final Map<String, LongAdder> skippedRealtimeScans =
+            new ConcurrentHashMap<>();
+    /**
+     * Mask results of this session by SHA-256 of the masked content, least recently used evicted first.
+     */
+    private final Map<String, MaskResult> maskedContents = Collections.synchronizedMap(
+            new LinkedHashMap<String, MaskResult>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, MaskResult> eldest) {
+                    return size() > MASKED_CONTENTS_LIMIT;
+                }
+            });
 
     public CxWrapper(CxConfig cxConfig) throws IOException {
         this(cxConfig, LoggerFactory.getLogger(CxWrapper.class));
@@ -62,6 +127,22 @@ public class CxWrapper {
                 ? Execution.getTempBinary(logger)
                 : this.cxConfig.getPathToExecutable();
         this.logger.info("Executable path: {} ", executable);
+        this.ossRealtimeCache = isEnabled(cxConfig.getOssRealtimeCacheTtl())
+                ? new OssRealtimeCache(cxConfig.getOssRealtimeCacheTtl())
+                : null;
+        this.containersRealtimeCache = isEnabled(cxConfig.getContainersRealtimeCacheTtl())
+                ? new ContainersRealtimeCache(cxConfig.getContainersRealtimeCacheTtl())
+                : null;
+        this.secretsRealtimeCache = isEnabled(cxConfig.getSecretsRealtimeCacheTtl())
+                ? new SecretsRealtimeCache(cxConfig.getSecretsRealtimeCacheTtl())
+                : null;
+        this.predicateCache = isEnabled(cxConfig.getTriageCacheTtl())
+                ? new PredicateCache(cxConfig.getTriageCacheTtl())
+                : null;
+        this.authValidationCache = isEnabled(cxConfig.getAuthValidationCacheTtl())
+                ? new AuthValidationCache(cxConfig.getAuthValidationCacheTtl(),
+                ObjectUtils.defaultIfNull(cxConfig.getAuthValidationFailureCacheTtl(), CxConfig.DEFAULT_AUTH_VALIDATION_FAILURE_TTL))
+                : null;
     }
 
     public String authValidate() throws IOException, InterruptedException, CxException {
@@ -71,7 +152,33 @@ public class CxWrapper {
         arguments.add(CxConstants.CMD_AUTH);
         arguments.add(CxConstants.SUB_CMD_VALIDATE);
 
-        return Execution.executeCommand(withConfigArguments(arguments), logger, line -> line);
+        if (authValidationCache == null) {
+            return Execution.executeCommand(withConfigArguments(arguments), logger, line -> line);
+        }
+        String fingerprint = cxConfig.credentialFingerprint();
+        String cached = authValidationCache.get(fingerprint);
+        if (cached != null) {
+            this.logger.info("Using cached 'auth validate' result.");
+            return cached;
+        }
+        try {
+            String output = Execution.executeCommand(withConfigArguments(arguments), logger, line -> line);
+            authValidationCache.success(fingerprint, output);
+            return output;
+        } catch (CxException e) {
+            authValidationCache.failure(fingerprint, e);
+            throw e;
+        }
+    }
+
+    /**
+     * Forgets every remembered {@code auth validate} outcome. Outcomes are also dropped automatically when the
+     * credentials, base URIs or tenant of the configuration change.
+     */
+    public void invalidateAuthValidation() {
+        if (authValidationCache != null) {
+            authValidationCache.invalidateAll();
+        }
     }
 
     public Scan scanShow(@NonNull UUID scanId) throws IOException, InterruptedException, CxException {
@@ -103,6 +210,14 @@ public class CxWrapper {
         return Execution.executeCommand(withConfigArguments(arguments), logger, Scan::listFromLine);
     }
 
+    /**
+     * Lists scans page by page with {@code offset} and {@code limit} filters, prefetching the next page while the
+     * current one is consumed. Any {@code offset} or {@code limit} in {@code filter} is replaced.
+     */
+    public PagedIterable<Scan> scanListPaged(String filter, int pageSize) {
+        return new PagedIterable<>((offset, limit) -> scanList(pagedFilter(filter, offset, limit)), pageSize);
+    }
+
     public Scan scanCreate(@NonNull Map<String, String> params) throws IOException, InterruptedException, CxException {
         return scanCreate(params, "");
     }
@@ -170,11 +285,83 @@ public class CxWrapper {
         arguments.add(scanType);
         arguments.addAll(jsonArguments());
 
-        return Execution.executeCommand(withConfigArguments(arguments), logger, Predicate::listFromLine, Predicate::validator);
+        if (predicateCache == null) {
+            return Execution.executeCommand(withConfigArguments(arguments), logger, Predicate::listFromLine, Predicate::validator);
+        }
+        List<Predicate> cached = predicateCache.get(projectId, similarityId, scanType);
+        if (cached != null) {
+            this.logger.info("Using cached predicates for similarityId {}.", similarityId);
+            return cached;
+        }
+        List<Predicate> predicates = Execution.executeCommand(withConfigArguments(arguments), logger, Predicate::listFromLine, Predicate::validator);
+        predicateCache.put(projectId, similarityId, scanType, predicates);
+        return predicates;
+    }
+
+    public Map<String, List<Predicate>> triageShowBatch(@NonNull UUID projectId, String scanType,
+                                                        @NonNull Collection<String> similarityIds)
+            throws InterruptedException {
+        return triageShowBatch(projectId, scanType, similarityIds, null);
+    }
+
+    /**
+     * Fetches the predicates of many similarity ids, running at most {@link CxConfig#getMaxParallelCommands()}
+     * {@code triage show} commands at once. Duplicate and blank ids are skipped.
+     *
+     * @param onResult optional callback receiving each id's predicates as soon as they arrive; it is called from
+     *                 worker threads, one call at a time
+     * @return the predicates per similarity id, in the order of first appearance; ids whose command failed are
+     * logged and left out
+     */
+    public Map<String, List<Predicate>> triageShowBatch(@NonNull UUID projectId, String scanType,
+                                                        @NonNull Collection<String> similarityIds,
+                                                        BiConsumer<String, List<Predicate>> onResult)
+            throws InterruptedException {
+        Set<String> unique = new LinkedHashSet<>();
+        for (String similarityId : similarityIds) {
+            if (StringUtils.isNotBlank(similarityId)) {
+                unique.add(similarityId.trim());
+            }
+        }
+        this.logger.info("Fetching predicates of {} similarity ids in batch.", unique.size());
+
+        Map<String, List<Predicate>> fetched = new ConcurrentHashMap<>();
+        Object callbackLock = new Object();
+        ParallelCommands.forEach(unique, ParallelCommands.parallelism(cxConfig.getMaxParallelCommands()), similarityId -> {
+            List<Predicate> predicates;
+            try {
+                predicates = triageShow(projectId, similarityId, scanType);
+            } catch (IOException | CxException | RuntimeException e) {
+                this.logger.warn("Failed to fetch predicates of similarityId {}: {}", similarityId, e.getMessage());
+                return;
+            }
+            if (predicates == null) {
+                predicates = Collections.emptyList();
+            }
+            fetched.put(similarityId, predicates);
+            if (onResult != null) {
+                synchronized (callbackLock) {
+                    onResult.accept(similarityId, predicates);
+                }
+            }
+        });
+
+        Map<String, List<Predicate>> result = new LinkedHashMap<>();
+        for (String similarityId : unique) {
+            List<Predicate> predicates = fetched.get(similarityId);
+            if (predicates != null) {
+                result.put(similarityId, predicates);
+            }
+        }
+        return result;
     }
 
     /**
      * SCA-specific triage show command.
+     * <p>
+     * Identifier lists longer than {@link #SCA_IDENTIFIERS_MAX_LENGTH} are split into chunks that run in parallel
+     * and whose predicates are merged in chunk order. When some chunks fail a {@link CxPartialFailureException}
+     * carries the failure of each chunk and the predicates of the others.
      */
     public List<Predicate> triageScaShow(@NonNull UUID projectId, String vulnerabilities, String scanType)
             throws IOException, InterruptedException, CxException {
@@ -185,6 +372,15 @@ public class CxWrapper {
             return Collections.emptyList();
         }
 
+        List<String> chunks = scaIdentifierChunks(vulnerabilities);
+        if (chunks.size() == 1) {
+            return triageScaShowChunk(projectId, vulnerabilities, scanType);
+        }
+        return runScaChunks(chunks, chunk -> triageScaShowChunk(projectId, chunk, scanType));
+    }
+
+    private List<Predicate> triageScaShowChunk(UUID projectId, String vulnerabilities, String scanType)
+            throws IOException, InterruptedException, CxException {
         List<String> arguments = new ArrayList<>();
         arguments.add(CxConstants.CMD_TRIAGE);
         arguments.add(CxConstants.SUB_CMD_SHOW);
@@ -196,16 +392,29 @@ public class CxWrapper {
         arguments.add(projectId.toString());
         arguments.addAll(jsonArguments());
 
+        if (predicateCache != null) {
+            List<Predicate> cached = predicateCache.get(projectId, vulnerabilities, scanType);
+            if (cached != null) {
+                this.logger.info("Using cached SCA predicates for vulnerability identifiers: {}", vulnerabilities);
+                return cached;
+            }
+        }
+        List<Predicate> predicates;
         try {
-            return Execution.executeCommand(withConfigArguments(arguments), logger, Predicate::listFromLine, Predicate::validator);
+            predicates = Execution.executeCommand(withConfigArguments(arguments), logger, Predicate::listFromLine, Predicate::validator);
         } catch (CxException e) {
             String message = e.getMessage();
             if (message != null && message.contains("Failed to get SCA predicate result")) {
                 this.logger.info("No SCA triage history found for vulnerability identifiers: {}", vulnerabilities);
-                return Collections.emptyList();
+                predicates = Collections.emptyList();
+            } else {
+                throw e;
             }
-            throw e;
         }
+        if (predicateCache != null) {
+            predicateCache.put(projectId, vulnerabilities, scanType, predicates);
+        }
+        return predicates;
     }
 
     public List<CustomState> triageGetStates(boolean all) throws IOException, InterruptedException, CxException {
@@ -218,7 +427,25 @@ public class CxWrapper {
             arguments.add(CxConstants.ALL_STATES_FLAG);
         }
 
-        return Execution.executeCommand(withConfigArguments(arguments), logger, CustomState::listFromLine);
+        if (predicateCache == null) {
+            return Execution.executeCommand(withConfigArguments(arguments), logger, CustomState::listFromLine);
+        }
+        List<CustomState> cached = predicateCache.getStates(all);
+        if (cached != null) {
+            return cached;
+        }
+        List<CustomState> states = Execution.executeCommand(withConfigArguments(arguments), logger, CustomState::listFromLine);
+        predicateCache.putStates(all, states);
+        return states;
+    }
+
+    /**
+     * Drops every predicate and custom state kept by the triage cache.
+     */
+    public void invalidateTriageCache() {
+        if (predicateCache != null) {
+            predicateCache.invalidateAll();
+        }
     }
 
     public void triageUpdate(@NonNull UUID projectId, String similarityId, String scanType, String state, String comment, String severity) throws IOException, InterruptedException, CxException {
@@ -253,11 +480,21 @@ public class CxWrapper {
         arguments.add(CxConstants.SEVERITY);
         arguments.add(severity);
 
-        Execution.executeCommand(withConfigArguments(arguments), logger, line -> null);
+        try {
+            Execution.executeCommand(withConfigArguments(arguments), logger, line -> null);
+        } finally {
+            if (predicateCache != null) {
+                predicateCache.invalidate(projectId, similarityId, scanType);
+            }
+        }
     }
 
     /**
      * SCA-specific triage update command.
+     * <p>
+     * Identifier lists longer than {@link #SCA_IDENTIFIERS_MAX_LENGTH} are split into chunks that run in parallel.
+     * When some chunks fail a {@link CxPartialFailureException} carries the failure of each chunk; the other
+     * chunks are applied.
      */
     public void triageScaUpdate(@NonNull UUID projectId,
                                 String state,
@@ -272,6 +509,19 @@ public class CxWrapper {
             return;
         }
 
+        List<String> chunks = scaIdentifierChunks(vulnerabilities);
+        if (chunks.size() == 1) {
+            triageScaUpdateChunk(projectId, state, comment, vulnerabilities, scanType);
+            return;
+        }
+        runScaChunks(chunks, chunk -> {
+            triageScaUpdateChunk(projectId, state, comment, chunk, scanType);
+            return Collections.emptyList();
+        });
+    }
+
+    private void triageScaUpdateChunk(UUID projectId, String state, String comment, String vulnerabilities,
+                                      String scanType) throws IOException, InterruptedException, CxException {
         List<String> arguments = new ArrayList<>();
         arguments.add(CxConstants.CMD_TRIAGE);
         arguments.add(CxConstants.SUB_CMD_UPDATE);
@@ -286,7 +536,72 @@ public class CxWrapper {
         arguments.add(CxConstants.PROJECT_ID);
         arguments.add(projectId.toString());
 
-        Execution.executeCommand(withConfigArguments(arguments), logger, line -> null);
+        try {
+            Execution.executeCommand(withConfigArguments(arguments), logger, line -> null);
+        } finally {
+            if (predicateCache != null) {
+                predicateCache.invalidate(projectId, vulnerabilities, scanType);
+            }
+        }
+    }
+
+    /**
+     * Applies many triage updates with as few CLI processes as possible. SCA updates that share project, scan type,
+     * state and comment are merged into one {@link #triageScaUpdate} per chunk of
+     * {@link #SCA_IDENTIFIERS_MAX_LENGTH} characters of identifiers, separated by {@code ;}; every other update runs
+     * as its own {@code triage update}. At most {@link CxConfig#getMaxParallelCommands()} commands run at once.
+     *
+     * @return one outcome per update, in input order
+     */
+    public List<TriageUpdateOutcome> triageUpdateBatch(@NonNull List<TriageUpdate> updates) throws InterruptedException {
+        this.logger.info("Applying {} triage updates in batch.", updates.size());
+
+        Exception[] errors = new Exception[updates.size()];
+        List<List<Integer>> commands = new ArrayList<>();
+        Map<List<String>, List<Integer>> scaGroups = new LinkedHashMap<>();
+        for (int i = 0; i < updates.size(); i++) {
+            TriageUpdate update = updates.get(i);
+            if (!update.isSca()) {
+                commands.add(Collections.singletonList(i));
+            } else if (StringUtils.isBlank(update.getVulnerabilities())) {
+                errors[i] = new IllegalArgumentException("No vulnerability identifiers were provided.");
+            } else {
+                List<String> key = Arrays.asList(update.getProjectId().toString(),
+                        update.getScanType().trim().toLowerCase(Locale.ENGLISH), update.getState(), update.getComment());
+                scaGroups.computeIfAbsent(key, k -> new ArrayList<>()).add(i);
+            }
+        }
+        for (List<Integer> group : scaGroups.values()) {
+            commands.addAll(chunkByLength(group, i -> updates.get(i).getVulnerabilities(), SCA_IDENTIFIERS_MAX_LENGTH));
+        }
+
+        ParallelCommands.forEach(commands, ParallelCommands.parallelism(cxConfig.getMaxParallelCommands()), command -> {
+            TriageUpdate first = updates.get(command.get(0));
+            try {
+                if (first.isSca()) {
+                    StringJoiner vulnerabilities = new StringJoiner(SCA_IDENTIFIERS_SEPARATOR);
+                    for (int index : command) {
+                        vulnerabilities.add(updates.get(index).getVulnerabilities().trim());
+                    }
+                    triageScaUpdate(first.getProjectId(), first.getState(), first.getComment(),
+                            vulnerabilities.toString(), first.getScanType());
+                } else {
+                    triageUpdate(first.getProjectId(), first.getSimilarityId(), first.getScanType(), first.getState(),
+                            first.getComment(), first.getSeverity(), first.getCustomStateId());
+                }
+            } catch (IOException | CxException | RuntimeException e) {
+                this.logger.warn("Triage update of {} finding(s) failed: {}", command.size(), e.getMessage());
+                for (int index : command) {
+                    errors[index] = e;
+                }
+            }
+        });
+
+        List<TriageUpdateOutcome> outcomes = new ArrayList<>(updates.size());
+        for (int i = 0; i < updates.size(); i++) {
+            outcomes.add(new TriageUpdateOutcome(updates.get(i), errors[i]));
+        }
+        return outcomes;
     }
 
     public Project projectShow(@NonNull UUID projectId) throws IOException, InterruptedException, CxException {
@@ -318,6 +633,14 @@ public class CxWrapper {
         return Execution.executeCommand(withConfigArguments(arguments), logger, Project::listFromLine);
     }
 
+    /**
+     * Lists projects page by page with {@code offset} and {@code limit} filters, prefetching the next page while the
+     * current one is consumed. Any {@code offset} or {@code limit} in {@code filter} is replaced.
+     */
+    public PagedIterable<Project> projectListPaged(String filter, int pageSize) {
+        return new PagedIterable<>((offset, limit) -> projectList(pagedFilter(filter, offset, limit)), pageSize);
+    }
+
     public ScanResult ScanAsca(String fileSource, boolean ascaLatestVersion, String agent, String ignoredFilePath) throws IOException, InterruptedException, CxException {
         this.logger.info("Fetching ASCA scanResult");
 
@@ -424,6 +747,59 @@ public class CxWrapper {
                 fileName + reportFormat.getExtension());
     }
 
+    /**
+     * Downloads the JSON reports of many scans, at most {@code concurrency} at once, and passes their results to the
+     * sink one at a time as each report is read. Reports are parsed incrementally and deleted once read, so memory
+     * stays bounded by {@code concurrency} whatever the number of scans.
+     *
+     * @return the failure of each scan that could not be fetched or read, in input order
+     */
+    public Map<UUID, Exception> streamResults(@NonNull Collection<UUID> scanIds, int concurrency, @NonNull ResultsSink sink)
+            throws InterruptedException {
+        Set<UUID> unique = new LinkedHashSet<>(scanIds);
+        this.logger.info("Streaming the results of {} scans.", unique.size());
+
+        Map<UUID, Exception> failed = new ConcurrentHashMap<>();
+        Object sinkLock = new Object();
+        ParallelCommands.forEach(unique, concurrency, scanId -> {
+            Path tempDir = null;
+            try {
+                tempDir = Files.createTempDirectory("cx");
+                String fileName = Long.toString(System.nanoTime());
+                List<String> arguments = buildResultsArguments(scanId, ReportFormat.json);
+                arguments.add(CxConstants.OUTPUT_NAME);
+                arguments.add(fileName);
+                arguments.add(CxConstants.OUTPUT_PATH);
+                arguments.add(tempDir.toString());
+                Path report = Execution.executeCommandToFile(arguments, logger, tempDir.toString(),
+                        fileName + ReportFormat.json.getExtension());
+                int totalCount = ResultsStreamReader.read(report, result -> {
+                    synchronized (sinkLock) {
+                        sink.accept(scanId, result);
+                    }
+                });
+                synchronized (sinkLock) {
+                    sink.complete(scanId, totalCount);
+                }
+            } catch (IOException | CxException e) {
+                this.logger.warn("Failed to stream the results of scan {}: {}", scanId, e.getMessage());
+                failed.put(scanId, e);
+            } finally {
+                if (tempDir != null) {
+                    deleteRecursively(tempDir);
+                }
+            }
+        });
+
+        Map<UUID, Exception> failures = new LinkedHashMap<>();
+        for (UUID scanId : unique) {
+            if (failed.containsKey(scanId)) {
+                failures.put(scanId, failed.get(scanId));
+            }
+        }
+        return failures;
+    }
+
     public String scaRemediation(String packageFiles, String packages, String packageVersion) throws CxException, IOException, InterruptedException {
         List<String> arguments = new ArrayList<>();
 
@@ -459,6 +835,35 @@ public class CxWrapper {
 
     }
 
+    /**
+     * Fetches the best fix location of many queries of a scan, running at most
+     * {@link CxConfig#getMaxParallelCommands()} {@code results bfl} commands at once.
+     *
+     * @param resultNodesByQuery the result nodes to match, per query id
+     * @return the index of the best fix location node per query id, -1 when none of the nodes matches; queries whose
+     * command failed are logged and left out
+     */
+    public Map<String, Integer> getResultsBflBatch(@NonNull UUID scanId, @NonNull Map<String, List<Node>> resultNodesByQuery)
+            throws InterruptedException {
+        Map<String, Integer> indexes = new ConcurrentHashMap<>();
+        ParallelCommands.forEach(resultNodesByQuery.keySet(), ParallelCommands.parallelism(cxConfig.getMaxParallelCommands()), queryId -> {
+            try {
+                indexes.put(queryId, getResultsBfl(scanId, queryId, resultNodesByQuery.get(queryId)));
+            } catch (IOException | CxException | RuntimeException e) {
+                this.logger.warn("Failed to fetch the best fix location of query {}: {}", queryId, e.getMessage());
+            }
+        });
+
+        Map<String, Integer> result = new LinkedHashMap<>();
+        for (String queryId : resultNodesByQuery.keySet()) {
+            Integer index = indexes.get(queryId);
+            if (index != null) {
+                result.put(queryId, index);
+            }
+        }
+        return result;
+    }
+
     public KicsRealtimeResults kicsRealtimeScan(@NonNull String fileSources, String engine, String additionalParams)
             throws IOException, InterruptedException, CxException {
         this.logger.info("Executing 'scan kics-realtime' command using the CLI.");
@@ -479,10 +884,22 @@ public class CxWrapper {
         return Execution.executeCommand(withConfigArguments(arguments), logger, KicsRealtimeResults::fromLine);
     }
 
+    /**
+     * Checks that a container engine is available. Outcomes are memoized per engine name for the whole JVM,
+     * found engines for {@link ContainerEngineLookup#POSITIVE_TTL} and missing ones for
+     * {@link ContainerEngineLookup#NEGATIVE_TTL}, so repeated checks do not spawn processes.
+     */
     public String checkEngineExist(@NonNull String engineName) throws CxException, IOException, InterruptedException {
              String osName = System.getProperty("os.name").toLowerCase(Locale.ENGLISH);
              String osType=Execution.getOperatingSystemType(osName);
-                return this.checkEngine(engineName,osType);
+                return ENGINE_LOOKUP.resolve(osType + ":" + engineName, () -> this.checkEngine(engineName, osType));
+    }
+
+    /**
+     * Forgets every memoized container engine lookup, e.g. after an engine was installed.
+     */
+    public static void invalidateEngineLookups() {
+        ENGINE_LOOKUP.invalidateAll();
     }
 
     private String verifyEngineOnMAC(String engineName,List<String>arguments) throws CxException, IOException, InterruptedException {
@@ -540,7 +957,7 @@ public class CxWrapper {
                     }
 
                     // Verify the engine is executable and works
-                    if (verifyEngineExecutable(resolvedPath)) {
+                    if (ENGINE_LOOKUP.verify(resolvedPath, this::verifyEngineExecutable)) {
                         this.logger.info("Found working container engine '{}' at: {}", engineName, resolvedPath);
                         return resolvedPath;
                     }
@@ -575,7 +992,7 @@ public class CxWrapper {
             ProcessBuilder pb = new ProcessBuilder(enginePath, "--version");
             pb.redirectErrorStream(true);
             Process process = pb.start();
-            boolean completed = process.waitFor(5, java.util.concurrent.TimeUnit.SECONDS);
+            boolean completed = process.waitFor(5, TimeUnit.SECONDS);
 
             if (completed && process.exitValue() == 0) {
                 this.logger.debug("Engine at '{}' verified successfully", enginePath);
@@ -602,8 +1019,17 @@ public class CxWrapper {
                 arguments.add("-c");
                 arguments.add("command -v " + engineName);
                 return verifyEngineOnMAC(engineName,arguments);
-            case OS_WINDOWS:
             case OS_LINUX:
+                // Resolve in-process and only spawn the version check once per resolved executable
+                String enginePath = ContainerEngineLookup.findOnPath(engineName, System.getenv("PATH"));
+                if (enginePath != null && ENGINE_LOOKUP.verify(enginePath, this::verifyEngineExecutable)) {
+                    this.logger.debug("Found container engine '{}' at: {}", engineName, enginePath);
+                    return engineName;
+                }
+                throw new CxException(
+                        1,engineName+" is not installed or is not accessible from the system PATH."
+                );
+            case OS_WINDOWS:
                 arguments.add(engineName);
                 arguments.add("--version");
                 try {
@@ -620,7 +1046,7 @@ public class CxWrapper {
 
     }
 
-    public <T> T realtimeScan(@NonNull String subCommand, @NonNull String sourcePath, String containerTool, String ignoredFilePath, java.util.function.Function<String, T> resultParser)
+    public <T> T realtimeScan(@NonNull String subCommand, @NonNull String sourcePath, String containerTool, String ignoredFilePath, Function<String, T> resultParser)
             throws IOException, InterruptedException, CxException {
         this.logger.info("Executing 'scan {}' command using the CLI.", subCommand);
         this.logger.info("Source: {} IgnoredFilePath: {}", sourcePath, ignoredFilePath);
@@ -640,15 +1066,471 @@ public class CxWrapper {
         return Execution.executeCommand(withConfigArguments(arguments), logger, resultParser);
     }
 
+    public <T> RealtimeBatchResults<T> realtimeScanAll(@NonNull RealtimeEngine<T> engine, @NonNull Collection<Path> files)
+            throws InterruptedException {
+        return realtimeScanAll(engine, files, null, null);
+    }
+
+    /**
+     * Scans many files with one realtime engine, running at most {@link CxConfig#getMaxParallelCommands()} scans at
+     * once. Duplicate paths are scanned once.
+     *
+     * @param onResult optional callback receiving each file's result as soon as it is parsed; it is called from
+     *                 worker threads, one call at a time
+     * @return the result and failure of every file, keyed by path in input order
+     */
+    public <T> RealtimeBatchResults<T> realtimeScanAll(@NonNull RealtimeEngine<T> engine, @NonNull Collection<Path> files,
+                                                       String ignoredFilePath,
+                                                       BiConsumer<Path, T> onResult)
+            throws InterruptedException {
+        Set<Path> unique = new LinkedHashSet<>(files);
+        this.logger.info("Running the {} realtime scan on {} files.", engine, unique.size());
+
+        Map<Path, T> scanned = new ConcurrentHashMap<>();
+        Map<Path, Exception> failed = new ConcurrentHashMap<>();
+        Object callbackLock = new Object();
+        ParallelCommands.forEach(unique, ParallelCommands.parallelism(cxConfig.getMaxParallelCommands()), file -> {
+            T result;
+            try {
+                result = engine.scan(this, file.toString(), ignoredFilePath);
+            } catch (IOException | CxException | RuntimeException e) {
+                this.logger.warn("The {} realtime scan of {} failed: {}", engine, file, e.getMessage());
+                failed.put(file, e);
+                return;
+            }
+            if (result == null) {
+                return;
+            }
+            scanned.put(file, result);
+            if (onResult != null) {
+                synchronized (callbackLock) {
+                    onResult.accept(file, result);
+                }
+            }
+        });
+
+        Map<Path, T> results = new LinkedHashMap<>();
+        Map<Path, Exception> failures = new LinkedHashMap<>();
+        for (Path file : unique) {
+            if (scanned.containsKey(file)) {
+                results.put(file, scanned.get(file));
+            } else if (failed.containsKey(file)) {
+                failures.put(file, failed.get(file));
+            }
+        }
+        return new RealtimeBatchResults<>(Collections.unmodifiableMap(results), Collections.unmodifiableMap(failures));
+    }
+
+    public RealtimeFileResults realtimeScanFile(@NonNull Path file, @NonNull Collection<RealtimeEngine<?>> engines)
+            throws IOException, InterruptedException {
+        return realtimeScanFile(file, engines, null);
+    }
+
+    /**
+     * Runs every given engine that applies to the file concurrently, so that the latency of a file event is
+     * that of the slowest engine rather than the sum of all of them.
+     * <p>
+     * When more than one engine applies, they all scan the same copy of the content, taken once before any
+     * engine starts, and their results are relocated to the original path. The copy lives at a stable
+     * location per source file, so the per-file realtime caches keep working.
+     *
+     * @param engines the engines to run, e.g. {@link RealtimeEngine#all()}
+     * @throws IOException when the snapshot of the file cannot be taken
+     */
+    public RealtimeFileResults realtimeScanFile(@NonNull Path file, @NonNull Collection<RealtimeEngine<?>> engines,
+                                                String ignoredFilePath)
+            throws IOException, InterruptedException {
+        long started = System.nanoTime();
+        String sourcePath = file.toString();
+        Map<String, RelevanceGate> gates = cxConfig.getRelevanceGates();
+        String content = gates == null ? null : sniff(file);
+        List<RealtimeEngine<?>> applicable = new ArrayList<>();
+        List<String> skipped = new ArrayList<>();
+        for (RealtimeEngine<?> engine : new LinkedHashSet<>(engines)) {
+            String name = engine.getName();
+            boolean ruledOut;
+            if (gates != null && gates.containsKey(name)) {
+                ruledOut = isRuledOut(name, gates.get(name), file, content);
+            } else {
+                ruledOut = !engine.appliesTo(file);
+                if (ruledOut) {
+                    countSkippedRealtimeScan(name);
+                }
+            }
+            if (ruledOut) {
+                skipped.add(name);
+            } else {
+                applicable.add(engine);
+            }
+        }
+
+        Map<String, Object> results = new ConcurrentHashMap<>();
+        Map<String, List<RealtimeIssue>> issues = new ConcurrentHashMap<>();
+        Map<String, Exception> failures = new ConcurrentHashMap<>();
+        Map<String, Long> elapsed = new ConcurrentHashMap<>();
+        if (!applicable.isEmpty()) {
+            Integer configured = cxConfig.getMaxParallelCommands();
+            int parallelism = configured == null ? applicable.size() : ParallelCommands.parallelism(configured);
+            try (StagingLocks.Lease lease = stagingLock(sourcePath)) {
+                Path snapshot = applicable.size() > 1 ? snapshot(file) : null;
+                String scannedPath = snapshot != null ? snapshot.toString() : sourcePath;
+                try {
+                    ParallelCommands.forEach(applicable, parallelism, engine ->
+                            runEngine(engine, scannedPath, sourcePath, ignoredFilePath, results, issues, failures, elapsed));
+                } finally {
+                    if (snapshot != null) {
+                        StagingDirectory.unstage(snapshot);
+                    }
+                }
+            }
+        }
+
+        Map<String, Object> orderedResults = new LinkedHashMap<>();
+        Map<String, List<RealtimeIssue>> orderedIssues = new LinkedHashMap<>();
+        Map<String, Exception> orderedFailures = new LinkedHashMap<>();
+        Map<String, Long> orderedElapsed = new LinkedHashMap<>();
+        for (RealtimeEngine<?> engine : applicable) {
+            String name = engine.getName();
+            if (results.containsKey(name)) {
+                orderedResults.put(name, results.get(name));
+                orderedIssues.put(name, issues.get(name));
+            }
+            if (failures.containsKey(name)) {
+                orderedFailures.put(name, failures.get(name));
+            }
+            if (elapsed.containsKey(name)) {
+                orderedElapsed.put(name, elapsed.get(name));
+            }
+        }
+        long totalMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+        this.logger.info("Realtime scan of {} ran {} engines in {} ms: {}", sourcePath, applicable.size(), totalMillis,
+                orderedElapsed);
+        return new RealtimeFileResults(sourcePath, Collections.unmodifiableMap(orderedResults),
+                Collections.unmodifiableMap(orderedIssues), Collections.unmodifiableMap(orderedFailures),
+                Collections.unmodifiableMap(orderedElapsed), Collections.unmodifiableList(skipped), totalMillis);
+    }
+
+    private <T> void runEngine(RealtimeEngine<T> engine, String scannedPath, String sourcePath, String ignoredFilePath,
+                               Map<String, Object> results, Map<String, List<RealtimeIssue>> issues,
+                               Map<String, Exception> failures, Map<String, Long> elapsed)
+            throws InterruptedException {
+        long started = System.nanoTime();
+        try {
+            T result = engine.scan(this, scannedPath, ignoredFilePath, false);
+            if (!scannedPath.equals(sourcePath)) {
+                result = engine.relocate(result, sourcePath);
+            }
+            if (result != null) {
+                results.put(engine.getName(), result);
+            }
+            issues.put(engine.getName(), engine.issues(result));
+        } catch (IOException | CxException | RuntimeException e) {
+            this.logger.warn("{} realtime scan of {} failed: {}", engine, sourcePath, e.getMessage());
+            failures.put(engine.getName(), e);
+        } finally {
+            elapsed.put(engine.getName(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+        }
+    }
+
+    /**
+     * @return the number of realtime scans that were answered without spawning the CLI because the engine could not
+     * find anything in the file, by engine name
+     */
+    public Map<String, Long> getSkippedRealtimeScans() {
+        Map<String, Long> counts = new TreeMap<>();
+        skippedRealtimeScans.forEach((engine, count) -> counts.put(engine, count.sum()));
+        return counts;
+    }
+
+    /**
+     * Asks the configured relevance gate of the engine whether a scan of the file could find anything.
+     *
+     * @return true when the scan is certainly empty and must not be spawned
+     */
+    private boolean isRuledOut(String engine, String sourcePath) {
+        Map<String, RelevanceGate> gates = cxConfig.getRelevanceGates();
+        RelevanceGate gate = gates == null ? null : gates.get(engine);
+        if (gate == null) {
+            return false;
+        }
+        Path file;
+        try {
+            file = Paths.get(sourcePath);
+        } catch (InvalidPathException e) {
+            return false;
+        }
+        return isRuledOut(engine, gate, file, sniff(file));
+    }
+
+    private boolean isRuledOut(String engine, RelevanceGate gate, Path file, String content) {
+        try {
+            if (gate == null || gate.mayFind(file, content)) {
+                return false;
+            }
+        } catch (RuntimeException e) {
+            this.logger.warn("Relevance gate of {} failed for {}, scanning anyway: {}", engine, file, e.getMessage());
+            return false;
+        }
+        this.logger.debug("Skipping {} realtime scan of {}: ruled out by its relevance gate", engine, file);
+        countSkippedRealtimeScan(engine);
+        return true;
+    }
+
+    private void countSkippedRealtimeScan(String engine) {
+        skippedRealtimeScans.computeIfAbsent(engine, name -> new LongAdder()).increment();
+    }
+
+    /**
+     * @return the content of the file for the relevance gates, or null when it is larger than the sniff limit or
+     * cannot be read
+     */
+    private String sniff(Path file) {
+        Integer configured = cxConfig.getRelevanceSniffBytes();
+        long limit = configured == null || configured < 1 ? CxConfig.DEFAULT_RELEVANCE_SNIFF_BYTES : configured;
+        try {
+            if (!Files.isRegularFile(file) || Files.size(file) > limit) {
+                return null;
+            }
+            byte[] content = Files.readAllBytes(file);
+            return content.length > limit ? null : new String(content, StandardCharsets.UTF_8);
+        } catch (IOException | SecurityException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Copies the file to its staging path, keeping its name so that engines recognize its type.
+     */
+    private Path snapshot(Path file) throws IOException {
+        return Files.copy(file, stagingPath(file.toString()), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * @return the stable path under the staging directory where content of the file is scanned, in a directory of
+     * its own so that the file keeps its name
+     */
+    private Path stagingPath(String sourcePath) throws IOException {
+        Path source = Paths.get(sourcePath);
+        if (source.getFileName() == null) {
+            throw new IllegalArgumentException("No file name in " + sourcePath);
+        }
+        String key = Hashing.sha256(source.toAbsolutePath().toString().getBytes(StandardCharsets.UTF_8)).substring(0, 16);
+        Path directory = Files.createDirectories(staging.root().resolve(key));
+        return directory.resolve(source.getFileName().toString());
+    }
+
+    /**
+     * Locks the staging path of the file for as long as its staged copy may be read by the CLI.
+     */
+    private StagingLocks.Lease stagingLock(String sourcePath) throws InterruptedException {
+        return stagingLocks.acquire(Paths.get(sourcePath).toAbsolutePath().toString());
+    }
+
+    public <T> T realtimeScanContent(@NonNull RealtimeEngine<T> engine, @NonNull String logicalPath,
+                                     @NonNull CharSequence content, String ignoredFilePath)
+            throws IOException, InterruptedException, CxException {
+        return realtimeScanContent(engine, logicalPath, content.toString().getBytes(StandardCharsets.UTF_8),
+                ignoredFilePath);
+    }
+
+    /**
+     * Scans content that need not be saved, e.g. an editor buffer, as the file at {@code logicalPath}.
+     * <p>
+     * The content is written under its file name to a reusable staging directory, on {@code /dev/shm} when
+     * available, so that engines detect its type from the name; the staged file is deleted after the scan and
+     * the result reports {@code logicalPath}. Staged paths are stable per logical file, so the realtime caches
+     * work for buffers as they do for files.
+     */
+    public <T> T realtimeScanContent(@NonNull RealtimeEngine<T> engine, @NonNull String logicalPath,
+                                     @NonNull byte[] content, String ignoredFilePath)
+            throws IOException, InterruptedException, CxException {
+        return scanStaged(engine, logicalPath, content, ignoredFilePath, engine::scan);
+    }
+
+    public ScanResult ScanAsca(@NonNull String logicalPath, @NonNull CharSequence content, boolean ascaLatestVersion,
+                               String agent, String ignoredFilePath)
+            throws IOException, InterruptedException, CxException {
+        return ScanAsca(logicalPath, content.toString().getBytes(StandardCharsets.UTF_8), ascaLatestVersion, agent,
+                ignoredFilePath);
+    }
+
+    /**
+     * Runs an ASCA scan of unsaved content as the file at {@code logicalPath}, staged the same way as
+     * {@link #realtimeScanContent(RealtimeEngine, String, byte[], String)}.
+     */
+    public ScanResult ScanAsca(@NonNull String logicalPath, @NonNull byte[] content, boolean ascaLatestVersion,
+                               String agent, String ignoredFilePath)
+            throws IOException, InterruptedException, CxException {
+        return scanStaged(RealtimeEngine.ASCA, logicalPath, content, ignoredFilePath,
+                (wrapper, sourcePath, ignored, checkRelevance) ->
+                        wrapper.ScanAsca(sourcePath, ascaLatestVersion, agent, ignored));
+    }
+
+    private <T> T scanStaged(RealtimeEngine<T> engine, String logicalPath, byte[] content, String ignoredFilePath,
+                             RealtimeEngine.Scanner<T> scanner)
+            throws IOException, InterruptedException, CxException {
+        try (StagingLocks.Lease lease = stagingLock(logicalPath)) {
+            Path staged = Files.write(stagingPath(logicalPath), content);
+            try {
+                return engine.relocate(scanner.scan(this, staged.toString(), ignoredFilePath, true), logicalPath);
+            } finally {
+                StagingDirectory.unstage(staged);
+            }
+        }
+    }
+
+    /**
+     * Runs a realtime scan and reports how its issues differ from the previous scan of the same file by the same
+     * engine through this wrapper, so that callers only redraw what changed. The first scan of a file reports
+     * every issue as added.
+     */
+    public <T> RealtimeDelta realtimeScanDelta(@NonNull RealtimeEngine<T> engine, @NonNull String sourcePath,
+                                               String ignoredFilePath)
+            throws IOException, InterruptedException, CxException {
+        T result = engine.scan(this, sourcePath, ignoredFilePath);
+        return realtimeDeltas.update(engine.getName(), sourcePath, engine.issues(result));
+    }
+
+    /**
+     * Forgets the last issues of a file for an engine, e.g. when the file is closed; its next
+     * {@link #realtimeScanDelta} reports every issue as added.
+     */
+    public void forgetRealtimeDelta(@NonNull RealtimeEngine<?> engine, @NonNull String sourcePath) {
+        realtimeDeltas.forget(engine.getName(), sourcePath);
+    }
+
     // OSS Realtime
     public OssRealtimeResults ossRealtimeScan(@NonNull String sourcePath, String ignoredFilePath)
             throws IOException, InterruptedException, CxException {
-        return realtimeScan(CxConstants.SUB_CMD_OSS_REALTIME, sourcePath,"", ignoredFilePath, OssRealtimeResults::fromLine);
+        return ossRealtimeScan(sourcePath, ignoredFilePath, true);
+    }
+
+    /**
+     * @param checkRelevance false when the caller has already asked the relevance gate of the OSS engine
+     */
+    OssRealtimeResults ossRealtimeScan(@NonNull String sourcePath, String ignoredFilePath, boolean checkRelevance)
+            throws IOException, InterruptedException, CxException {
+        if (checkRelevance && isRuledOut(RealtimeIssues.OSS, sourcePath)) {
+            return new OssRealtimeResults(Collections.emptyList());
+        }
+        if (ossRealtimeCache == null) {
+            return realtimeScan(CxConstants.SUB_CMD_OSS_REALTIME, sourcePath,"", ignoredFilePath, OssRealtimeResults::fromLine);
+        }
+        return cachedOssRealtimeScan(sourcePath, ignoredFilePath);
+    }
+
+    /**
+     * Drops every package answer kept by the OSS realtime package cache.
+     */
+    public void invalidateOssRealtimeCache() {
+        if (ossRealtimeCache != null) {
+            ossRealtimeCache.invalidateAll();
+        }
+    }
+
+    /**
+     * Answers an OSS realtime scan from the package cache where possible. Manifests that are not understood
+     * in-process are scanned as a whole. Otherwise unchanged declarations keep the answers of the last scan of
+     * the file, only the added or changed packages the package cache cannot answer are sent to the CLI through a
+     * reduced manifest, and the answers are relocated to the requesting file.
+     */
+    private OssRealtimeResults cachedOssRealtimeScan(String sourcePath, String ignoredFilePath)
+            throws IOException, InterruptedException, CxException {
+        Path manifest = Paths.get(sourcePath);
+        List<OssManifestDependency> dependencies = OssManifestParser.parse(manifest);
+        OssIgnoredPackages ignored = StringUtils.isBlank(ignoredFilePath)
+                ? OssIgnoredPackages.none()
+                : OssIgnoredPackages.load(Paths.get(ignoredFilePath));
+        String context = ignoredContext(ignoredFilePath);
+        if (dependencies == null || ignored == null || context == null) {
+            OssRealtimeResults results = realtimeScan(CxConstants.SUB_CMD_OSS_REALTIME, sourcePath, "", ignoredFilePath, OssRealtimeResults::fromLine);
+            ossRealtimeCache.store(Collections.emptyList(), results);
+            return results;
+        }
+
+        OssRealtimeCache.Partition partition = ossRealtimeCache.partition(sourcePath, context, dependencies);
+        OssManifestDiff diff = partition.getDiff();
+        List<OssManifestDependency> missing = partition.getMissing();
+        this.logger.info("OSS realtime cache answered {} of {} packages for {} ({} added, {} changed, {} removed since the last scan)",
+                partition.getCached().size(), dependencies.size(), sourcePath,
+                diff.getAdded().size(), diff.getChanged().size(), diff.getRemoved().size());
+
+        List<OssRealtimeScanPackage> packages = new ArrayList<>();
+        for (OssRealtimeScanPackage scanPackage : partition.getCached().values()) {
+            if (!ignored.isIgnored(scanPackage)) {
+                packages.add(scanPackage);
+            }
+        }
+        if (missing.isEmpty()) {
+            ossRealtimeCache.remember(sourcePath, partition, Collections.emptyList(), Collections.emptyMap());
+            return new OssRealtimeResults(packages);
+        }
+        if (missing.size() == dependencies.size()) {
+            return fullOssRealtimeScan(sourcePath, ignoredFilePath, partition);
+        }
+
+        Path tempDir = Files.createTempDirectory("cx");
+        try {
+            Path reduced = OssManifestParser.writeReducedManifest(tempDir, manifest.getFileName().toString(), missing);
+            OssRealtimeResults results = realtimeScan(CxConstants.SUB_CMD_OSS_REALTIME, reduced.toString(), "", ignoredFilePath, OssRealtimeResults::fromLine);
+            Map<OssRealtimeScanPackage, OssManifestDependency> answers = ossRealtimeCache.store(missing, results);
+            if (answers.containsValue(null)) {
+                // an answer that cannot be paired with a declaration only has locations in the reduced manifest
+                this.logger.info("OSS realtime answer for {} could not be mapped to its declarations, scanning the whole manifest", sourcePath);
+                return fullOssRealtimeScan(sourcePath, ignoredFilePath, partition);
+            }
+            for (Map.Entry<OssRealtimeScanPackage, OssManifestDependency> answer : answers.entrySet()) {
+                packages.add(answer.getKey().relocate(sourcePath, answer.getValue().getLocations()));
+            }
+            if (results != null) {
+                ossRealtimeCache.remember(sourcePath, partition, missing, answers);
+            }
+        } finally {
+            deleteRecursively(tempDir);
+        }
+        return new OssRealtimeResults(packages);
+    }
+
+    /**
+     * @return the ignore file and a hash of its content, which realtime answers depend on, an empty string without
+     * an ignore file, or null when it cannot be read
+     */
+    private static String ignoredContext(String ignoredFilePath) {
+        if (StringUtils.isBlank(ignoredFilePath)) {
+            return "";
+        }
+        try {
+            return ignoredFilePath + ":" + Hashing.sha256(Files.readAllBytes(Paths.get(ignoredFilePath)));
+        } catch (IOException | InvalidPathException e) {
+            return null;
+        }
+    }
+
+    private OssRealtimeResults fullOssRealtimeScan(String sourcePath, String ignoredFilePath,
+                                                   OssRealtimeCache.Partition partition)
+            throws IOException, InterruptedException, CxException {
+        List<OssManifestDependency> dependencies = partition.getDependencies();
+        OssRealtimeResults results = realtimeScan(CxConstants.SUB_CMD_OSS_REALTIME, sourcePath, "", ignoredFilePath, OssRealtimeResults::fromLine);
+        Map<OssRealtimeScanPackage, OssManifestDependency> answers = ossRealtimeCache.store(dependencies, results);
+        // declarations an unpaired answer may belong to would be remembered as having nothing to report
+        if (results != null && !answers.containsValue(null)) {
+            ossRealtimeCache.remember(sourcePath, partition, dependencies, answers);
+        }
+        return results;
     }
 
     // IAC Realtime
-    public IacRealtimeResults iacRealtimeScan(@NonNull String sourcePath,String containerTool, String ignoredFilePath)
+    public IacRealtimeResults iacRealtimeScan(@NonNull String sourcePath, String containerTool, String ignoredFilePath)
             throws IOException, InterruptedException, CxException {
+        return iacRealtimeScan(sourcePath, containerTool, ignoredFilePath, true);
+    }
+
+    IacRealtimeResults iacRealtimeScan(@NonNull String sourcePath, String containerTool, String ignoredFilePath,
+                                       boolean checkRelevance)
+            throws IOException, InterruptedException, CxException {
+        if (checkRelevance && isRuledOut(RealtimeIssues.IAC, sourcePath)) {
+            return new IacRealtimeResults(Collections.emptyList());
+        }
         return realtimeScan(CxConstants.SUB_CMD_IAC_REALTIME, sourcePath,containerTool, ignoredFilePath, IacRealtimeResults::fromLine);
     }
 
@@ -656,13 +1538,122 @@ public class CxWrapper {
     // Secrets Realtime
     public SecretsRealtimeResults secretsRealtimeScan(@NonNull String sourcePath, String ignoredFilePath)
             throws IOException, InterruptedException, CxException {
-        return realtimeScan(CxConstants.SUB_CMD_SECRETS_REALTIME, sourcePath,"", ignoredFilePath, SecretsRealtimeResults::fromLine);
+        return secretsRealtimeScan(sourcePath, ignoredFilePath, true);
+    }
+
+    SecretsRealtimeResults secretsRealtimeScan(@NonNull String sourcePath, String ignoredFilePath,
+                                               boolean checkRelevance)
+            throws IOException, InterruptedException, CxException {
+        if (checkRelevance && isRuledOut(RealtimeIssues.SECRETS, sourcePath)) {
+            return new SecretsRealtimeResults(Collections.emptyList());
+        }
+        if (secretsRealtimeCache == null) {
+            return realtimeScan(CxConstants.SUB_CMD_SECRETS_REALTIME, sourcePath,"", ignoredFilePath, SecretsRealtimeResults::fromLine);
+        }
+        return incrementalSecretsRealtimeScan(sourcePath, ignoredFilePath);
+    }
+
+    /**
+     * Drops the last scanned content and answer of every file kept for incremental secrets scans.
+     */
+    public void invalidateSecretsRealtimeCache() {
+        if (secretsRealtimeCache != null) {
+            secretsRealtimeCache.invalidateAll();
+        }
+    }
+
+    /**
+     * Rescans only the lines that changed since the last secrets realtime scan of the file, through a
+     * temporary file with the same name holding just those lines, and merges the answer with the secrets
+     * carried forward from the last scan. Files scanned for the first time, or with another ignore file,
+     * are scanned as a whole.
+     */
+    private SecretsRealtimeResults incrementalSecretsRealtimeScan(String sourcePath, String ignoredFilePath)
+            throws IOException, InterruptedException, CxException {
+        Path file = Paths.get(sourcePath);
+        List<String> lines = null;
+        String context = ignoredContext(ignoredFilePath);
+        try {
+            lines = SecretsRealtimeCache.lines(new String(Files.readAllBytes(file), StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            // scanned as a whole below
+        }
+        if (lines == null || context == null) {
+            secretsRealtimeCache.invalidate(sourcePath);
+            return realtimeScan(CxConstants.SUB_CMD_SECRETS_REALTIME, sourcePath, "", ignoredFilePath, SecretsRealtimeResults::fromLine);
+        }
+
+        SecretsRealtimeCache.Plan plan = secretsRealtimeCache.plan(sourcePath, context, lines);
+        SecretsRealtimeResults results = null;
+        if (plan != null && !plan.isScanNeeded()) {
+            this.logger.info("Secrets realtime content of {} is unchanged since the last scan", sourcePath);
+            results = plan.merge(sourcePath, null);
+        } else if (plan != null) {
+            this.logger.info("Secrets realtime rescanning lines {}-{} of {} lines in {}",
+                    plan.getSliceStart() + 1, plan.getSliceEnd(), lines.size(), sourcePath);
+            Path tempDir = Files.createTempDirectory("cx");
+            try {
+                Path slice = Files.write(tempDir.resolve(file.getFileName().toString()),
+                        plan.slice(lines).getBytes(StandardCharsets.UTF_8));
+                SecretsRealtimeResults sliceResults = realtimeScan(CxConstants.SUB_CMD_SECRETS_REALTIME, slice.toString(), "", ignoredFilePath, SecretsRealtimeResults::fromLine);
+                if (sliceResults != null) {
+                    results = plan.merge(sourcePath, sliceResults);
+                }
+            } finally {
+                deleteRecursively(tempDir);
+            }
+        }
+        if (results == null) {
+            results = realtimeScan(CxConstants.SUB_CMD_SECRETS_REALTIME, sourcePath, "", ignoredFilePath, SecretsRealtimeResults::fromLine);
+        }
+        secretsRealtimeCache.store(sourcePath, context, lines, results);
+        return results;
     }
 
     // Containers Realtime
     public ContainersRealtimeResults containersRealtimeScan(@NonNull String sourcePath, String ignoredFilePath)
             throws IOException, InterruptedException, CxException {
-        return realtimeScan(CxConstants.SUB_CMD_CONTAINERS_REALTIME, sourcePath, "",ignoredFilePath, ContainersRealtimeResults::fromLine);
+        return containersRealtimeScan(sourcePath, ignoredFilePath, true);
+    }
+
+    ContainersRealtimeResults containersRealtimeScan(@NonNull String sourcePath, String ignoredFilePath,
+                                                     boolean checkRelevance)
+            throws IOException, InterruptedException, CxException {
+        if (checkRelevance && isRuledOut(RealtimeIssues.CONTAINERS, sourcePath)) {
+            return new ContainersRealtimeResults(Collections.emptyList());
+        }
+        if (containersRealtimeCache == null || StringUtils.isNotBlank(ignoredFilePath)) {
+            return realtimeScan(CxConstants.SUB_CMD_CONTAINERS_REALTIME, sourcePath, "",ignoredFilePath, ContainersRealtimeResults::fromLine);
+        }
+        return cachedContainersRealtimeScan(sourcePath);
+    }
+
+    /**
+     * Drops every image answer kept by the containers realtime image cache.
+     */
+    public void invalidateContainersRealtimeCache() {
+        if (containersRealtimeCache != null) {
+            containersRealtimeCache.invalidateAll();
+        }
+    }
+
+    /**
+     * Answers a containers realtime scan in-process when every image the file references is cached,
+     * otherwise scans the file and caches its images.
+     */
+    private ContainersRealtimeResults cachedContainersRealtimeScan(String sourcePath)
+            throws IOException, InterruptedException, CxException {
+        List<ContainersImageReference> references = ContainersImageReferenceParser.parse(Paths.get(sourcePath));
+        if (references != null && !references.isEmpty()) {
+            ContainersRealtimeResults cached = containersRealtimeCache.answer(sourcePath, references);
+            if (cached != null) {
+                this.logger.info("Containers realtime cache answered {} image references for {}", references.size(), sourcePath);
+                return cached;
+            }
+        }
+        ContainersRealtimeResults results = realtimeScan(CxConstants.SUB_CMD_CONTAINERS_REALTIME, sourcePath, "", null, ContainersRealtimeResults::fromLine);
+        containersRealtimeCache.store(references != null ? references : Collections.emptyList(), results);
+        return results;
     }
 
     public KicsRemediation kicsRemediate(@NonNull String resultsFile, String kicsFile, String engine,String similarityIds)
@@ -770,6 +1761,76 @@ public class CxWrapper {
         return Execution.executeCommand(withConfigArguments(arguments), logger, MaskResult::fromLine);
     }
 
+    /**
+     * Masks the secrets of many files, running at most {@link CxConfig#getMaxParallelCommands()} mask commands at
+     * once. Files are identified by the SHA-256 of their content: content already masked in this wrapper's session,
+     * or shared by several files of the batch, is masked once.
+     *
+     * @return the result and failure of every file, with throughput figures
+     */
+    public MaskBatchResults maskSecretsBatch(@NonNull Collection<Path> files) throws InterruptedException {
+        long start = System.nanoTime();
+        Set<Path> unique = new LinkedHashSet<>(files);
+        this.logger.info("Masking secrets of {} files.", unique.size());
+
+        Map<Path, String> hashes = new LinkedHashMap<>();
+        Map<Path, Exception> failed = new ConcurrentHashMap<>();
+        Map<String, Path> toMask = new LinkedHashMap<>();
+        Map<String, MaskResult> byHash = new ConcurrentHashMap<>();
+        long bytesRead = 0;
+        int cached = 0;
+        for (Path file : unique) {
+            try {
+                byte[] content = Files.readAllBytes(file);
+                bytesRead += content.length;
+                String hash = Hashing.sha256(content);
+                hashes.put(file, hash);
+                MaskResult known = maskedContents.get(hash);
+                if (known != null) {
+                    byHash.put(hash, known);
+                    cached++;
+                } else {
+                    toMask.putIfAbsent(hash, file);
+                }
+            } catch (IOException e) {
+                failed.put(file, e);
+            }
+        }
+
+        ParallelCommands.forEach(toMask.entrySet(), ParallelCommands.parallelism(cxConfig.getMaxParallelCommands()), entry -> {
+            try {
+                MaskResult result = maskSecrets(entry.getValue().toString());
+                if (result != null) {
+                    byHash.put(entry.getKey(), result);
+                    maskedContents.put(entry.getKey(), result);
+                }
+            } catch (IOException | CxException | RuntimeException e) {
+                this.logger.warn("Failed to mask secrets of {}: {}", entry.getValue(), e.getMessage());
+                failed.put(entry.getValue(), e);
+            }
+        });
+
+        Map<Path, MaskResult> results = new LinkedHashMap<>();
+        Map<Path, Exception> failures = new LinkedHashMap<>();
+        for (Path file : unique) {
+            String hash = hashes.get(file);
+            MaskResult result = hash == null ? null : byHash.get(hash);
+            if (result != null) {
+                results.put(file, result);
+            } else if (failed.containsKey(file)) {
+                failures.put(file, failed.get(file));
+            } else if (hash != null && failed.containsKey(toMask.get(hash))) {
+                failures.put(file, failed.get(toMask.get(hash)));
+            }
+        }
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        MaskBatchResults batch = new MaskBatchResults(Collections.unmodifiableMap(results),
+                Collections.unmodifiableMap(failures), unique.size(), toMask.size(), cached, bytesRead, elapsedMillis);
+        this.logger.info("Masked {} files ({} processes, {} from session cache) in {} ms, {} files/s.",
+                unique.size(), toMask.size(), cached, elapsedMillis, String.format("%.1f", batch.getFilesPerSecond()));
+        return batch;
+    }
+
     /**
      * Executes telemetry AI command to collect telemetry data for user interactions related to AI features.
      *
@@ -816,14 +1877,27 @@ public class CxWrapper {
         return Execution.executeCommand(withConfigArguments(arguments), logger, line -> line);
     }
 
-    private int getIndexOfBfLNode(List<Node> bflNodes, List<Node> resultNodes) {
+    /**
+     * Returns the index in {@code resultNodes} of the first best fix location node, in BFL order, that is also a
+     * result node, or -1. Result nodes are indexed by location first, so matching is linear in both lists.
+     */
+    static int getIndexOfBfLNode(List<Node> bflNodes, List<Node> resultNodes) {
 
         int bflNodeNotFound = -1;
+        if (bflNodes == null || bflNodes.isEmpty() || resultNodes == null || resultNodes.isEmpty()) {
+            return bflNodeNotFound;
+        }
+        Map<Node, Integer> indexByLocation = new HashMap<>(resultNodes.size() * 2);
+        for (int i = 0; i < resultNodes.size(); i++) {
+            Node resultNode = resultNodes.get(i);
+            if (resultNode != null) {
+                indexByLocation.putIfAbsent(resultNode, i);
+            }
+        }
         for (Node bflNode : bflNodes) {
-            for (Node resultNode : resultNodes) {
-                if (bflNode.equals(resultNode)) {
-                    return resultNodes.indexOf(resultNode);
-                }
+            Integer index = bflNode == null ? null : indexByLocation.get(bflNode);
+            if (index != null) {
+                return index;
             }
         }
         return bflNodeNotFound;
@@ -845,6 +1919,106 @@ public class CxWrapper {
         return arguments;
     }
 
+    private interface ScaChunk<R> {
+        List<R> run(String vulnerabilities) throws IOException, InterruptedException, CxException;
+    }
+
+    /**
+     * Splits SCA vulnerability identifiers into values of at most {@link #SCA_IDENTIFIERS_MAX_LENGTH} characters.
+     * Identifiers in the {@code key=value,...} form contain commas themselves and are separated by {@code ;};
+     * plain identifiers may be separated by {@code ,}. A value within the limit is returned unchanged.
+     */
+    static List<String> scaIdentifierChunks(String vulnerabilities) {
+        if (vulnerabilities.length() <= SCA_IDENTIFIERS_MAX_LENGTH) {
+            return Collections.singletonList(vulnerabilities);
+        }
+        String separator = vulnerabilities.indexOf('=') >= 0 || vulnerabilities.contains(SCA_IDENTIFIERS_SEPARATOR)
+                ? SCA_IDENTIFIERS_SEPARATOR
+                : ",";
+        List<String> identifiers = new ArrayList<>();
+        for (String identifier : vulnerabilities.split(Pattern.quote(separator))) {
+            if (StringUtils.isNotBlank(identifier)) {
+                identifiers.add(identifier.trim());
+            }
+        }
+        List<String> chunks = new ArrayList<>();
+        for (List<String> chunk : chunkByLength(identifiers, identifier -> identifier, SCA_IDENTIFIERS_MAX_LENGTH)) {
+            chunks.add(String.join(separator, chunk));
+        }
+        return chunks;
+    }
+
+    /**
+     * Runs one command per chunk with bounded parallelism and merges the results in chunk order.
+     */
+    private <R> List<R> runScaChunks(List<String> chunks, ScaChunk<R> command) throws InterruptedException, CxException {
+        this.logger.info("Splitting SCA vulnerability identifiers into {} chunks.", chunks.size());
+        List<List<R>> results = new ArrayList<>(Collections.nCopies(chunks.size(), null));
+        Exception[] errors = new Exception[chunks.size()];
+        List<Integer> indexes = new ArrayList<>();
+        for (int i = 0; i < chunks.size(); i++) {
+            indexes.add(i);
+        }
+        ParallelCommands.forEach(indexes, ParallelCommands.parallelism(cxConfig.getMaxParallelCommands()), index -> {
+            try {
+                results.set(index, command.run(chunks.get(index)));
+            } catch (IOException | CxException | RuntimeException e) {
+                this.logger.warn("SCA triage chunk {} of {} failed: {}", index + 1, chunks.size(), e.getMessage());
+                errors[index] = e;
+            }
+        });
+
+        List<R> merged = new ArrayList<>();
+        Map<String, Exception> failures = new LinkedHashMap<>();
+        for (int i = 0; i < chunks.size(); i++) {
+            if (errors[i] != null) {
+                failures.put(chunks.get(i), errors[i]);
+            } else if (results.get(i) != null) {
+                merged.addAll(results.get(i));
+            }
+        }
+        if (!failures.isEmpty()) {
+            throw new CxPartialFailureException(failures, chunks.size(), merged);
+        }
+        return merged;
+    }
+
+    /**
+     * Splits items into consecutive chunks whose texts, joined by a one character separator, fit in
+     * {@code maxLength}. An item longer than the limit gets a chunk of its own.
+     */
+    private static <T> List<List<T>> chunkByLength(List<T> items, Function<T, String> text, int maxLength) {
+        List<List<T>> chunks = new ArrayList<>();
+        List<T> chunk = new ArrayList<>();
+        int length = 0;
+        for (T item : items) {
+            int itemLength = text.apply(item).length();
+            if (!chunk.isEmpty() && length + 1 + itemLength > maxLength) {
+                chunks.add(chunk);
+                chunk = new ArrayList<>();
+                length = 0;
+            }
+            length += chunk.isEmpty() ? itemLength : itemLength + 1;
+            chunk.add(item);
+        }
+        if (!chunk.isEmpty()) {
+            chunks.add(chunk);
+        }
+        return chunks;
+    }
+
+    private static boolean isEnabled(Duration ttl) {
+        return ttl != null && !ttl.isNegative() && !ttl.isZero();
+    }
+
+    private void deleteRecursively(Path path) {
+        try (Stream<Path> paths = Files.walk(path)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+        } catch (IOException e) {
+            this.logger.debug("Failed to delete temporary path {}: {}", path, e.getMessage());
+        }
+    }
+
     private List<String> withConfigArguments(List<String> commands) {
         List<String> arguments = new ArrayList<>();
 
@@ -864,6 +2038,24 @@ public class CxWrapper {
         return arguments;
     }
 
+    /**
+     * Appends {@code offset} and {@code limit} to a filter, replacing any already present and keeping the separator
+     * the filter uses.
+     */
+    static String pagedFilter(String filter, int offset, int limit) {
+        String separator = StringUtils.contains(filter, '&') ? "&" : ",";
+        StringJoiner paged = new StringJoiner(separator);
+        for (String part : StringUtils.split(StringUtils.defaultString(filter), separator)) {
+            String key = StringUtils.substringBefore(part, "=").trim();
+            if (StringUtils.isNotBlank(part) && !"offset".equals(key) && !"limit".equals(key)) {
+                paged.add(part.trim());
+            }
+        }
+        paged.add("offset=" + offset);
+        paged.add("limit=" + limit);
+        return paged.toString();
+    }
+
     private List<String> filterArguments(String filter) {
         List<String> arguments = new ArrayList<>();
 
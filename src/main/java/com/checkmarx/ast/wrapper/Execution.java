@@ -10,6 +10,7 @@ import java.net.URL;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
@@ -63,10 +64,14 @@ public final class Execution {
                 }
             }
             process.waitFor();
+            CommandCancellation.throwIfCancelled();
             if (process.exitValue() != 0) {
                 throw new CxException(process.exitValue(), output.toString());
             }
             return executionResult;
+        } catch (IOException e) {
+            CommandCancellation.throwIfCancelled();
+            throw e;
         }
     }
 
@@ -90,6 +95,18 @@ public final class Execution {
                                  String directory,
                                  String file)
             throws IOException, InterruptedException, CxException {
+        return new String(Files.readAllBytes(executeCommandToFile(arguments, logger, directory, file)),
+                StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Runs a command that writes its output to a file and returns the path of that file without reading it.
+     */
+    static Path executeCommandToFile(List<String> arguments,
+                                     Logger logger,
+                                     String directory,
+                                     String file)
+            throws IOException, InterruptedException, CxException {
         Process process = buildProcess(arguments);
 
         try (BufferedReader br = getReader(process)) {
@@ -100,15 +117,18 @@ public final class Execution {
                 stringBuilder.append(line).append(LINE_SEPARATOR);
             }
             process.waitFor();
+            CommandCancellation.throwIfCancelled();
             if (process.exitValue() != 0) {
                 throw new CxException(process.exitValue(), stringBuilder.toString());
             }
+        } catch (IOException e) {
+            CommandCancellation.throwIfCancelled();
+            throw e;
         }
 
         File outputFile = new File(directory, file);
 
-        return new String(Files.readAllBytes(Paths.get(outputFile.getAbsolutePath())),
-                StandardCharsets.UTF_8);
+        return Paths.get(outputFile.getAbsolutePath());
     }
 
     static String getTempBinary(@NonNull Logger logger) throws IOException {
@@ -143,7 +163,9 @@ public final class Execution {
     private static Process buildProcess(List<String> commands) throws IOException {
         ProcessBuilder lmBuilder = new ProcessBuilder(commands);
         lmBuilder.redirectErrorStream(true);
-        return lmBuilder.start();
+        Process process = lmBuilder.start();
+        CommandCancellation.attach(process);
+        return process;
     }
 
     private static String detectBinaryName(@NonNull Logger logger) {
@@ -0,0 +1,19 @@
+package com.checkmarx.ast.wrapper;
+
+import lombok.Value;
+
+/**
+ * Queue statistics of one lane of a {@link RealtimeScanScheduler}.
+ */
+@Value
+public class LaneStats {
+
+    long submitted;
+    long started;
+    int queued;
+    /**
+     * Mean time between a task becoming ready and a worker starting it.
+     */
+    long meanWaitMillis;
+    long maxWaitMillis;
+}
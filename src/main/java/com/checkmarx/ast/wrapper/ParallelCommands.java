@@ -0,0 +1,82 @@
+package com.checkmarx.ast.wrapper;
+
+import lombok.NonNull;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs CLI invocations for a collection of items with at most a given number running at once.
+ * Tasks are expected to record their own failures; an interruption or a runtime exception thrown by a task
+ * is rethrown once every other task has finished.
+ */
+final class ParallelCommands {
+
+    static final int DEFAULT_PARALLELISM = 4;
+    private static final AtomicInteger THREAD_COUNT = new AtomicInteger();
+
+    private ParallelCommands() {
+    }
+
+    interface Task<T> {
+        void run(T item) throws InterruptedException;
+    }
+
+    static int parallelism(Integer configured) {
+        return configured == null || configured < 1 ? DEFAULT_PARALLELISM : configured;
+    }
+
+    static <T> void forEach(@NonNull Collection<T> items, int parallelism, @NonNull Task<T> task)
+            throws InterruptedException {
+        int threads = Math.min(Math.max(1, parallelism), items.size());
+        if (threads <= 1) {
+            for (T item : items) {
+                task.run(item);
+            }
+            return;
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "cx-parallel-" + THREAD_COUNT.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<Future<?>> futures = new ArrayList<>(items.size());
+            for (T item : items) {
+                futures.add(executor.submit(() -> {
+                    task.run(item);
+                    return null;
+                }));
+            }
+            RuntimeException failure = null;
+            InterruptedException interrupted = null;
+            for (Future<?> future : futures) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    Throwable cause = e.getCause();
+                    if (cause instanceof Error) {
+                        throw (Error) cause;
+                    } else if (cause instanceof InterruptedException && interrupted == null) {
+                        interrupted = (InterruptedException) cause;
+                    } else if (cause instanceof RuntimeException && failure == null) {
+                        failure = (RuntimeException) cause;
+                    }
+                }
+            }
+            if (interrupted != null) {
+                // an interrupted task has not recorded an outcome, so the batch cannot report one either
+                Thread.currentThread().interrupt();
+                throw interrupted;
+            }
+            if (failure != null) {
+                throw failure;
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
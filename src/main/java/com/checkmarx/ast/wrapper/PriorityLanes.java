@@ -0,0 +1,153 @@
+package com.checkmarx.ast.wrapper;
+
+import lombok.NonNull;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Runs tasks on two lanes with separate budgets. Foreground workers only run foreground tasks; background
+ * workers run queued foreground tasks first and background tasks otherwise, so foreground work never waits
+ * behind queued background work and background work never uses more than its budget.
+ */
+final class PriorityLanes {
+
+    private static final AtomicInteger THREAD_COUNT = new AtomicInteger();
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition available = lock.newCondition();
+    private final Deque<Queued> foreground = new ArrayDeque<>();
+    private final Deque<Queued> background = new ArrayDeque<>();
+    private final Stats foregroundStats = new Stats();
+    private final Stats backgroundStats = new Stats();
+    private final List<Thread> workers = new ArrayList<>();
+    private boolean shutdown;
+
+    PriorityLanes(int foregroundBudget, int backgroundBudget) {
+        if (foregroundBudget < 1 || backgroundBudget < 1) {
+            throw new IllegalArgumentException("Lane budgets must be positive");
+        }
+        for (int i = 0; i < foregroundBudget + backgroundBudget; i++) {
+            boolean backgroundWorker = i >= foregroundBudget;
+            Thread worker = new Thread(() -> work(backgroundWorker),
+                    "cx-lane-" + (backgroundWorker ? "background-" : "foreground-") + THREAD_COUNT.incrementAndGet());
+            worker.setDaemon(true);
+            workers.add(worker);
+            worker.start();
+        }
+    }
+
+    void execute(@NonNull ScanPriority lane, @NonNull Runnable task) {
+        lock.lock();
+        try {
+            if (shutdown) {
+                throw new RejectedExecutionException("PriorityLanes is shut down");
+            }
+            (lane == ScanPriority.FOREGROUND ? foreground : background).addLast(new Queued(task, System.nanoTime()));
+            stats(lane).submitted++;
+            available.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    LaneStats getStats(@NonNull ScanPriority lane) {
+        lock.lock();
+        try {
+            Stats stats = stats(lane);
+            int queued = (lane == ScanPriority.FOREGROUND ? foreground : background).size();
+            return new LaneStats(stats.submitted, stats.started, queued,
+                    stats.started == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(stats.totalWaitNanos / stats.started),
+                    TimeUnit.NANOSECONDS.toMillis(stats.maxWaitNanos));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Drops queued tasks and interrupts the workers.
+     */
+    void shutdownNow() {
+        lock.lock();
+        try {
+            shutdown = true;
+            foreground.clear();
+            background.clear();
+            available.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        for (Thread worker : workers) {
+            worker.interrupt();
+        }
+    }
+
+    private void work(boolean backgroundWorker) {
+        while (true) {
+            Queued next;
+            lock.lock();
+            try {
+                while (true) {
+                    if (shutdown) {
+                        return;
+                    }
+                    if (!foreground.isEmpty()) {
+                        next = foreground.pollFirst();
+                        foregroundStats.started(next);
+                        break;
+                    }
+                    if (backgroundWorker && !background.isEmpty()) {
+                        next = background.pollFirst();
+                        backgroundStats.started(next);
+                        break;
+                    }
+                    available.await();
+                }
+            } catch (InterruptedException e) {
+                return;
+            } finally {
+                lock.unlock();
+            }
+            try {
+                next.task.run();
+            } catch (RuntimeException e) {
+                // tasks report their own failures; a worker must survive them
+            }
+        }
+    }
+
+    private Stats stats(ScanPriority lane) {
+        return lane == ScanPriority.FOREGROUND ? foregroundStats : backgroundStats;
+    }
+
+    private static final class Queued {
+        private final Runnable task;
+        private final long enqueuedAt;
+
+        private Queued(Runnable task, long enqueuedAt) {
+            this.task = task;
+            this.enqueuedAt = enqueuedAt;
+        }
+    }
+
+    private static final class Stats {
+        private long submitted;
+        private long started;
+        private long totalWaitNanos;
+        private long maxWaitNanos;
+
+        private void started(Queued queued) {
+            long wait = System.nanoTime() - queued.enqueuedAt;
+            started++;
+            totalWaitNanos += wait;
+            maxWaitNanos = Math.max(maxWaitNanos, wait);
+        }
+    }
+}
@@ -0,0 +1,236 @@
+package com.checkmarx.ast.wrapper;
+
+import com.checkmarx.ast.asca.ScanDetail;
+import com.checkmarx.ast.asca.ScanResult;
+import com.checkmarx.ast.containersrealtime.ContainersImageReferenceParser;
+import com.checkmarx.ast.containersrealtime.ContainersRealtimeImage;
+import com.checkmarx.ast.containersrealtime.ContainersRealtimeResults;
+import com.checkmarx.ast.iacrealtime.IacRealtimeResults;
+import com.checkmarx.ast.ossrealtime.OssRealtimeResults;
+import com.checkmarx.ast.ossrealtime.OssRealtimeScanPackage;
+import com.checkmarx.ast.realtime.RealtimeIssue;
+import com.checkmarx.ast.realtime.RealtimeIssues;
+import com.checkmarx.ast.secretsrealtime.SecretsRealtimeResults;
+import lombok.Getter;
+import lombok.NonNull;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+/**
+ * A realtime scan engine and the typed result it produces, for the multi-file realtime APIs of {@link CxWrapper}.
+ * Engines scan through the same wrapper methods as single-file calls, so the realtime caches apply.
+ *
+ * @param <T> the parsed result of one file
+ */
+public final class RealtimeEngine<T> {
+
+    private static final Set<String> OSS_MANIFESTS = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+            "package.json", "requirements.txt", "pom.xml", "build.gradle", "build.gradle.kts", "go.mod",
+            "packages.config", "directory.packages.props", "pyproject.toml", "pipfile", "setup.py",
+            "composer.json", "gemfile", "cargo.toml")));
+    private static final Pattern OSS_MANIFEST_NAME = Pattern.compile("(?i)^(requirements.*\\.txt|.+\\.csproj)$");
+    private static final Pattern IAC_NAME = Pattern.compile(
+            "(?i)^(.+\\.(tf|tfvars|hcl|ya?ml|json|bicep)|dockerfile|dockerfile\\..+|.+\\.dockerfile)$");
+    private static final Pattern ASCA_NAME = Pattern.compile("(?i)^.+\\.(java|js|jsx|mjs|ts|tsx|py|cs|go)$");
+    /**
+     * A Dockerfile {@code FROM} or a compose {@code image:} line; without one a containers scan has no image to check.
+     */
+    private static final Pattern IMAGE_KEYWORD = Pattern.compile("(?im)^\\s*(?:-\\s+)?(?:from\\b|image\\s*:)");
+
+    public static final RealtimeEngine<OssRealtimeResults> OSS =
+            new RealtimeEngine<>(RealtimeIssues.OSS, CxWrapper::ossRealtimeScan, RealtimeIssues::of,
+                    gate(RealtimeEngine::isOssManifest), RealtimeEngine::relocate);
+    public static final RealtimeEngine<SecretsRealtimeResults> SECRETS =
+            new RealtimeEngine<>(RealtimeIssues.SECRETS, CxWrapper::secretsRealtimeScan, RealtimeIssues::of,
+                    gate(file -> true), RealtimeEngine::relocate);
+    public static final RealtimeEngine<ContainersRealtimeResults> CONTAINERS =
+            new RealtimeEngine<>(RealtimeIssues.CONTAINERS, CxWrapper::containersRealtimeScan, RealtimeIssues::of,
+                    gate(ContainersImageReferenceParser::isSupported).and(RealtimeEngine::mayReferenceImage),
+                    RealtimeEngine::relocate);
+    public static final RealtimeEngine<IacRealtimeResults> IAC = iac("");
+    public static final RealtimeEngine<ScanResult> ASCA =
+            new RealtimeEngine<>(RealtimeIssues.ASCA, (wrapper, sourcePath, ignoredFilePath, checkRelevance) ->
+                    wrapper.ScanAsca(sourcePath, false, null, ignoredFilePath), RealtimeIssues::of,
+                    gate(file -> matches(ASCA_NAME, file)), RealtimeEngine::relocate);
+
+    interface Scanner<T> {
+        /**
+         * @param checkRelevance false when the caller has already asked the relevance gate of the engine
+         */
+        T scan(CxWrapper wrapper, String sourcePath, String ignoredFilePath, boolean checkRelevance)
+                throws IOException, InterruptedException, CxException;
+    }
+
+    @Getter
+    private final String name;
+    private final Scanner<T> scanner;
+    private final Function<T, List<RealtimeIssue>> issues;
+    private final RelevanceGate gate;
+    private final BiFunction<T, String, T> relocator;
+
+    RealtimeEngine(String name, Scanner<T> scanner) {
+        this(name, scanner, result -> Collections.emptyList(), RelevanceGate.ALWAYS, (result, filePath) -> result);
+    }
+
+    RealtimeEngine(String name, Scanner<T> scanner, Function<T, List<RealtimeIssue>> issues,
+                   RelevanceGate gate, BiFunction<T, String, T> relocator) {
+        this.name = name;
+        this.scanner = scanner;
+        this.issues = issues;
+        this.gate = gate;
+        this.relocator = relocator;
+    }
+
+    /**
+     * @param containerTool the container tool the IaC engine runs with, or blank for the CLI default
+     */
+    public static RealtimeEngine<IacRealtimeResults> iac(String containerTool) {
+        return new RealtimeEngine<>(RealtimeIssues.IAC, (wrapper, sourcePath, ignoredFilePath, checkRelevance) ->
+                wrapper.iacRealtimeScan(sourcePath, containerTool, ignoredFilePath, checkRelevance), RealtimeIssues::of,
+                gate(file -> matches(IAC_NAME, file)), RealtimeEngine::relocate);
+    }
+
+    /**
+     * @return the built-in engines, with IaC using the CLI default container tool
+     */
+    public static List<RealtimeEngine<?>> all() {
+        return Collections.unmodifiableList(Arrays.asList(OSS, SECRETS, CONTAINERS, IAC, ASCA));
+    }
+
+    /**
+     * @return the built-in relevance gate of every engine of {@link #all()} by engine name, as a modifiable map
+     * for {@link CxConfig#setRelevanceGates}
+     */
+    public static Map<String, RelevanceGate> defaultRelevanceGates() {
+        Map<String, RelevanceGate> gates = new LinkedHashMap<>();
+        for (RealtimeEngine<?> engine : all()) {
+            gates.put(engine.getName(), engine.getGate());
+        }
+        return gates;
+    }
+
+    /**
+     * @return the findings of a result of this engine with their stable ids
+     */
+    public List<RealtimeIssue> issues(T result) {
+        return result == null ? Collections.emptyList() : issues.apply(result);
+    }
+
+    /**
+     * @return true when the engine scans files of this name; the decision is made on the file name only
+     */
+    public boolean appliesTo(@NonNull Path file) {
+        return gate.mayFind(file, null);
+    }
+
+    /**
+     * @return the built-in gate of this engine: its file names, and no findings in blank content
+     */
+    public RelevanceGate getGate() {
+        return gate;
+    }
+
+    T scan(@NonNull CxWrapper wrapper, @NonNull String sourcePath, String ignoredFilePath)
+            throws IOException, InterruptedException, CxException {
+        return scan(wrapper, sourcePath, ignoredFilePath, true);
+    }
+
+    T scan(@NonNull CxWrapper wrapper, @NonNull String sourcePath, String ignoredFilePath, boolean checkRelevance)
+            throws IOException, InterruptedException, CxException {
+        return scanner.scan(wrapper, sourcePath, ignoredFilePath, checkRelevance);
+    }
+
+    /**
+     * @return the result with every reported file path replaced, for results of a scanned copy of a file
+     */
+    T relocate(T result, @NonNull String filePath) {
+        return result == null ? null : relocator.apply(result, filePath);
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+
+    /**
+     * @return the gate of files matching the names; blank content never has findings
+     */
+    private static RelevanceGate gate(Predicate<Path> names) {
+        return (file, content) -> names.test(file) && (content == null || !content.trim().isEmpty());
+    }
+
+    private static boolean mayReferenceImage(Path file, String content) {
+        return content == null || IMAGE_KEYWORD.matcher(content).find();
+    }
+
+    private static boolean isOssManifest(Path file) {
+        String fileName = fileName(file);
+        return OSS_MANIFESTS.contains(fileName.toLowerCase(Locale.ENGLISH)) || OSS_MANIFEST_NAME.matcher(fileName).matches();
+    }
+
+    private static boolean matches(Pattern pattern, Path file) {
+        return pattern.matcher(fileName(file)).matches();
+    }
+
+    private static String fileName(Path file) {
+        Path fileName = file.getFileName();
+        return fileName == null ? "" : fileName.toString();
+    }
+
+    private static OssRealtimeResults relocate(OssRealtimeResults results, String filePath) {
+        List<OssRealtimeScanPackage> packages = new ArrayList<>();
+        for (OssRealtimeScanPackage scanPackage : results.getPackages()) {
+            packages.add(scanPackage.relocate(filePath, scanPackage.getLocations()));
+        }
+        return new OssRealtimeResults(packages);
+    }
+
+    private static SecretsRealtimeResults relocate(SecretsRealtimeResults results, String filePath) {
+        List<SecretsRealtimeResults.Secret> secrets = new ArrayList<>();
+        for (SecretsRealtimeResults.Secret secret : results.getSecrets()) {
+            secrets.add(secret.relocate(filePath, secret.getLocations()));
+        }
+        return new SecretsRealtimeResults(secrets);
+    }
+
+    private static ContainersRealtimeResults relocate(ContainersRealtimeResults results, String filePath) {
+        if (results.getImages() == null) {
+            return results;
+        }
+        List<ContainersRealtimeImage> images = new ArrayList<>();
+        for (ContainersRealtimeImage image : results.getImages()) {
+            images.add(image.relocate(filePath, image.getLocations()));
+        }
+        return new ContainersRealtimeResults(images);
+    }
+
+    private static IacRealtimeResults relocate(IacRealtimeResults results, String filePath) {
+        List<IacRealtimeResults.Issue> issues = new ArrayList<>();
+        for (IacRealtimeResults.Issue issue : results.getResults()) {
+            issues.add(new IacRealtimeResults.Issue(issue.getTitle(), issue.getDescription(), issue.getSimilarityId(),
+                    filePath, issue.getSeverity(), issue.getExpectedValue(), issue.getActualValue(),
+                    issue.getLocations()));
+        }
+        return new IacRealtimeResults(issues);
+    }
+
+    private static ScanResult relocate(ScanResult result, String filePath) {
+        if (result.getScanDetails() == null) {
+            return result;
+        }
+        List<ScanDetail> details = new ArrayList<>();
+        for (ScanDetail detail : result.getScanDetails()) {
+            details.add(new ScanDetail(detail.getRuleID(), detail.getLanguage(), detail.getRuleName(),
+                    detail.getSeverity(), filePath, detail.getLine(), detail.getProblematicLine(), detail.getLength(),
+                    detail.getRemediationAdvise(), detail.getDescription()));
+        }
+        return new ScanResult(result.getRequestId(), result.isStatus(), result.getMessage(), details,
+                result.getError());
+    }
+}
@@ -0,0 +1,54 @@
+package com.checkmarx.ast.wrapper;
+
+import com.checkmarx.ast.realtime.RealtimeIssue;
+import lombok.NonNull;
+import lombok.Value;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Outcome of {@link CxWrapper#realtimeScanFile}: the typed result, issues, failure and duration of every engine
+ * that ran, keyed by engine name in the order the engines were given.
+ */
+@Value
+public class RealtimeFileResults {
+
+    String filePath;
+    Map<String, Object> results;
+    Map<String, List<RealtimeIssue>> issues;
+    Map<String, Exception> failures;
+    Map<String, Long> elapsedMillis;
+    /**
+     * Engines that were requested but do not apply to the file.
+     */
+    List<String> skipped;
+    /**
+     * Wall-clock duration of the whole pipeline, close to the slowest engine since engines run concurrently.
+     */
+    long totalElapsedMillis;
+
+    /**
+     * @return the result of the engine, or null when it did not run or failed
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T getResult(@NonNull RealtimeEngine<T> engine) {
+        return (T) results.get(engine.getName());
+    }
+
+    /**
+     * @return the issues of every engine that ran
+     */
+    public List<RealtimeIssue> getAllIssues() {
+        List<RealtimeIssue> all = new ArrayList<>();
+        for (List<RealtimeIssue> engineIssues : issues.values()) {
+            all.addAll(engineIssues);
+        }
+        return all;
+    }
+
+    public boolean isComplete() {
+        return failures.isEmpty();
+    }
+}
@@ -0,0 +1,209 @@
+package com.checkmarx.ast.wrapper;
+
+import lombok.NonNull;
+import lombok.Value;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Schedules realtime scans for files being edited, keyed by (file, engine).
+ * <p>
+ * A submission waits for the debounce window before scanning; a newer submission for the same key within the
+ * window replaces it. A submission made while the previous version is being scanned kills the running CLI
+ * process. Only the latest version of a key ever completes its future: superseded futures are cancelled and
+ * stale results are discarded.
+ * <p>
+ * Scans run on two lanes with separate budgets: {@link ScanPriority#FOREGROUND} for the files the user is looking
+ * at and {@link ScanPriority#BACKGROUND} for workspace sweeps. Queued foreground scans are started before any
+ * queued background scan, and background scans never take more than their budget.
+ */
+public class RealtimeScanScheduler implements AutoCloseable {
+    private static final Logger log = LoggerFactory.getLogger(RealtimeScanScheduler.class);
+
+    public static final Duration DEFAULT_DEBOUNCE = Duration.ofMillis(500);
+    private static final AtomicInteger THREAD_COUNT = new AtomicInteger();
+
+    private final CxWrapper wrapper;
+    private final long debounceMillis;
+    private final ScheduledExecutorService timers;
+    private final PriorityLanes lanes;
+    private final Map<Key, Slot> slots = new HashMap<>();
+    private volatile boolean closed;
+
+    public RealtimeScanScheduler(@NonNull CxWrapper wrapper) {
+        this(wrapper, DEFAULT_DEBOUNCE, ParallelCommands.DEFAULT_PARALLELISM);
+    }
+
+    /**
+     * @param maxConcurrentScans how many foreground scans may run at once; background scans get one worker
+     */
+    public RealtimeScanScheduler(@NonNull CxWrapper wrapper, @NonNull Duration debounce, int maxConcurrentScans) {
+        this(wrapper, debounce, maxConcurrentScans, 1);
+    }
+
+    /**
+     * @param foregroundBudget workers reserved for foreground scans
+     * @param backgroundBudget workers that run background scans when no foreground scan is queued
+     */
+    public RealtimeScanScheduler(@NonNull CxWrapper wrapper, @NonNull Duration debounce, int foregroundBudget,
+                                 int backgroundBudget) {
+        if (debounce.isNegative() || foregroundBudget < 1 || backgroundBudget < 1) {
+            throw new IllegalArgumentException("Debounce must not be negative and budgets must be positive");
+        }
+        this.wrapper = wrapper;
+        this.debounceMillis = debounce.toMillis();
+        this.timers = Executors.newSingleThreadScheduledExecutor(daemon("cx-realtime-debounce-"));
+        this.lanes = new PriorityLanes(foregroundBudget, backgroundBudget);
+    }
+
+    public <T> CompletableFuture<T> submit(@NonNull Path file, @NonNull RealtimeEngine<T> engine, String ignoredFilePath) {
+        return submit(file, engine, ignoredFilePath, ScanPriority.FOREGROUND);
+    }
+
+    /**
+     * Schedules a scan of the current content of a file, superseding any earlier submission for the same file
+     * and engine.
+     *
+     * @return a future completed with the result of this version, or cancelled when a newer version is submitted
+     */
+    public <T> CompletableFuture<T> submit(@NonNull Path file, @NonNull RealtimeEngine<T> engine, String ignoredFilePath,
+                                           @NonNull ScanPriority priority) {
+        Key key = new Key(file.toAbsolutePath().normalize(), engine.getName());
+        CompletableFuture<T> future = new CompletableFuture<>();
+        synchronized (slots) {
+            if (closed) {
+                throw new IllegalStateException("RealtimeScanScheduler is closed");
+            }
+            Slot previous = slots.get(key);
+            long version = previous == null ? 1 : previous.version + 1;
+            if (previous != null) {
+                previous.supersede();
+            }
+            Slot slot = new Slot(version, priority, future);
+            slots.put(key, slot);
+            slot.timer = timers.schedule(() -> start(key, slot, engine, ignoredFilePath),
+                    debounceMillis, TimeUnit.MILLISECONDS);
+        }
+        return future;
+    }
+
+    /**
+     * Cancels the pending or running scan of a file for an engine.
+     */
+    public void cancel(@NonNull Path file, @NonNull RealtimeEngine<?> engine) {
+        Key key = new Key(file.toAbsolutePath().normalize(), engine.getName());
+        synchronized (slots) {
+            Slot slot = slots.remove(key);
+            if (slot != null) {
+                slot.supersede();
+            }
+        }
+    }
+
+    /**
+     * @return queue statistics of a lane, with the wait measured from the end of the debounce window
+     */
+    public LaneStats getLaneStats(@NonNull ScanPriority priority) {
+        return lanes.getStats(priority);
+    }
+
+    /**
+     * @return the number of keys with a pending or running scan
+     */
+    public int getActiveCount() {
+        synchronized (slots) {
+            return slots.size();
+        }
+    }
+
+    @Override
+    public void close() {
+        synchronized (slots) {
+            closed = true;
+            for (Slot slot : slots.values()) {
+                slot.supersede();
+            }
+            slots.clear();
+        }
+        timers.shutdownNow();
+        lanes.shutdownNow();
+    }
+
+    private <T> void start(Key key, Slot slot, RealtimeEngine<T> engine, String ignoredFilePath) {
+        synchronized (slots) {
+            if (slots.get(key) != slot) {
+                return;
+            }
+            lanes.execute(slot.priority, () -> scan(key, slot, engine, ignoredFilePath));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> void scan(Key key, Slot slot, RealtimeEngine<T> engine, String ignoredFilePath) {
+        CompletableFuture<T> future = (CompletableFuture<T>) slot.future;
+        try {
+            T result = slot.cancellation.run(() -> engine.scan(wrapper, key.getFile().toString(), ignoredFilePath));
+            publish(key, slot, () -> future.complete(result));
+        } catch (CancellationException e) {
+            log.debug("Realtime {} scan of {} version {} was superseded", key.getEngine(), key.getFile(), slot.version);
+        } catch (Exception e) {
+            publish(key, slot, () -> future.completeExceptionally(e));
+        }
+    }
+
+    /**
+     * Completes the future only when the slot still holds the latest version of its key.
+     */
+    private void publish(Key key, Slot slot, Runnable completion) {
+        synchronized (slots) {
+            if (slots.get(key) != slot || slot.cancellation.isCancelled()) {
+                return;
+            }
+            slots.remove(key);
+        }
+        completion.run();
+    }
+
+    private static ThreadFactory daemon(String prefix) {
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + THREAD_COUNT.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    @Value
+    private static class Key {
+        Path file;
+        String engine;
+    }
+
+    private static final class Slot {
+        private final long version;
+        private final ScanPriority priority;
+        private final CompletableFuture<?> future;
+        private final CommandCancellation cancellation = new CommandCancellation();
+        private ScheduledFuture<?> timer;
+
+        private Slot(long version, ScanPriority priority, CompletableFuture<?> future) {
+            this.version = version;
+            this.priority = priority;
+            this.future = future;
+        }
+
+        private void supersede() {
+            if (timer != null) {
+                timer.cancel(false);
+            }
+            cancellation.cancel();
+            future.cancel(false);
+        }
+    }
+}
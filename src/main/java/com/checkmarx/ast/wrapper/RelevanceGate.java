@@ -0,0 +1,38 @@
+package com.checkmarx.ast.wrapper;
+
+import lombok.NonNull;
+
+import java.nio.file.Path;
+import java.util.function.Predicate;
+
+/**
+ * Decides in-process, before a realtime engine is spawned, whether a scan of a file could report anything.
+ * Gates must be conservative: they may only rule a file out when a scan would certainly find nothing, so
+ * whenever in doubt, and whenever the content is unknown and the name alone does not settle it, they answer
+ * true.
+ *
+ * @see CxConfig#getRelevanceGates()
+ */
+@FunctionalInterface
+public interface RelevanceGate {
+
+    RelevanceGate ALWAYS = (file, content) -> true;
+
+    /**
+     * @param content the whole content of the file decoded as UTF-8, or null when it is unknown, e.g. larger than
+     *                {@link CxConfig#getRelevanceSniffBytes()} or unreadable
+     * @return false only when a scan of the file would certainly report nothing
+     */
+    boolean mayFind(@NonNull Path file, String content);
+
+    /**
+     * @return a gate that rules out every file whose path does not match, whatever its content
+     */
+    static RelevanceGate byName(@NonNull Predicate<Path> names) {
+        return (file, content) -> names.test(file);
+    }
+
+    default RelevanceGate and(@NonNull RelevanceGate other) {
+        return (file, content) -> mayFind(file, content) && other.mayFind(file, content);
+    }
+}
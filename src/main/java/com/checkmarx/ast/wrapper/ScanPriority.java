@@ -0,0 +1,10 @@
+package com.checkmarx.ast.wrapper;
+
+/**
+ * Lane of a realtime scan: scans of the file being edited run in the foreground, workspace sweeps in the
+ * background.
+ */
+public enum ScanPriority {
+    FOREGROUND,
+    BACKGROUND
+}
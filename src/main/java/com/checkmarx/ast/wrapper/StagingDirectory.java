@@ -0,0 +1,169 @@
+package com.checkmarx.ast.wrapper;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.DirectoryNotEmptyException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Comparator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Per-wrapper directory for the copies of file content that realtime engines scan. It is created lazily on the
+ * memory-backed {@code /dev/shm} when that is available, so that staging content on every change never touches
+ * the disk, and in the default temporary directory otherwise.
+ * <p>
+ * The directory is created readable by its owner only, which matters on the world-readable {@code /dev/shm}.
+ * <p>
+ * Each directory holds a lock file that its JVM keeps locked, and is deleted when the JVM shuts down. Creating a
+ * directory deletes those left next to it by JVMs that exited without shutting down, since their lock files are
+ * no longer locked.
+ */
+final class StagingDirectory {
+
+    static final Path SHARED_MEMORY = Paths.get("/dev/shm");
+    private static final String PREFIX = "cx-staging";
+    private static final String LOCK_FILE = ".lock";
+    private static final Set<StagingDirectory> LIVE = ConcurrentHashMap.newKeySet();
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> LIVE.forEach(StagingDirectory::delete),
+                "cx-staging-cleanup"));
+    }
+
+    private final Path preferredParent;
+    private volatile Path root;
+    private FileChannel lockChannel;
+
+    StagingDirectory() {
+        this(SHARED_MEMORY);
+    }
+
+    /**
+     * @param preferredParent the directory to create the staging directory in, or null for the default
+     *                        temporary directory
+     */
+    StagingDirectory(Path preferredParent) {
+        this.preferredParent = preferredParent;
+    }
+
+    /**
+     * @return the staging directory, created on first use
+     */
+    Path root() throws IOException {
+        Path current = root;
+        if (current == null) {
+            synchronized (this) {
+                if (root == null) {
+                    root = create();
+                    lockChannel = lock(root);
+                    LIVE.add(this);
+                    sweep(root.getParent(), root);
+                }
+                current = root;
+            }
+        }
+        return current;
+    }
+
+    /**
+     * @return true when the staging directory lives under the preferred, memory-backed parent
+     */
+    boolean isPreferred() throws IOException {
+        return preferredParent != null && root().startsWith(preferredParent);
+    }
+
+    /**
+     * Deletes a staged file, and its directory once no other staged file is left in it.
+     */
+    static void unstage(Path staged) throws IOException {
+        Files.deleteIfExists(staged);
+        try {
+            Files.deleteIfExists(staged.getParent());
+        } catch (DirectoryNotEmptyException e) {
+            // another file is still staged in the directory
+        }
+    }
+
+    /**
+     * Deletes the staging directory with everything in it; it is created again on next use.
+     */
+    synchronized void delete() {
+        LIVE.remove(this);
+        if (root == null) {
+            return;
+        }
+        try {
+            lockChannel.close();
+        } catch (IOException e) {
+            // deleting the directory below still works
+        }
+        deleteRecursively(root);
+        root = null;
+        lockChannel = null;
+    }
+
+    private Path create() throws IOException {
+        if (preferredParent != null && Files.isDirectory(preferredParent) && Files.isWritable(preferredParent)) {
+            try {
+                return Files.createTempDirectory(preferredParent, PREFIX);
+            } catch (IOException | SecurityException e) {
+                // e.g. a full or read-only /dev/shm; the default temporary directory still works
+            }
+        }
+        return Files.createTempDirectory(PREFIX);
+    }
+
+    private static FileChannel lock(Path directory) throws IOException {
+        FileChannel channel = FileChannel.open(directory.resolve(LOCK_FILE), StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.WRITE);
+        try {
+            channel.lock();
+            return channel;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Deletes the staging directories in the parent whose lock file is not locked by a running JVM.
+     */
+    private static void sweep(Path parent, Path keep) {
+        try (DirectoryStream<Path> directories = Files.newDirectoryStream(parent, PREFIX + "*")) {
+            for (Path directory : directories) {
+                if (!directory.equals(keep) && Files.isRegularFile(directory.resolve(LOCK_FILE))) {
+                    sweepIfAbandoned(directory);
+                }
+            }
+        } catch (IOException | SecurityException e) {
+            // sweeping is best effort; the next staging directory created tries again
+        }
+    }
+
+    private static void sweepIfAbandoned(Path directory) {
+        try (FileChannel channel = FileChannel.open(directory.resolve(LOCK_FILE), StandardOpenOption.WRITE)) {
+            FileLock lock = channel.tryLock();
+            if (lock != null) {
+                deleteRecursively(directory);
+            }
+        } catch (IOException | OverlappingFileLockException | SecurityException e) {
+            // locked by this JVM, or not ours to delete
+        }
+    }
+
+    private static void deleteRecursively(Path path) {
+        try (Stream<Path> paths = Files.walk(path)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+        } catch (IOException | SecurityException e) {
+            // left for the sweep of a later staging directory
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.checkmarx.ast.wrapper;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Locks the staged copy of a source file while it is written and scanned, so that concurrent scans of the same
+ * file never overwrite a copy the CLI is still reading. Only files with a scan in flight hold an entry, and
+ * waiting for a lock can be interrupted.
+ */
+final class StagingLocks {
+
+    private final Map<String, Entry> locks = new ConcurrentHashMap<>();
+
+    /**
+     * Waits for the lock of the key; the returned lease releases it.
+     */
+    Lease acquire(String key) throws InterruptedException {
+        Entry entry = locks.compute(key, (k, existing) -> {
+            Entry current = existing == null ? new Entry() : existing;
+            current.users++;
+            return current;
+        });
+        try {
+            entry.lock.lockInterruptibly();
+        } catch (InterruptedException e) {
+            release(key);
+            throw e;
+        }
+        return () -> {
+            entry.lock.unlock();
+            release(key);
+        };
+    }
+
+    /**
+     * @return the number of keys with a scan in flight or waiting
+     */
+    int size() {
+        return locks.size();
+    }
+
+    private void release(String key) {
+        locks.computeIfPresent(key, (k, entry) -> --entry.users == 0 ? null : entry);
+    }
+
+    interface Lease extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    private static final class Entry {
+        final ReentrantLock lock = new ReentrantLock();
+        int users;
+    }
+}
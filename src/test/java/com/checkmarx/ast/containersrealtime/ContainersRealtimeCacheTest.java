@@ -0,0 +1,105 @@
+package com.checkmarx.ast.containersrealtime;
+
+import com.checkmarx.ast.realtime.RealtimeLocation;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ContainersRealtimeCacheTest {
+
+    private static final String DOCKERFILE = "FROM golang:1.22 AS build\n" +
+            "RUN go build\n" +
+            "FROM build AS test\n" +
+            "FROM --platform=linux/amd64 nginx@sha256:abc123\n" +
+            "FROM scratch\n";
+
+    @Test
+    void testParseDockerfileSkipsStagesAndScratch() {
+        List<ContainersImageReference> references = ContainersImageReferenceParser.parse("Dockerfile", DOCKERFILE);
+        assertNotNull(references);
+        assertEquals(2, references.size());
+        assertEquals(ContainersImageKey.of("golang", "1.22", null), references.get(0).getKey());
+        assertEquals(new RealtimeLocation(0, 5, 16), references.get(0).getLocations().get(0));
+        assertEquals(ContainersImageKey.of("nginx", "latest", "sha256:abc123"), references.get(1).getKey());
+        assertEquals(3, references.get(1).getLocations().get(0).getLine());
+    }
+
+    @Test
+    void testParseCompose() {
+        String compose = "services:\n  web:\n    image: \"registry:5000/team/web:2.1\"\n  db:\n    image: postgres # pinned later\n";
+        List<ContainersImageReference> references = ContainersImageReferenceParser.parse("docker-compose.yml", compose);
+        assertNotNull(references);
+        assertEquals(2, references.size());
+        assertEquals(ContainersImageKey.of("registry:5000/team/web", "2.1", null), references.get(0).getKey());
+        assertEquals(ContainersImageKey.of("postgres", null, null), references.get(1).getKey());
+    }
+
+    @Test
+    void testParseRejectsVariablesAndUnknownFiles() {
+        assertNull(ContainersImageReferenceParser.parse("Dockerfile", "ARG V=1\nFROM node:${V}\n"));
+        assertNull(ContainersImageReferenceParser.parse("compose.yaml", "services:\n  a:\n    image: $IMAGE\n"));
+        assertNull(ContainersImageReferenceParser.parse("values.yaml", "image: nginx\n"));
+    }
+
+    @Test
+    void testKeyOfImageSplitsTagFromName() {
+        ContainersRealtimeImage image = image("nginx:1.25", null);
+        assertEquals(ContainersImageKey.of("nginx", "1.25", null), ContainersImageKey.of(image));
+    }
+
+    @Test
+    void testAnswerRequiresEveryImage() {
+        ContainersRealtimeCache cache = new ContainersRealtimeCache(Duration.ofMinutes(5));
+        List<ContainersImageReference> references = ContainersImageReferenceParser.parse("Dockerfile", DOCKERFILE);
+        cache.store(Collections.emptyList(), new ContainersRealtimeResults(Collections.singletonList(image("golang", "1.22"))));
+
+        assertNull(cache.answer("/repo/Dockerfile", references));
+
+        cache.store(references, new ContainersRealtimeResults(Collections.singletonList(image("nginx", "latest"))));
+        ContainersRealtimeResults answer = cache.answer("/repo/Dockerfile", references);
+
+        assertNotNull(answer);
+        assertEquals(2, answer.getImages().size());
+        for (ContainersRealtimeImage image : answer.getImages()) {
+            assertEquals("/repo/Dockerfile", image.getFilePath());
+        }
+        assertEquals(references.get(1).getLocations(), answer.getImages().get(1).getLocations());
+    }
+
+    @Test
+    void testEntriesExpireAndInvalidate() {
+        AtomicLong now = new AtomicLong(0);
+        ContainersRealtimeCache cache = new ContainersRealtimeCache(Duration.ofSeconds(1), now::get);
+        cache.store(Collections.emptyList(), new ContainersRealtimeResults(Arrays.asList(image("redis", "7"), image("nginx", "1"))));
+        cache.invalidate(ContainersImageKey.of("redis", "7", null));
+        assertNull(cache.lookup(ContainersImageKey.of("redis", "7", null)));
+        assertNotNull(cache.lookup(ContainersImageKey.of("nginx", "1", null)));
+        now.set(1000);
+        assertNull(cache.lookup(ContainersImageKey.of("nginx", "1", null)));
+    }
+
+    @Test
+    void testLeastRecentlyUsedImagesAreEvictedBeyondTheBound() {
+        ContainersRealtimeCache cache = new ContainersRealtimeCache(Duration.ofMinutes(5), 2, () -> 0L);
+        cache.store(Collections.emptyList(), new ContainersRealtimeResults(Arrays.asList(image("redis", "7"), image("nginx", "1"))));
+        assertNotNull(cache.lookup(ContainersImageKey.of("redis", "7", null)));
+
+        cache.store(Collections.emptyList(), new ContainersRealtimeResults(Collections.singletonList(image("golang", "1.22"))));
+
+        assertNotNull(cache.lookup(ContainersImageKey.of("redis", "7", null)));
+        assertNull(cache.lookup(ContainersImageKey.of("nginx", "1", null)));
+        assertNotNull(cache.lookup(ContainersImageKey.of("golang", "1.22", null)));
+    }
+
+    private static ContainersRealtimeImage image(String name, String tag) {
+        return new ContainersRealtimeImage(name, tag, "/scanned/Dockerfile",
+                Collections.singletonList(new RealtimeLocation(0, 0, 1)), "Vulnerable",
+                Collections.singletonList(new ContainersRealtimeVulnerability("CVE-2024-1", "High")));
+    }
+}
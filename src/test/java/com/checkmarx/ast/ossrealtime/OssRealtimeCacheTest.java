@@ -0,0 +1,313 @@
+package com.checkmarx.ast.ossrealtime;
+
+import com.checkmarx.ast.realtime.RealtimeLocation;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OssRealtimeCacheTest {
+
+    private static final String PACKAGE_JSON = "{\n" +
+            "  \"name\": \"demo\",\n" +
+            "  \"dependencies\": {\n" +
+            "    \"lodash\": \"4.17.15\",\n" +
+            "    \"express\": \"^4.18.0\"\n" +
+            "  },\n" +
+            "  \"devDependencies\": {\n" +
+            "    \"jest\": \"29.0.0\"\n" +
+            "  }\n" +
+            "}\n";
+
+    @Test
+    void testParsePackageJsonReadsAllSectionsWithLocations() {
+        List<OssManifestDependency> dependencies = OssManifestParser.parse("package.json", PACKAGE_JSON);
+        assertNotNull(dependencies);
+        assertEquals(3, dependencies.size());
+        OssManifestDependency lodash = dependencies.get(0);
+        assertEquals(OssPackageKey.of("npm", "lodash", "4.17.15"), lodash.getKey());
+        assertEquals(new RealtimeLocation(3, 4, 23), lodash.getLocations().get(0));
+        assertEquals("^4.18.0", dependencies.get(1).getVersionSpec());
+        assertEquals(7, dependencies.get(2).getLocations().get(0).getLine());
+    }
+
+    @Test
+    void testParsePackageJsonRejectsInlineLayout() {
+        assertNull(OssManifestParser.parse("package.json", "{\"dependencies\": {\"lodash\": \"4.17.15\"}}"));
+        assertNull(OssManifestParser.parse("package.json", "{not json"));
+    }
+
+    @Test
+    void testParseRequirements() {
+        String content = "# pinned\nrequests==2.31.0\nDjango_REST[extra]>=3.0 ; python_version > '3'\n\n";
+        List<OssManifestDependency> dependencies = OssManifestParser.parse("requirements.txt", content);
+        assertNotNull(dependencies);
+        assertEquals(2, dependencies.size());
+        assertEquals(OssPackageKey.of("pip", "requests", "2.31.0"), dependencies.get(0).getKey());
+        assertEquals(1, dependencies.get(0).getLocations().get(0).getLine());
+        assertEquals("django-rest", dependencies.get(1).getKey().getPackageName());
+        assertEquals("[extra]>=3.0; python_version > '3'", dependencies.get(1).getVersionSpec());
+    }
+
+    @Test
+    void testParseRequirementsRejectsIncludes() {
+        assertNull(OssManifestParser.parse("requirements.txt", "-r base.txt\nrequests==2.31.0\n"));
+        assertNull(OssManifestParser.parse("pom.xml", "<project/>"));
+    }
+
+    private static final String POM_XML = "<project xmlns=\"http://maven.apache.org/POM/4.0.0\">\n" +
+            "  <properties>\n" +
+            "    <jackson.version>2.15.2</jackson.version>\n" +
+            "  </properties>\n" +
+            "  <dependencies>\n" +
+            "    <dependency>\n" +
+            "      <groupId>com.fasterxml.jackson.core</groupId>\n" +
+            "      <artifactId>jackson-databind</artifactId>\n" +
+            "      <version>${jackson.version}</version>\n" +
+            "    </dependency>\n" +
+            "    <dependency>\n" +
+            "      <groupId>org.apache.commons</groupId>\n" +
+            "      <artifactId>commons-lang3</artifactId>\n" +
+            "      <version>3.12.0</version>\n" +
+            "      <exclusions>\n" +
+            "        <exclusion><groupId>x</groupId><artifactId>y</artifactId></exclusion>\n" +
+            "      </exclusions>\n" +
+            "    </dependency>\n" +
+            "  </dependencies>\n" +
+            "  <build><plugins><plugin><dependencies><dependency>\n" +
+            "    <groupId>p</groupId><artifactId>q</artifactId>\n" +
+            "  </dependency></dependencies></plugin></plugins></build>\n" +
+            "</project>\n";
+
+    @Test
+    void testParsePomResolvesPropertiesAndSkipsPluginDependencies() {
+        List<OssManifestDependency> dependencies = OssManifestParser.parse("pom.xml", POM_XML);
+        assertNotNull(dependencies);
+        assertEquals(2, dependencies.size());
+        assertEquals(OssPackageKey.of("mvn", "com.fasterxml.jackson.core:jackson-databind", "2.15.2"),
+                dependencies.get(0).getKey());
+        assertEquals(new RealtimeLocation(5, 4, 16), dependencies.get(0).getLocations().get(0));
+        assertEquals("3.12.0", dependencies.get(1).getVersionSpec());
+        assertEquals(10, dependencies.get(1).getLocations().get(0).getLine());
+    }
+
+    @Test
+    void testParsePomRejectsManagedOrUnresolvedVersions() {
+        String managed = "<project><dependencies><dependency>" +
+                "<groupId>a</groupId><artifactId>b</artifactId></dependency></dependencies></project>";
+        String unresolved = "<project><dependencies><dependency><groupId>a</groupId><artifactId>b</artifactId>" +
+                "<version>${project.version}</version></dependency></dependencies></project>";
+        assertNull(OssManifestParser.parse("pom.xml", managed));
+        assertNull(OssManifestParser.parse("pom.xml", unresolved));
+        assertNull(OssManifestParser.parse("pom.xml", "<project><dependencies>"));
+    }
+
+    @Test
+    void testWriteReducedPom(@TempDir Path dir) throws Exception {
+        List<OssManifestDependency> dependencies = OssManifestParser.parse("pom.xml", POM_XML);
+        Path reduced = OssManifestParser.writeReducedManifest(dir, "pom.xml", dependencies.subList(1, 2));
+        List<OssManifestDependency> reparsed = OssManifestParser.parse(reduced);
+        assertNotNull(reparsed);
+        assertEquals(1, reparsed.size());
+        assertEquals(dependencies.get(1).getKey(), reparsed.get(0).getKey());
+    }
+
+    @Test
+    void testDiffAgainstPreviousScanOfSameFile() {
+        OssRealtimeCache cache = new OssRealtimeCache(Duration.ofMinutes(5));
+        List<OssManifestDependency> before = OssManifestParser.parse("package.json", PACKAGE_JSON);
+        OssRealtimeCache.Partition first = cache.partition("/repo/package.json", before);
+        assertEquals(3, first.getDiff().getAdded().size());
+        assertEquals(3, cache.partition("/repo/package.json", before).getDiff().getAdded().size());
+        cache.remember("/repo/package.json", first, before, Collections.emptyMap());
+
+        String edited = PACKAGE_JSON.replace("\"lodash\": \"4.17.15\"", "\"lodash\": \"4.17.21\"")
+                .replace("\"jest\": \"29.0.0\"", "\"vitest\": \"1.0.0\"");
+        List<OssManifestDependency> after = OssManifestParser.parse("package.json", edited);
+        OssRealtimeCache.Partition second = cache.partition("/repo/package.json", after);
+        OssManifestDiff diff = second.getDiff();
+
+        assertEquals(1, diff.getUnchanged());
+        assertEquals("4.17.21", diff.getChanged().get(0).getKey().getPackageVersion());
+        assertEquals("vitest", diff.getAdded().get(0).getKey().getPackageName());
+        assertEquals(Collections.singletonList(OssPackageKey.of("npm", "jest", "29.0.0")), diff.getRemoved());
+        assertEquals(2, second.getMissing().size());
+        cache.remember("/repo/package.json", second, second.getMissing(), Collections.emptyMap());
+        assertTrue(cache.diff("/repo/package.json", after).isEmpty());
+        assertEquals(3, cache.diff("/other/package.json", before).getAdded().size());
+    }
+
+    @Test
+    void testUnchangedDeclarationsReuseTheLastScanOfTheFile() {
+        AtomicLong now = new AtomicLong(1000);
+        OssRealtimeCache cache = new OssRealtimeCache(Duration.ofSeconds(10), now::get);
+        List<OssManifestDependency> dependencies = OssManifestParser.parse("package.json", PACKAGE_JSON);
+        OssRealtimeScanPackage lodash = scanPackage("lodash", "4.17.15", "/tmp/package.json");
+        OssRealtimeCache.Partition first = cache.partition("/repo/package.json", dependencies);
+        Map<OssRealtimeScanPackage, OssManifestDependency> paired =
+                cache.store(dependencies, new OssRealtimeResults(Collections.singletonList(lodash)));
+        cache.remember("/repo/package.json", first, dependencies, paired);
+        cache.invalidate(OssPackageKey.of("npm", "lodash", "4.17.15"));
+
+        OssRealtimeCache.Partition second = cache.partition("/repo/package.json", dependencies);
+
+        assertTrue(second.getMissing().isEmpty());
+        assertEquals(1, second.getCached().size());
+        assertEquals("/repo/package.json", second.getCached().get(dependencies.get(0)).getFilePath());
+
+        now.addAndGet(10_000);
+        assertEquals(3, cache.partition("/repo/package.json", dependencies).getMissing().size());
+    }
+
+    @Test
+    void testLastScanInAnotherContextIsNotReused() {
+        OssRealtimeCache cache = new OssRealtimeCache(Duration.ofMinutes(5));
+        List<OssManifestDependency> dependencies = OssManifestParser.parse("package.json", PACKAGE_JSON);
+        OssRealtimeCache.Partition first = cache.partition("/repo/package.json", "ignored.json:abc", dependencies);
+        cache.remember("/repo/package.json", first, dependencies, Collections.emptyMap());
+
+        assertTrue(cache.partition("/repo/package.json", "ignored.json:abc", dependencies).getMissing().isEmpty());
+        OssRealtimeCache.Partition other = cache.partition("/repo/package.json", "ignored.json:def", dependencies);
+        assertEquals(3, other.getMissing().size());
+        assertTrue(other.getDiff().isEmpty());
+    }
+
+    @Test
+    void testWriteReducedManifest(@TempDir Path dir) throws Exception {
+        List<OssManifestDependency> dependencies = OssManifestParser.parse("package.json", PACKAGE_JSON);
+        Path reduced = OssManifestParser.writeReducedManifest(dir, "package.json", dependencies.subList(1, 2));
+        assertEquals("package.json", reduced.getFileName().toString());
+        List<OssManifestDependency> reparsed = OssManifestParser.parse(reduced);
+        assertNotNull(reparsed);
+        assertEquals(1, reparsed.size());
+        assertEquals(dependencies.get(1).getKey(), reparsed.get(0).getKey());
+    }
+
+    @Test
+    void testPartitionRelocatesCachedPackages() {
+        OssRealtimeCache cache = new OssRealtimeCache(Duration.ofMinutes(5));
+        List<OssManifestDependency> dependencies = OssManifestParser.parse("package.json", PACKAGE_JSON);
+        OssRealtimeScanPackage lodash = scanPackage("lodash", "4.17.15", "/other/package.json");
+        cache.store(Collections.emptyList(), new OssRealtimeResults(Collections.singletonList(lodash)));
+
+        OssRealtimeCache.Partition partition = cache.partition("/repo/package.json", dependencies);
+
+        assertEquals(2, partition.getMissing().size());
+        OssRealtimeScanPackage cached = partition.getCached().get(dependencies.get(0));
+        assertEquals("/repo/package.json", cached.getFilePath());
+        assertEquals(dependencies.get(0).getLocations(), cached.getLocations());
+        assertEquals("Malicious", cached.getStatus());
+    }
+
+    @Test
+    void testStoreRegistersDeclaredVersion() {
+        OssRealtimeCache cache = new OssRealtimeCache(Duration.ofMinutes(5));
+        OssManifestDependency express = OssManifestParser.parse("package.json", PACKAGE_JSON).get(1);
+        OssRealtimeScanPackage resolved = scanPackage("express", "4.18.2", "/tmp/package.json");
+
+        Map<OssRealtimeScanPackage, OssManifestDependency> paired =
+                cache.store(Collections.singletonList(express), new OssRealtimeResults(Collections.singletonList(resolved)));
+
+        assertSame(express, paired.get(resolved));
+        assertSame(resolved, cache.lookup(express));
+        assertSame(resolved, cache.lookup(OssPackageKey.of("npm", "express", "4.18.2")));
+    }
+
+    @Test
+    void testStorePairsDuplicateNamesByVersion() {
+        OssRealtimeCache cache = new OssRealtimeCache(Duration.ofMinutes(5));
+        List<OssManifestDependency> dependencies = OssManifestParser.parse("package.json", "{\n" +
+                "  \"dependencies\": {\n" +
+                "    \"lodash\": \"4.17.15\"\n" +
+                "  },\n" +
+                "  \"devDependencies\": {\n" +
+                "    \"lodash\": \"4.17.21\",\n" +
+                "    \"express\": \"^4.18.0\"\n" +
+                "  }\n" +
+                "}\n");
+        assertNotNull(dependencies);
+        OssRealtimeScanPackage old = scanPackage("lodash", "4.17.15", "/tmp/package.json");
+        OssRealtimeScanPackage fixed = scanPackage("lodash", "4.17.21", "/tmp/package.json");
+        OssRealtimeScanPackage express = scanPackage("express", "4.18.2", "/tmp/package.json");
+
+        Map<OssRealtimeScanPackage, OssManifestDependency> paired =
+                cache.store(dependencies, new OssRealtimeResults(Arrays.asList(fixed, old, express)));
+
+        assertSame(dependencies.get(0), paired.get(old));
+        assertSame(dependencies.get(1), paired.get(fixed));
+        assertSame(dependencies.get(2), paired.get(express));
+        assertSame(old, cache.lookup(dependencies.get(0)));
+        assertSame(fixed, cache.lookup(dependencies.get(1)));
+
+        List<OssManifestDependency> ranges = OssManifestParser.parse("package.json", "{\n" +
+                "  \"dependencies\": {\n" +
+                "    \"lodash\": \"^4.17.0\"\n" +
+                "  },\n" +
+                "  \"devDependencies\": {\n" +
+                "    \"lodash\": \"~4.17.1\"\n" +
+                "  }\n" +
+                "}\n");
+        assertNotNull(ranges);
+        OssRealtimeScanPackage resolved = scanPackage("lodash", "4.17.22", "/tmp/package.json");
+        OssRealtimeCache other = new OssRealtimeCache(Duration.ofMinutes(5));
+        Map<OssRealtimeScanPackage, OssManifestDependency> ambiguous = other.store(
+                ranges, new OssRealtimeResults(Collections.singletonList(resolved)));
+        assertNull(ambiguous.get(resolved));
+        assertNull(other.lookup(ranges.get(0)));
+    }
+
+    @Test
+    void testEntriesExpire() {
+        AtomicLong now = new AtomicLong(1000);
+        OssRealtimeCache cache = new OssRealtimeCache(Duration.ofSeconds(10), now::get);
+        cache.store(Collections.emptyList(),
+                new OssRealtimeResults(Collections.singletonList(scanPackage("lodash", "4.17.15", "/a"))));
+        assertNotNull(cache.lookup(OssPackageKey.of("npm", "lodash", "4.17.15")));
+        now.addAndGet(10_000);
+        assertNull(cache.lookup(OssPackageKey.of("npm", "lodash", "4.17.15")));
+    }
+
+    @Test
+    void testLeastRecentlyUsedPackagesAreEvictedBeyondTheBound() {
+        OssRealtimeCache cache = new OssRealtimeCache(Duration.ofMinutes(5), 2, () -> 1000L);
+        cache.store(Collections.emptyList(), new OssRealtimeResults(Arrays.asList(
+                scanPackage("lodash", "4.17.15", "/a"), scanPackage("express", "4.18.2", "/a"))));
+        assertNotNull(cache.lookup(OssPackageKey.of("npm", "lodash", "4.17.15")));
+
+        cache.store(Collections.emptyList(),
+                new OssRealtimeResults(Collections.singletonList(scanPackage("jest", "29.0.0", "/b"))));
+
+        assertEquals(2, cache.size());
+        assertNotNull(cache.lookup(OssPackageKey.of("npm", "lodash", "4.17.15")));
+        assertNull(cache.lookup(OssPackageKey.of("npm", "express", "4.18.2")));
+    }
+
+    @Test
+    void testIgnoredPackages(@TempDir Path dir) throws Exception {
+        Path ignoredFile = dir.resolve("ignored.json");
+        Files.write(ignoredFile, "[{\"name\": \"lodash\", \"version\": \"*\"}]".getBytes(StandardCharsets.UTF_8));
+        OssIgnoredPackages ignored = OssIgnoredPackages.load(ignoredFile);
+        assertNotNull(ignored);
+        assertTrue(ignored.isIgnored(scanPackage("lodash", "1.0.0", "/a")));
+        assertFalse(ignored.isIgnored(scanPackage("express", "1.0.0", "/a")));
+
+        Files.write(ignoredFile, "{\"unexpected\": true}".getBytes(StandardCharsets.UTF_8));
+        assertNull(OssIgnoredPackages.load(ignoredFile));
+    }
+
+    private static OssRealtimeScanPackage scanPackage(String name, String version, String filePath) {
+        return new OssRealtimeScanPackage("npm", name, version, filePath,
+                Collections.singletonList(new RealtimeLocation(0, 0, 1)), "Malicious",
+                Arrays.asList(new OssRealtimeVulnerability("CVE-1", "High", "desc", "9.9.9")));
+    }
+}
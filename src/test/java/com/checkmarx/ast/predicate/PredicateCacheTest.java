@@ -0,0 +1,72 @@
+package com.checkmarx.ast.predicate;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PredicateCacheTest {
+
+    private static final UUID PROJECT_ID = UUID.fromString("3f6a5b2c-1d4e-4f8a-9c0b-7e2d1a3f5c8e");
+
+    @Test
+    void testIdsAreOrderInsensitive() {
+        PredicateCache cache = new PredicateCache(Duration.ofMinutes(1));
+        List<Predicate> predicates = Collections.singletonList(predicate("sim-1"));
+        cache.put(PROJECT_ID, "b, a", "SCA", predicates);
+
+        assertEquals(predicates, cache.get(PROJECT_ID, "a,b", "sca"));
+        assertNull(cache.get(PROJECT_ID, "a", "sca"));
+        assertNull(cache.get(UUID.randomUUID(), "a,b", "sca"));
+    }
+
+    @Test
+    void testInvalidateDropsOverlappingEntriesOnly() {
+        PredicateCache cache = new PredicateCache(Duration.ofMinutes(1));
+        cache.put(PROJECT_ID, "a,b", "sca", Collections.emptyList());
+        cache.put(PROJECT_ID, "c", "sca", Collections.emptyList());
+        cache.put(PROJECT_ID, "b", "sast", Collections.emptyList());
+
+        cache.invalidate(PROJECT_ID, "b", "sca");
+
+        assertNull(cache.get(PROJECT_ID, "a,b", "sca"));
+        assertNotNull(cache.get(PROJECT_ID, "c", "sca"));
+        assertNotNull(cache.get(PROJECT_ID, "b", "sast"));
+    }
+
+    @Test
+    void testStatesExpire() {
+        AtomicLong now = new AtomicLong();
+        PredicateCache cache = new PredicateCache(Duration.ofSeconds(30), now::get);
+        cache.putStates(true, Collections.singletonList(new CustomState(1, "Confirmed", "System")));
+
+        assertEquals(1, cache.getStates(true).size());
+        assertNull(cache.getStates(false));
+        now.set(30_000);
+        assertNull(cache.getStates(true));
+    }
+
+    @Test
+    void testLeastRecentlyUsedPredicatesAreEvictedBeyondTheBound() {
+        PredicateCache cache = new PredicateCache(Duration.ofMinutes(1), 2, () -> 0L);
+        cache.put(PROJECT_ID, "a", "sast", Collections.emptyList());
+        cache.put(PROJECT_ID, "b", "sast", Collections.emptyList());
+        assertNotNull(cache.get(PROJECT_ID, "a", "sast"));
+
+        cache.put(PROJECT_ID, "c", "sast", Collections.emptyList());
+
+        assertNotNull(cache.get(PROJECT_ID, "a", "sast"));
+        assertNull(cache.get(PROJECT_ID, "b", "sast"));
+        assertNotNull(cache.get(PROJECT_ID, "c", "sast"));
+    }
+
+    private static Predicate predicate(String similarityId) {
+        return new Predicate("id", similarityId, PROJECT_ID.toString(), "TO_VERIFY", "HIGH", "comment",
+                "user", "2024-01-01", "2024-01-01", null);
+    }
+}
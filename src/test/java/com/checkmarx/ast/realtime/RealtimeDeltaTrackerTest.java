@@ -0,0 +1,138 @@
+package com.checkmarx.ast.realtime;
+
+import com.checkmarx.ast.asca.ScanDetail;
+import com.checkmarx.ast.asca.ScanResult;
+import com.checkmarx.ast.iacrealtime.IacRealtimeResults;
+import com.checkmarx.ast.ossrealtime.OssRealtimeResults;
+import com.checkmarx.ast.ossrealtime.OssRealtimeScanPackage;
+import com.checkmarx.ast.secretsrealtime.SecretsRealtimeResults;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RealtimeDeltaTrackerTest {
+
+    private static final String FILE = "/repo/main.tf";
+
+    @Test
+    void testFirstScanReportsEverythingAsAdded() {
+        RealtimeDelta delta = new RealtimeDeltaTracker().update(RealtimeIssues.IAC, FILE,
+                RealtimeIssues.of(iac(issue("SIM-1", "High", 3), issue("SIM-2", "Low", 8))));
+
+        assertEquals(2, delta.getAdded().size());
+        assertTrue(delta.getRemoved().isEmpty());
+        assertFalse(delta.isEmpty());
+    }
+
+    @Test
+    void testLeastRecentlyScannedFilesAreForgottenBeyondTheBound() {
+        RealtimeDeltaTracker tracker = new RealtimeDeltaTracker(2);
+        List<RealtimeIssue> issues = RealtimeIssues.of(iac(issue("SIM-1", "High", 3)));
+        tracker.update(RealtimeIssues.IAC, "/repo/a.tf", issues);
+        tracker.update(RealtimeIssues.IAC, "/repo/b.tf", issues);
+        tracker.getIssues(RealtimeIssues.IAC, "/repo/a.tf");
+        tracker.update(RealtimeIssues.IAC, "/repo/c.tf", issues);
+
+        assertEquals(1, tracker.getIssues(RealtimeIssues.IAC, "/repo/a.tf").size());
+        assertTrue(tracker.getIssues(RealtimeIssues.IAC, "/repo/b.tf").isEmpty());
+        assertEquals(1, tracker.update(RealtimeIssues.IAC, "/repo/b.tf", issues).getAdded().size());
+    }
+
+    @Test
+    void testDeltaClassifiesAddedRemovedMovedChangedAndUnchanged() {
+        RealtimeDeltaTracker tracker = new RealtimeDeltaTracker();
+        tracker.update(RealtimeIssues.IAC, FILE, RealtimeIssues.of(iac(
+                issue("SIM-1", "High", 3), issue("SIM-2", "Low", 8), issue("SIM-3", "Low", 12),
+                issue("SIM-4", "Low", 20))));
+
+        RealtimeDelta delta = tracker.update(RealtimeIssues.IAC, FILE, RealtimeIssues.of(iac(
+                issue("SIM-1", "High", 3), issue("SIM-2", "Low", 10), issue("SIM-3", "High", 12),
+                issue("SIM-5", "Medium", 30))));
+
+        assertEquals(Collections.singletonList("SIM-5"), ids(delta.getAdded()));
+        assertEquals(Collections.singletonList("SIM-4"), ids(delta.getRemoved()));
+        assertEquals(Collections.singletonList("SIM-2"), ids(delta.getMoved()));
+        assertEquals(10, delta.getMoved().get(0).getLocations().get(0).getLine());
+        assertEquals(Collections.singletonList("SIM-3"), ids(delta.getChanged()));
+        assertEquals(Collections.singletonList("SIM-1"), ids(delta.getUnchanged()));
+
+        RealtimeDelta again = tracker.update(RealtimeIssues.IAC, FILE, tracker.getIssues(RealtimeIssues.IAC, FILE));
+        assertTrue(again.isEmpty());
+        assertEquals(4, again.getUnchanged().size());
+    }
+
+    @Test
+    void testIdsWithoutSimilarityIdIgnoreLocationsAndNumberRepeats() {
+        List<RealtimeIssue> before = RealtimeIssues.of(secrets(secret("abc", 2), secret("abc", 9)));
+        List<RealtimeIssue> after = RealtimeIssues.of(secrets(secret("abc", 12), secret("abc", 5)));
+
+        assertNotEquals(before.get(0).getId(), before.get(1).getId());
+        assertTrue(before.get(1).getId().endsWith("#2"));
+        assertEquals(before.get(0).getId(), after.get(1).getId());
+        assertEquals(before.get(1).getId(), after.get(0).getId());
+        assertNotEquals(before.get(0).getId(), RealtimeIssues.of(secrets(secret("xyz", 2))).get(0).getId());
+
+        RealtimeDeltaTracker tracker = new RealtimeDeltaTracker();
+        tracker.update(RealtimeIssues.SECRETS, FILE, before);
+        assertEquals(2, tracker.update(RealtimeIssues.SECRETS, FILE, after).getMoved().size());
+    }
+
+    @Test
+    void testFilesAndEnginesAreTrackedSeparately() {
+        RealtimeDeltaTracker tracker = new RealtimeDeltaTracker();
+        List<RealtimeIssue> issues = RealtimeIssues.of(iac(issue("SIM-1", "High", 3)));
+        tracker.update(RealtimeIssues.IAC, FILE, issues);
+
+        assertEquals(1, tracker.update(RealtimeIssues.IAC, "/repo/other.tf", issues).getAdded().size());
+        assertEquals(1, tracker.update(RealtimeIssues.ASCA, FILE, issues).getAdded().size());
+        tracker.forget(RealtimeIssues.IAC, FILE);
+        assertEquals(1, tracker.update(RealtimeIssues.IAC, FILE, issues).getAdded().size());
+    }
+
+    @Test
+    void testOtherEnginesConvertToIssues() {
+        OssRealtimeScanPackage lodash = new OssRealtimeScanPackage("npm", "lodash", "4.17.15", "/repo/package.json",
+                Collections.singletonList(new RealtimeLocation(4, 4, 23)), "Malicious", Collections.emptyList());
+        RealtimeIssue oss = RealtimeIssues.of(new OssRealtimeResults(Collections.singletonList(lodash))).get(0);
+        assertEquals("npm:lodash:4.17.15", oss.getId());
+        assertEquals("Malicious", oss.getSeverity());
+        assertSame(lodash, oss.getDetails());
+
+        ScanDetail detail = new ScanDetail(7, "java", "Weak hash", "Medium", "/repo/A.java", 15,
+                "  md5(x);", 6, "use sha256", "weak");
+        ScanResult asca = new ScanResult("r", true, "", Collections.singletonList(detail), null);
+        RealtimeIssue ascaIssue = RealtimeIssues.of(asca).get(0);
+        assertEquals(new RealtimeLocation(14, 0, 9), ascaIssue.getLocations().get(0));
+        assertEquals("Weak hash", ascaIssue.getTitle());
+    }
+
+    private static IacRealtimeResults iac(IacRealtimeResults.Issue... issues) {
+        return new IacRealtimeResults(Arrays.asList(issues));
+    }
+
+    private static IacRealtimeResults.Issue issue(String similarityId, String severity, int line) {
+        return new IacRealtimeResults.Issue("Title " + similarityId, "desc", similarityId, FILE, severity,
+                "expected", "actual", Collections.singletonList(new RealtimeLocation(line, 0, 5)));
+    }
+
+    private static SecretsRealtimeResults secrets(SecretsRealtimeResults.Secret... secrets) {
+        return new SecretsRealtimeResults(Arrays.asList(secrets));
+    }
+
+    private static SecretsRealtimeResults.Secret secret(String value, int line) {
+        return new SecretsRealtimeResults.Secret("Generic", "d", value, FILE, "High",
+                Collections.singletonList(new RealtimeLocation(line, 0, 5)));
+    }
+
+    private static List<String> ids(List<RealtimeIssue> issues) {
+        String[] ids = new String[issues.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = issues.get(i).getId();
+        }
+        return Arrays.asList(ids);
+    }
+}
@@ -0,0 +1,138 @@
+package com.checkmarx.ast.realtime;
+
+import com.checkmarx.ast.ossrealtime.OssRealtimeResults;
+import com.checkmarx.ast.ossrealtime.OssRealtimeScanPackage;
+import com.checkmarx.ast.ossrealtime.OssRealtimeVulnerability;
+import org.apache.commons.lang3.StringUtils;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RealtimeFindingsStoreTest {
+
+    @Test
+    void testCountsFollowReplacedAndRemovedResults() {
+        RealtimeFindingsStore store = new RealtimeFindingsStore();
+        store.put("/a.tf", RealtimeIssues.IAC, Arrays.asList(issue("/a.tf", "High", 1), issue("/a.tf", "low", 2)));
+        store.put("/a.tf", RealtimeIssues.SECRETS, Collections.singletonList(issue("/a.tf", "HIGH", 3)));
+        store.put("/b.tf", RealtimeIssues.IAC, Collections.singletonList(issue("/b.tf", null, 1)));
+
+        assertEquals(counts("HIGH", 2, "LOW", 1, "UNKNOWN", 1), store.getSeverityCounts());
+        assertEquals(counts("HIGH", 2, "LOW", 1), store.getSeverityCounts("/a.tf"));
+        assertEquals(3, store.getIssues("/a.tf").size());
+
+        store.put("/a.tf", RealtimeIssues.IAC, Collections.singletonList(issue("/a.tf", "Medium", 1)));
+        assertEquals(counts("HIGH", 1, "MEDIUM", 1, "UNKNOWN", 1), store.getSeverityCounts());
+
+        store.remove("/b.tf");
+        assertEquals(counts("HIGH", 1, "MEDIUM", 1), store.getSeverityCounts());
+        assertEquals(2, store.getIssueCount());
+        assertEquals(1, store.getLocationIndex().at("/a.tf", 3).size());
+    }
+
+    @Test
+    void testLeastRecentlyUsedClosedFilesAreEvictedKeepingCounts() {
+        long fileBytes = bytesOf(issues("/f0", 10));
+        RealtimeFindingsStore store = new RealtimeFindingsStore(fileBytes * 3);
+        store.open("/f0");
+        for (int i = 0; i < 6; i++) {
+            store.put("/f" + i, RealtimeIssues.SECRETS, issues("/f" + i, 10));
+            store.getIssues("/f0");
+        }
+
+        assertTrue(store.getEstimatedBytes() <= fileBytes * 3);
+        assertNotNull(store.getIssues("/f0", RealtimeIssues.SECRETS));
+        assertNull(store.getIssues("/f1", RealtimeIssues.SECRETS));
+        assertTrue(store.isEvicted("/f1"));
+        assertFalse(store.isEvicted("/f5"));
+        assertTrue(store.getLocationIndex().at("/f1", 0).isEmpty());
+        assertEquals(60, store.getIssueCount());
+        assertEquals(counts("HIGH", 10), store.getSeverityCounts("/f1"));
+        assertEquals(3, store.getEvictions());
+
+        store.put("/f1", RealtimeIssues.SECRETS, issues("/f1", 10));
+        assertEquals(60, store.getIssueCount());
+        assertFalse(store.isEvicted("/f1"));
+    }
+
+    @Test
+    void testClosingAFileMakesItEvictable() {
+        long fileBytes = bytesOf(issues("/a", 10));
+        RealtimeFindingsStore store = new RealtimeFindingsStore(fileBytes);
+        store.open("/a");
+        store.open("/b");
+        store.put("/a", RealtimeIssues.SECRETS, issues("/a", 10));
+        store.put("/b", RealtimeIssues.SECRETS, issues("/b", 10));
+        assertFalse(store.isEvicted("/a"));
+
+        store.close("/a");
+        assertTrue(store.isEvicted("/a"));
+        assertFalse(store.isEvicted("/b"));
+    }
+
+    @Test
+    void testEngineDetailsCountTowardsTheBudget() {
+        List<RealtimeIssue> manifest = RealtimeIssues.of(new OssRealtimeResults(Arrays.asList(
+                vulnerablePackage("left-pad", 200), vulnerablePackage("lodash", 200))));
+        long detailsChars = 0;
+        for (RealtimeIssue issue : manifest) {
+            detailsChars += ((OssRealtimeScanPackage) issue.getDetails()).getVulnerabilities().size() * 200L;
+        }
+        long fileBytes = bytesOf(manifest);
+        assertTrue(fileBytes > 2 * detailsChars);
+
+        RealtimeFindingsStore store = new RealtimeFindingsStore(fileBytes * 3);
+        for (int i = 0; i < 3; i++) {
+            store.put("/p" + i + "/package.json", RealtimeIssues.OSS, manifest);
+        }
+        assertEquals(0, store.getEvictions());
+
+        store.put("/p3/package.json", RealtimeIssues.OSS, manifest);
+        assertEquals(1, store.getEvictions());
+        assertTrue(store.isEvicted("/p0/package.json"));
+        assertTrue(store.getEstimatedBytes() <= fileBytes * 3);
+    }
+
+    private static OssRealtimeScanPackage vulnerablePackage(String name, int vulnerabilities) {
+        List<OssRealtimeVulnerability> list = new ArrayList<>();
+        for (int i = 0; i < vulnerabilities; i++) {
+            list.add(new OssRealtimeVulnerability("CVE-2024-" + i, "High", StringUtils.repeat('x', 200), "2.0.0"));
+        }
+        return new OssRealtimeScanPackage("npm", name, "1.0.0", "/package.json",
+                Collections.singletonList(new RealtimeLocation(1, 0, 5)), "Malicious", list);
+    }
+
+    private static long bytesOf(List<RealtimeIssue> issues) {
+        RealtimeFindingsStore probe = new RealtimeFindingsStore();
+        probe.put("/probe", RealtimeIssues.SECRETS, issues);
+        return probe.getEstimatedBytes();
+    }
+
+    private static List<RealtimeIssue> issues(String filePath, int count) {
+        List<RealtimeIssue> issues = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            issues.add(issue(filePath, "High", i));
+        }
+        return issues;
+    }
+
+    private static RealtimeIssue issue(String filePath, String severity, int line) {
+        return new RealtimeIssue(RealtimeIssues.SECRETS, "id-" + line, "Generic", "d", severity, filePath,
+                Collections.singletonList(new RealtimeLocation(line, 0, 5)), null);
+    }
+
+    private static Map<String, Integer> counts(Object... pairs) {
+        Map<String, Integer> counts = new TreeMap<>();
+        for (int i = 0; i < pairs.length; i += 2) {
+            counts.put((String) pairs[i], (Integer) pairs[i + 1]);
+        }
+        return counts;
+    }
+}
@@ -0,0 +1,106 @@
+package com.checkmarx.ast.realtime;
+
+import com.checkmarx.ast.kicsRealtimeResults.KicsRealtimeResults;
+import com.checkmarx.ast.kicsRealtimeResults.ast.kicsRealtimeResult.KicsLocation;
+import com.checkmarx.ast.kicsRealtimeResults.ast.kicsRealtimeResult.KicsResult;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RealtimeLocationIndexTest {
+
+    private static final String FILE = "/repo/main.tf";
+
+    @Test
+    void testPointLineAndRangeQueries() {
+        RealtimeLocationIndex index = new RealtimeLocationIndex();
+        RealtimeIssue first = issue("a", new RealtimeLocation(3, 4, 10));
+        RealtimeIssue second = issue("b", new RealtimeLocation(3, 8, 20), new RealtimeLocation(9, 0, 5));
+        RealtimeIssue third = issue("c", new RealtimeLocation(12, 2, 2));
+        index.update(FILE, RealtimeIssues.IAC, Arrays.asList(third, second, first));
+
+        assertEquals(Arrays.asList(first, second), index.at(FILE, 3));
+        assertEquals(Collections.singletonList(first), index.at(FILE, 3, 4));
+        assertEquals(Arrays.asList(first, second), index.at(FILE, 3, 9));
+        assertEquals(Collections.emptyList(), index.at(FILE, 3, 20));
+        assertEquals(Collections.singletonList(third), index.at(FILE, 12, 2));
+        assertEquals(Arrays.asList(second, third), index.between(FILE, 4, 12));
+        assertEquals(Collections.emptyList(), index.at("/repo/other.tf", 3));
+        assertEquals(4, index.size(FILE));
+    }
+
+    @Test
+    void testEnginesAreUpdatedIndependently() {
+        RealtimeLocationIndex index = new RealtimeLocationIndex();
+        RealtimeIssue iac = issue("iac", new RealtimeLocation(5, 0, 10));
+        RealtimeIssue secret = issue("secret", new RealtimeLocation(5, 2, 6));
+        index.update(FILE, RealtimeIssues.IAC, Collections.singletonList(iac));
+        index.update(FILE, RealtimeIssues.SECRETS, Collections.singletonList(secret));
+        assertEquals(Arrays.asList(iac, secret), index.at(FILE, 5));
+
+        RealtimeIssue moved = issue("iac", new RealtimeLocation(6, 0, 10));
+        index.update(FILE, RealtimeIssues.IAC, Collections.singletonList(moved));
+        assertEquals(Collections.singletonList(secret), index.at(FILE, 5));
+        assertEquals(Collections.singletonList(moved), index.at(FILE, 6));
+
+        index.update(FILE, RealtimeIssues.IAC, Collections.emptyList());
+        index.update(FILE, RealtimeIssues.SECRETS, Collections.emptyList());
+        assertEquals(0, index.size(FILE));
+    }
+
+    @Test
+    void testMatchesBruteForce() {
+        Random random = new Random(42);
+        List<RealtimeIssue> issues = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            int line = random.nextInt(200);
+            int start = random.nextInt(80);
+            issues.add(issue("i" + i, new RealtimeLocation(line, start, start + random.nextInt(40))));
+        }
+        RealtimeLocationIndex index = new RealtimeLocationIndex();
+        index.update(FILE, RealtimeIssues.SECRETS, issues);
+
+        for (int query = 0; query < 300; query++) {
+            int line = random.nextInt(210);
+            int column = random.nextInt(130);
+            Set<RealtimeIssue> expectedPoint = new HashSet<>();
+            Set<RealtimeIssue> expectedLine = new HashSet<>();
+            for (RealtimeIssue issue : issues) {
+                RealtimeLocation location = issue.getLocations().get(0);
+                if (location.getLine() == line) {
+                    expectedLine.add(issue);
+                    int end = Math.max(location.getEndIndex(), location.getStartIndex() + 1);
+                    if (column >= location.getStartIndex() && column < end) {
+                        expectedPoint.add(issue);
+                    }
+                }
+            }
+            assertEquals(expectedPoint, new HashSet<>(index.at(FILE, line, column)));
+            assertEquals(expectedLine, new HashSet<>(index.at(FILE, line)));
+        }
+    }
+
+    @Test
+    void testKicsLocationsSpanWholeLine() {
+        KicsLocation location = new KicsLocation("/repo/main.tf", "SIM-9", 7, "MissingAttribute", "key", 7,
+                "", "expected", "actual");
+        KicsResult result = new KicsResult("S3 Bucket Logging", "q-1", "MEDIUM", "Terraform", "Observability",
+                "desc", Collections.singletonList(location));
+        List<RealtimeIssue> issues = RealtimeIssues.of(new KicsRealtimeResults(1,
+                Collections.singletonList(result), "1.7", null));
+
+        RealtimeLocationIndex index = new RealtimeLocationIndex();
+        index.update(FILE, RealtimeIssues.KICS, issues);
+
+        assertEquals("SIM-9", issues.get(0).getId());
+        assertEquals(issues, index.at(FILE, 6, 500));
+        assertTrue(index.at(FILE, 7).isEmpty());
+    }
+
+    private static RealtimeIssue issue(String id, RealtimeLocation... locations) {
+        return new RealtimeIssue(RealtimeIssues.IAC, id, "Title " + id, null, "High", FILE, Arrays.asList(locations),
+                null);
+    }
+}
@@ -0,0 +1,44 @@
+package com.checkmarx.ast.results;
+
+import com.checkmarx.ast.results.result.Result;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResultsStreamReaderTest {
+
+    @Test
+    void testReadsEveryResultAndTotalCount() throws IOException {
+        String report = "{\"scanId\":\"s\",\"extra\":{\"nested\":[1,2]},\"results\":["
+                + "{\"type\":\"sast\",\"id\":\"1\",\"similarityId\":\"a\",\"severity\":\"HIGH\",\"data\":{\"nodes\":[]}},"
+                + "{\"type\":\"sca\",\"id\":\"2\",\"similarityId\":\"b\"}"
+                + "],\"totalCount\":2}";
+        List<Result> results = new ArrayList<>();
+
+        int totalCount = ResultsStreamReader.read(stream(report), results::add);
+
+        assertEquals(2, totalCount);
+        assertEquals(2, results.size());
+        assertEquals("a", results.get(0).getSimilarityId());
+        assertEquals("HIGH", results.get(0).getSeverity());
+        assertEquals("b", results.get(1).getSimilarityId());
+    }
+
+    @Test
+    void testEmptyReport() throws IOException {
+        List<Result> results = new ArrayList<>();
+        assertEquals(0, ResultsStreamReader.read(stream("{\"totalCount\":0,\"results\":[]}"), results::add));
+        assertTrue(results.isEmpty());
+        assertThrows(IOException.class, () -> ResultsStreamReader.read(stream("[]"), results::add));
+    }
+
+    private static ByteArrayInputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
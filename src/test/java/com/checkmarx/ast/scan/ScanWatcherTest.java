@@ -0,0 +1,206 @@
+package com.checkmarx.ast.scan;
+
+import com.checkmarx.ast.results.Results;
+import com.checkmarx.ast.wrapper.CxException;
+import com.checkmarx.ast.wrapper.CxWrapper;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class ScanWatcherTest {
+
+    private static final UUID FIRST = UUID.fromString("0b8c8a4e-5f0e-4c1a-9d3b-2f7e6a1c4d10");
+    private static final UUID SECOND = UUID.fromString("7d2e4f6a-8b1c-4e3d-a5f7-9c0b1d2e3f40");
+
+    private final AtomicLong now = new AtomicLong();
+    private final CxWrapper wrapper = mock(CxWrapper.class);
+
+    private ScanWatcher watcher(boolean prefetch) {
+        return new ScanWatcher(wrapper, Duration.ofSeconds(5), Duration.ofMinutes(1), prefetch, now::get, false);
+    }
+
+    @Test
+    void testPollsAllScansWithOneCall() throws Exception {
+        when(wrapper.scanList(anyString())).thenReturn(Arrays.asList(
+                scan(FIRST, "Running"), scan(SECOND, "Completed")));
+        try (ScanWatcher watcher = watcher(false)) {
+            List<Scan> notified = new ArrayList<>();
+            watcher.addListener(notified::add);
+            CompletableFuture<Scan> first = watcher.watch(FIRST);
+            CompletableFuture<Scan> second = watcher.watch(SECOND);
+
+            watcher.pollIfDue();
+
+            verify(wrapper, times(1)).scanList(anyString());
+            assertFalse(first.isDone());
+            assertEquals("Completed", second.get().getStatus());
+            assertEquals(1, notified.size());
+            assertEquals(Collections.singleton(FIRST), watcher.pending());
+        }
+    }
+
+    @Test
+    void testFilterListsEveryId() {
+        assertEquals("scan-ids=" + FIRST + ";" + SECOND + ",limit=2",
+                ScanWatcher.filter(Arrays.asList(FIRST, SECOND)));
+    }
+
+    @Test
+    void testBackoffGrowsWithAge() throws Exception {
+        when(wrapper.scanList(anyString())).thenReturn(Collections.singletonList(scan(FIRST, "Running")));
+        try (ScanWatcher watcher = watcher(false)) {
+            assertEquals(5_000, watcher.intervalFor(0));
+            assertEquals(30_000, watcher.intervalFor(300_000));
+            assertEquals(60_000, watcher.intervalFor(3_600_000));
+
+            watcher.watch(FIRST);
+            watcher.pollIfDue();
+            now.addAndGet(4_000);
+            watcher.pollIfDue();
+            verify(wrapper, times(1)).scanList(anyString());
+            now.addAndGet(1_000);
+            watcher.pollIfDue();
+            verify(wrapper, times(2)).scanList(anyString());
+        }
+    }
+
+    @Test
+    void testBackoffCountsFromScanCreation() throws Exception {
+        now.set(Instant.parse("2024-05-01T12:00:00Z").toEpochMilli());
+        when(wrapper.scanList(anyString())).thenReturn(Collections.singletonList(
+                new Scan(FIRST.toString(), null, "Running", "2024-05-01T11:00:00.123456Z", null, null, null, null, null)));
+        try (ScanWatcher watcher = watcher(false)) {
+            watcher.watch(FIRST);
+            watcher.pollIfDue();
+            now.addAndGet(59_000);
+            watcher.pollIfDue();
+            verify(wrapper, times(1)).scanList(anyString());
+            now.addAndGet(1_000);
+            watcher.pollIfDue();
+            verify(wrapper, times(2)).scanList(anyString());
+        }
+        assertEquals(1_000, ScanWatcher.createdAt(scan(FIRST, "Running"), 1_000));
+        assertEquals(1_000, ScanWatcher.createdAt(
+                new Scan(FIRST.toString(), null, "Running", "yesterday", null, null, null, null, null), 1_000));
+    }
+
+    @Test
+    void testFailedPollKeepsScansPending() throws Exception {
+        when(wrapper.scanList(anyString()))
+                .thenThrow(new CxException(1, "unavailable"))
+                .thenReturn(Collections.singletonList(scan(FIRST, "Failed")));
+        try (ScanWatcher watcher = watcher(true)) {
+            CompletableFuture<Scan> first = watcher.watch(FIRST);
+            CompletableFuture<Results> results = watcher.results(FIRST);
+            watcher.pollIfDue();
+            assertFalse(first.isDone());
+
+            now.addAndGet(5_000);
+            watcher.pollIfDue();
+            assertEquals("Failed", first.get().getStatus());
+            assertNull(results.get(5, TimeUnit.SECONDS));
+            verify(wrapper, never()).results(FIRST);
+        }
+    }
+
+    @Test
+    void testPrefetchesResultsOfCompletedScans() throws Exception {
+        Results results = new Results(0, Collections.emptyList(), null);
+        when(wrapper.scanList(anyString())).thenReturn(Collections.singletonList(scan(FIRST, "Completed")));
+        when(wrapper.results(FIRST)).thenReturn(results);
+        try (ScanWatcher watcher = watcher(true)) {
+            watcher.watch(FIRST);
+            CompletableFuture<Results> prefetched = watcher.results(FIRST);
+            watcher.pollIfDue();
+            assertSame(results, prefetched.get(5, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    void testFailingResultsListenerDoesNotFailTheResults() throws Exception {
+        Results results = new Results(0, Collections.emptyList(), null);
+        when(wrapper.scanList(anyString())).thenReturn(Collections.singletonList(scan(FIRST, "Completed")));
+        when(wrapper.results(FIRST)).thenReturn(results);
+        List<Exception> failures = new ArrayList<>();
+        CompletableFuture<Results> delivered = new CompletableFuture<>();
+        try (ScanWatcher watcher = watcher(true)) {
+            watcher.addListener(new ScanWatcher.Listener() {
+                @Override
+                public void onTerminal(Scan scan) {
+                }
+
+                @Override
+                public void onResults(Scan scan, Results received) {
+                    throw new IllegalStateException("listener bug");
+                }
+
+                @Override
+                public void onResultsFailed(Scan scan, Exception e) {
+                    failures.add(e);
+                }
+            });
+            watcher.addListener(new ScanWatcher.Listener() {
+                @Override
+                public void onTerminal(Scan scan) {
+                }
+
+                @Override
+                public void onResults(Scan scan, Results received) {
+                    delivered.complete(received);
+                }
+            });
+            watcher.watch(FIRST);
+            CompletableFuture<Results> prefetched = watcher.results(FIRST);
+            watcher.pollIfDue();
+
+            assertSame(results, prefetched.get(5, TimeUnit.SECONDS));
+            assertSame(results, delivered.get(5, TimeUnit.SECONDS));
+            assertTrue(failures.isEmpty());
+        }
+    }
+
+    @Test
+    void testFinishedScansAreForgotten() throws Exception {
+        Results results = new Results(0, Collections.emptyList(), null);
+        when(wrapper.scanList(anyString())).thenReturn(Collections.singletonList(scan(FIRST, "Completed")));
+        when(wrapper.results(FIRST)).thenReturn(results);
+        try (ScanWatcher watcher = watcher(true)) {
+            CompletableFuture<Scan> first = watcher.watch(FIRST);
+            CompletableFuture<Results> prefetched = watcher.results(FIRST);
+            watcher.pollIfDue();
+            assertSame(results, prefetched.get(5, TimeUnit.SECONDS));
+            assertEquals("Completed", first.get().getStatus());
+
+            long deadline = System.currentTimeMillis() + 5_000;
+            while (watcher.results(FIRST) != null && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            assertNull(watcher.results(FIRST));
+            assertNotSame(first, watcher.watch(FIRST));
+        }
+    }
+
+    @Test
+    void testUnwatchCancelsFuture() {
+        try (ScanWatcher watcher = watcher(false)) {
+            CompletableFuture<Scan> first = watcher.watch(FIRST);
+            assertSame(first, watcher.watch(FIRST));
+            watcher.unwatch(FIRST);
+            assertTrue(first.isCancelled());
+            assertTrue(watcher.pending().isEmpty());
+        }
+    }
+
+    private static Scan scan(UUID id, String status) {
+        return new Scan(id.toString(), null, status, null, null, null, null, null, null);
+    }
+}
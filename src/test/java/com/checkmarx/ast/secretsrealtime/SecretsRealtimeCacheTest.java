@@ -0,0 +1,124 @@
+package com.checkmarx.ast.secretsrealtime;
+
+import com.checkmarx.ast.realtime.RealtimeLocation;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SecretsRealtimeCacheTest {
+
+    private static final String FILE = "/repo/config.yaml";
+
+    @Test
+    void testUnchangedContentNeedsNoScan() {
+        SecretsRealtimeCache cache = new SecretsRealtimeCache(Duration.ofMinutes(5));
+        List<String> lines = numbered(20);
+        cache.store(FILE, "", lines, results(secret(4)));
+
+        SecretsRealtimeCache.Plan plan = cache.plan(FILE, "", numbered(20));
+
+        assertNotNull(plan);
+        assertFalse(plan.isScanNeeded());
+        assertEquals(4, plan.merge(FILE, null).getSecrets().get(0).getLocations().get(0).getLine());
+    }
+
+    @Test
+    void testInsertedLinesAreScannedWithContextAndLaterSecretsShifted() {
+        SecretsRealtimeCache cache = new SecretsRealtimeCache(Duration.ofMinutes(5));
+        cache.store(FILE, "", numbered(40), results(secret(2), secret(12), secret(30)));
+        List<String> edited = new ArrayList<>(numbered(40));
+        edited.add(20, "token: new-1");
+        edited.add(21, "token: new-2");
+
+        SecretsRealtimeCache.Plan plan = cache.plan(FILE, "", edited);
+
+        assertNotNull(plan);
+        assertTrue(plan.isScanNeeded());
+        assertEquals(20 - SecretsRealtimeCache.CONTEXT_LINES, plan.getSliceStart());
+        assertEquals(22 + SecretsRealtimeCache.CONTEXT_LINES, plan.getSliceEnd());
+        assertTrue(plan.slice(edited).startsWith("line 17\n"));
+        assertEquals(Arrays.asList(2, 12, 32), lines(plan.merge(FILE, null)));
+
+        SecretsRealtimeResults merged = plan.merge(FILE, results(new SecretsRealtimeResults.Secret(
+                "Generic", "d", "new-1", "/tmp/cx1/config.yaml", "High",
+                Collections.singletonList(new RealtimeLocation(3, 7, 12)))));
+        assertEquals(Arrays.asList(2, 12, 20, 32), lines(merged));
+        SecretsRealtimeResults.Secret found = merged.getSecrets().get(2);
+        assertEquals(FILE, found.getFilePath());
+        assertEquals(new RealtimeLocation(20, 7, 12), found.getLocations().get(0));
+    }
+
+    @Test
+    void testSliceWidensToSecretsTouchingTheChange() {
+        SecretsRealtimeCache cache = new SecretsRealtimeCache(Duration.ofMinutes(5));
+        SecretsRealtimeResults.Secret key = new SecretsRealtimeResults.Secret("Private key", "d", "k", FILE, "High",
+                Arrays.asList(new RealtimeLocation(5, 0, 10), new RealtimeLocation(15, 0, 10)));
+        cache.store(FILE, "", numbered(40), results(key, secret(30)));
+        List<String> edited = new ArrayList<>(numbered(40));
+        edited.set(10, "changed");
+
+        SecretsRealtimeCache.Plan plan = cache.plan(FILE, "", edited);
+
+        assertEquals(5, plan.getSliceStart());
+        assertEquals(16, plan.getSliceEnd());
+        assertEquals(Collections.singletonList(30), lines(plan.merge(FILE, null)));
+    }
+
+    @Test
+    void testWholeFileScanWhenPlanCoversEverythingOrContextChanges() {
+        SecretsRealtimeCache cache = new SecretsRealtimeCache(Duration.ofMinutes(5));
+        cache.store(FILE, "ignored:abc", numbered(4), results());
+
+        assertNull(cache.plan(FILE, "ignored:abc", Arrays.asList("a", "b", "c", "d")));
+        assertNull(cache.plan(FILE, "ignored:def", numbered(4)));
+        assertNull(cache.plan("/repo/other.yaml", "ignored:abc", numbered(4)));
+    }
+
+    @Test
+    void testSnapshotsExpire() {
+        AtomicLong now = new AtomicLong(1000);
+        SecretsRealtimeCache cache = new SecretsRealtimeCache(Duration.ofSeconds(10), now::get);
+        cache.store(FILE, "", numbered(20), results());
+        assertNotNull(cache.plan(FILE, "", numbered(20)));
+        now.addAndGet(10_000);
+        assertNull(cache.plan(FILE, "", numbered(20)));
+    }
+
+    @Test
+    void testLinesRoundTrip() {
+        String content = "a\r\nb\n\nc";
+        assertEquals(content, String.join("\n", SecretsRealtimeCache.lines(content)));
+    }
+
+    private static List<String> numbered(int count) {
+        List<String> lines = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            lines.add("line " + i);
+        }
+        return lines;
+    }
+
+    private static SecretsRealtimeResults results(SecretsRealtimeResults.Secret... secrets) {
+        return new SecretsRealtimeResults(Arrays.asList(secrets));
+    }
+
+    private static SecretsRealtimeResults.Secret secret(int line) {
+        return new SecretsRealtimeResults.Secret("Generic", "d", "s" + line, FILE, "High",
+                Collections.singletonList(new RealtimeLocation(line, 2, 8)));
+    }
+
+    private static List<Integer> lines(SecretsRealtimeResults results) {
+        List<Integer> lines = new ArrayList<>();
+        for (SecretsRealtimeResults.Secret secret : results.getSecrets()) {
+            lines.add(secret.getLocations().get(0).getLine());
+        }
+        return lines;
+    }
+}
@@ -0,0 +1,121 @@
+package com.checkmarx.ast.telemetry;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AsyncTelemetrySinkTest {
+
+    @Test
+    void testIdenticalEventsAggregated() {
+        List<TelemetryEvent> sent = new ArrayList<>();
+        AsyncTelemetrySink sink = new AsyncTelemetrySink(sent::add, 10, Duration.ZERO);
+
+        assertTrue(sink.submit(event("click", 1)));
+        assertTrue(sink.submit(event("click", 2)));
+        assertTrue(sink.submit(event("hover", 5)));
+        assertTrue(sink.submit(event("click", null)));
+        assertEquals(4, sink.getQueued());
+
+        assertEquals(2, sink.flush());
+
+        assertEquals(2, sent.size());
+        assertEquals("click", sent.get(0).getEventType());
+        assertEquals(3, sent.get(0).getTotalCount());
+        assertEquals(5, sent.get(1).getTotalCount());
+        assertEquals(0, sink.getQueued());
+        assertEquals(2, sink.getSent());
+    }
+
+    @Test
+    void testOverloadDropsAndCounts() {
+        AsyncTelemetrySink sink = new AsyncTelemetrySink(event -> {
+        }, 2, Duration.ZERO);
+
+        assertTrue(sink.submit(event("a", 1)));
+        assertTrue(sink.submit(event("b", 1)));
+        assertFalse(sink.submit(event("c", 1)));
+        assertEquals(1, sink.getDropped());
+
+        sink.close();
+        assertEquals(2, sink.getSent());
+        assertFalse(sink.submit(event("d", 1)));
+        assertEquals(2, sink.getDropped());
+    }
+
+    @Test
+    void testSendFailuresCounted() {
+        AsyncTelemetrySink sink = new AsyncTelemetrySink(event -> {
+            throw new IllegalStateException("cli unavailable");
+        }, 10, Duration.ZERO);
+        sink.submit(event("a", 1));
+
+        assertEquals(0, sink.flush());
+        assertEquals(1, sink.getFailed());
+    }
+
+    @Test
+    void testBackgroundFlush() throws InterruptedException {
+        CountDownLatch delivered = new CountDownLatch(1);
+        List<TelemetryEvent> sent = Collections.synchronizedList(new ArrayList<>());
+        try (AsyncTelemetrySink sink = new AsyncTelemetrySink(event -> {
+            sent.add(event);
+            delivered.countDown();
+        }, 10, Duration.ofMillis(20))) {
+            sink.submit(event("click", 1));
+            assertTrue(delivered.await(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, sent.size());
+    }
+
+    @Test
+    void testEventsRacingCloseAreSentOrCountedAsDropped() throws InterruptedException {
+        AtomicLong delivered = new AtomicLong();
+        AsyncTelemetrySink sink = new AsyncTelemetrySink(event -> delivered.addAndGet(event.getTotalCount()),
+                100_000, Duration.ZERO);
+        AtomicLong accepted = new AtomicLong();
+        CountDownLatch started = new CountDownLatch(4);
+        List<Thread> submitters = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            Thread submitter = new Thread(() -> {
+                started.countDown();
+                for (int i = 0; i < 20_000; i++) {
+                    if (sink.submit(event("click", 1))) {
+                        accepted.incrementAndGet();
+                    }
+                }
+            });
+            submitter.start();
+            submitters.add(submitter);
+        }
+        started.await();
+        sink.close();
+        for (Thread submitter : submitters) {
+            submitter.join();
+        }
+
+        assertEquals(accepted.get(), delivered.get());
+        assertEquals(80_000 - accepted.get(), sink.getDropped());
+        assertEquals(0, sink.getQueued());
+    }
+
+    private static TelemetryEvent event(String eventType, Integer totalCount) {
+        return TelemetryEvent.builder()
+                .aiProvider("Copilot")
+                .agent("Jetbrains")
+                .eventType(eventType)
+                .subType("ast-results.viewPackageDetails")
+                .engine("secrets")
+                .problemSeverity("high")
+                .totalCount(totalCount)
+                .build();
+    }
+}
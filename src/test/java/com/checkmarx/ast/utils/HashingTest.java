@@ -0,0 +1,23 @@
+package com.checkmarx.ast.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HashingTest {
+
+    @Test
+    void testSha256() {
+        assertEquals("ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad",
+                Hashing.sha256("abc".getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    void testSha256FieldsSeparatesFields() {
+        assertNotEquals(Hashing.sha256Fields("ab", "c"), Hashing.sha256Fields("a", "bc"));
+        assertEquals(Hashing.sha256Fields("a", null), Hashing.sha256Fields("a", ""));
+        assertEquals(Hashing.sha256("a\0".getBytes(StandardCharsets.UTF_8)), Hashing.sha256Fields("a"));
+    }
+}
@@ -0,0 +1,57 @@
+package com.checkmarx.ast.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PagedIterableTest {
+
+    @Test
+    void testIteratesEveryPageUntilShortPage() {
+        List<int[]> requests = new ArrayList<>();
+        PagedIterable<Integer> pages = new PagedIterable<>((offset, limit) -> {
+            synchronized (requests) {
+                requests.add(new int[]{offset, limit});
+            }
+            List<Integer> page = new ArrayList<>();
+            for (int i = offset; i < Math.min(offset + limit, 7); i++) {
+                page.add(i);
+            }
+            return page;
+        }, 3);
+
+        assertEquals(Arrays.asList(0, 1, 2, 3, 4, 5, 6), pages.stream().collect(Collectors.toList()));
+        assertEquals(3, requests.size());
+    }
+
+    @Test
+    void testExactMultipleEndsWithEmptyPage() {
+        PagedIterable<Integer> pages = new PagedIterable<>((offset, limit) ->
+                offset < 4 ? Arrays.asList(offset, offset + 1) : new ArrayList<>(), 2);
+
+        assertEquals(Arrays.asList(0, 1, 2, 3), pages.stream().collect(Collectors.toList()));
+    }
+
+    @Test
+    void testFetchFailureSurfacesOnIteration() {
+        PagedIterable<Integer> pages = new PagedIterable<>((offset, limit) -> {
+            if (offset > 0) {
+                throw new IllegalArgumentException("server error");
+            }
+            return Arrays.asList(1, 2);
+        }, 2);
+
+        Iterator<Integer> iterator = pages.iterator();
+        assertEquals(1, iterator.next());
+        assertEquals(2, iterator.next());
+        IllegalStateException e = assertThrows(IllegalStateException.class, iterator::hasNext);
+        assertTrue(e.getCause() instanceof IllegalArgumentException);
+        assertFalse(iterator.hasNext());
+    }
+}
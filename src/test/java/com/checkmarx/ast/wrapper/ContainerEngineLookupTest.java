@@ -0,0 +1,89 @@
+package com.checkmarx.ast.wrapper;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("ContainerEngineLookup")
+class ContainerEngineLookupTest {
+
+    @Test
+    @DisplayName("found engines are memoized for the positive TTL")
+    void testPositiveOutcomeMemoized() throws Exception {
+        AtomicLong now = new AtomicLong();
+        ContainerEngineLookup lookup = new ContainerEngineLookup(now::get);
+        AtomicInteger probes = new AtomicInteger();
+        ContainerEngineLookup.Probe found = () -> {
+            probes.incrementAndGet();
+            return "docker";
+        };
+
+        assertEquals("docker", lookup.resolve("linux:docker", found));
+        assertEquals("docker", lookup.resolve("linux:docker", found));
+        assertEquals(1, probes.get());
+
+        now.addAndGet(ContainerEngineLookup.POSITIVE_TTL.toMillis());
+        lookup.resolve("linux:docker", found);
+        assertEquals(2, probes.get());
+    }
+
+    @Test
+    @DisplayName("missing engines are memoized for the shorter negative TTL")
+    void testNegativeOutcomeMemoized() throws Exception {
+        AtomicLong now = new AtomicLong();
+        ContainerEngineLookup lookup = new ContainerEngineLookup(now::get);
+        AtomicInteger probes = new AtomicInteger();
+        ContainerEngineLookup.Probe missing = () -> {
+            probes.incrementAndGet();
+            throw new CxException(1, "podman is not installed");
+        };
+
+        assertThrows(CxException.class, () -> lookup.resolve("linux:podman", missing));
+        CxException cached = assertThrows(CxException.class, () -> lookup.resolve("linux:podman", missing));
+        assertEquals("podman is not installed", cached.getMessage());
+        assertEquals(1, probes.get());
+
+        now.addAndGet(ContainerEngineLookup.NEGATIVE_TTL.toMillis());
+        assertThrows(CxException.class, () -> lookup.resolve("linux:podman", missing));
+        assertEquals(2, probes.get());
+    }
+
+    @Test
+    @DisplayName("verification runs once per path")
+    void testVerificationOncePerPath() {
+        ContainerEngineLookup lookup = new ContainerEngineLookup();
+        AtomicInteger verifications = new AtomicInteger();
+
+        assertTrue(lookup.verify("/usr/bin/docker", p -> verifications.incrementAndGet() > 0));
+        assertTrue(lookup.verify("/usr/bin/docker", p -> verifications.incrementAndGet() > 0));
+        assertEquals(1, verifications.get());
+    }
+
+    @Test
+    @DisabledOnOs(OS.WINDOWS)
+    @DisplayName("findOnPath walks PATH and requires the executable bit")
+    void testFindOnPath(@TempDir Path dir) throws Exception {
+        Path first = Files.createDirectories(dir.resolve("first"));
+        Path second = Files.createDirectories(dir.resolve("second"));
+        Path notExecutable = Files.createFile(first.resolve("docker"));
+        Path executable = Files.createFile(second.resolve("docker"));
+        assertTrue(executable.toFile().setExecutable(true));
+        assertTrue(notExecutable.toFile().setExecutable(false));
+        String pathVariable = first + File.pathSeparator + File.pathSeparator + second;
+
+        assertEquals(executable.toAbsolutePath().toString(), ContainerEngineLookup.findOnPath("docker", pathVariable));
+        assertNull(ContainerEngineLookup.findOnPath("podman", pathVariable));
+        assertNull(ContainerEngineLookup.findOnPath("docker", null));
+        assertEquals(executable.toString(), ContainerEngineLookup.findOnPath(executable.toString(), null));
+    }
+}
@@ -152,4 +152,15 @@ class CxWrapperArgumentsTest {
         List<String> args = wrapper.buildResultsArguments(TEST_SCAN_ID, ReportFormat.sarif);
         assertTrue(args.contains(ReportFormat.sarif.toString()));
     }
+
+    // --- pagedFilter ---
+
+    @Test
+    void testPagedFilter_replacesOffsetAndLimit() {
+        assertEquals("offset=0,limit=50", CxWrapper.pagedFilter(null, 0, 50));
+        assertEquals("statuses=Completed,offset=100,limit=50",
+                CxWrapper.pagedFilter("statuses=Completed,limit=10,offset=3", 100, 50));
+        assertEquals("name=cli&tags=qa,prod&offset=20&limit=10",
+                CxWrapper.pagedFilter("limit=10000&name=cli&tags=qa,prod", 20, 10));
+    }
 }
@@ -0,0 +1,125 @@
+package com.checkmarx.ast.wrapper;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.MockedStatic;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.slf4j.Logger;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("CxWrapperAuthValidationCacheTest")
+class CxWrapperAuthValidationCacheTest {
+
+    @Mock
+    Logger logger;
+
+    private CxConfig config;
+    private CxWrapper subject;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        config = CxConfig.builder()
+                .baseUri("https://ast.example.com")
+                .tenant("tenant")
+                .apiKey("key-1")
+                .pathToExecutable("/opt/cx")
+                .authValidationCacheTtl(Duration.ofMinutes(5))
+                .build();
+        subject = new CxWrapper(config, logger);
+    }
+
+    @Test
+    @DisplayName("successful validation is remembered until credentials change")
+    void testSuccessRememberedUntilCredentialsChange() throws Exception {
+        AtomicInteger invocations = new AtomicInteger();
+        try (MockedStatic<Execution> mocked = Mockito.mockStatic(Execution.class)) {
+            mocked.when(() -> Execution.executeCommand(anyList(), any(), any(Function.class)))
+                    .thenAnswer(invocation -> {
+                        invocations.incrementAndGet();
+                        return "Successfully authenticated to AST server!";
+                    });
+
+            assertEquals("Successfully authenticated to AST server!", subject.authValidate());
+            assertEquals("Successfully authenticated to AST server!", subject.authValidate());
+            assertEquals(1, invocations.get());
+
+            config.setApiKey("key-2");
+            subject.authValidate();
+            assertEquals(2, invocations.get());
+
+            subject.invalidateAuthValidation();
+            subject.authValidate();
+            assertEquals(3, invocations.get());
+        }
+    }
+
+    @Test
+    @DisplayName("failed validation is rethrown from the cache")
+    void testFailureRemembered() throws Exception {
+        AtomicInteger invocations = new AtomicInteger();
+        try (MockedStatic<Execution> mocked = Mockito.mockStatic(Execution.class)) {
+            mocked.when(() -> Execution.executeCommand(anyList(), any(), any(Function.class)))
+                    .thenAnswer(invocation -> {
+                        invocations.incrementAndGet();
+                        throw new CxException(1, "invalid credentials");
+                    });
+
+            assertThrows(CxException.class, () -> subject.authValidate());
+            CxException cached = assertThrows(CxException.class, () -> subject.authValidate());
+            assertEquals("invalid credentials", cached.getMessage());
+            assertEquals(1, invocations.get());
+        }
+    }
+
+    @Test
+    @DisplayName("failures expire sooner than successes")
+    void testFailureTtl() throws Exception {
+        AtomicLong now = new AtomicLong();
+        AuthValidationCache cache = new AuthValidationCache(Duration.ofMinutes(5), Duration.ofSeconds(10), now::get);
+        cache.failure("fp", new CxException(1, "denied"));
+        assertThrows(CxException.class, () -> cache.get("fp"));
+        now.set(10_000);
+        assertNull(cache.get("fp"));
+
+        cache.success("fp", "ok");
+        now.addAndGet(Duration.ofMinutes(4).toMillis());
+        assertEquals("ok", cache.get("fp"));
+        assertNull(cache.get("other"));
+        assertNull(cache.get("fp"));
+    }
+
+    @Test
+    @DisplayName("fingerprint hides the credentials and tracks every identifying field")
+    void testCredentialFingerprint() {
+        String fingerprint = config.credentialFingerprint();
+        assertFalse(fingerprint.contains("key-1"));
+        assertTrue(fingerprint.startsWith("https://ast.example.com||tenant|"));
+        CxConfig same = CxConfig.builder().baseUri("https://ast.example.com").tenant("tenant").apiKey("key-1").build();
+        assertEquals(fingerprint, same.credentialFingerprint());
+        same.setTenant("other");
+        assertNotEquals(fingerprint, same.credentialFingerprint());
+        same.setTenant("tenant");
+        same.setClientSecret("secret");
+        assertNotEquals(fingerprint, same.credentialFingerprint());
+        same.setClientSecret(null);
+        same.setAdditionalParameters("--apikey key-2");
+        String withParameters = same.credentialFingerprint();
+        assertNotEquals(fingerprint, withParameters);
+        assertFalse(withParameters.contains("key-2"));
+        same.setAgentName("Eclipse");
+        assertNotEquals(withParameters, same.credentialFingerprint());
+    }
+}
@@ -0,0 +1,88 @@
+package com.checkmarx.ast.wrapper;
+
+import com.checkmarx.ast.results.result.Node;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.MockedStatic;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.slf4j.Logger;
+
+import java.util.*;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("CxWrapperBflTest")
+class CxWrapperBflTest {
+
+    private static final UUID SCAN_ID = UUID.fromString("0b8c8a4e-5f0e-4c1a-9d3b-2f7e6a1c4d10");
+
+    @Mock
+    Logger logger;
+
+    @Test
+    @DisplayName("nodes equal by location hash alike whatever their id")
+    void testHashCodeConsistentWithEquals() {
+        Node first = node("a", 10, "Main.java");
+        Node second = node(null, 10, "Main.java");
+
+        assertEquals(first, second);
+        assertEquals(first.hashCode(), second.hashCode());
+        assertEquals(1, new HashSet<>(Arrays.asList(first, second)).size());
+    }
+
+    @Test
+    @DisplayName("the first BFL node with a match wins and maps to the first matching result node")
+    void testIndexOfBflNode() {
+        List<Node> resultNodes = Arrays.asList(node("r0", 1, "A.java"), node("r1", 2, "A.java"),
+                node("r2", 3, "A.java"), node("r3", 2, "A.java"));
+        List<Node> bflNodes = Arrays.asList(node("b0", 9, "A.java"), node("b1", 2, "A.java"), node("b2", 1, "A.java"));
+
+        assertEquals(1, CxWrapper.getIndexOfBfLNode(bflNodes, resultNodes));
+        assertEquals(-1, CxWrapper.getIndexOfBfLNode(Collections.singletonList(node("b", 4, "A.java")), resultNodes));
+        assertEquals(-1, CxWrapper.getIndexOfBfLNode(null, resultNodes));
+        assertEquals(-1, CxWrapper.getIndexOfBfLNode(bflNodes, null));
+    }
+
+    @Test
+    @DisplayName("getResultsBflBatch returns an index per query and leaves failed queries out")
+    @SuppressWarnings("unchecked")
+    void testBatch() throws Exception {
+        // static mocks are thread local, so commands run on the calling thread
+        CxWrapper subject = new CxWrapper(CxConfig.builder().pathToExecutable("/opt/cx").maxParallelCommands(1).build(), logger);
+        Map<String, List<Node>> resultNodes = new LinkedHashMap<>();
+        resultNodes.put("q1", Arrays.asList(node("r0", 1, "A.java"), node("r1", 2, "A.java")));
+        resultNodes.put("q2", Collections.singletonList(node("r0", 7, "B.java")));
+        resultNodes.put("q3", Collections.singletonList(node("r0", 1, "C.java")));
+
+        try (MockedStatic<Execution> mocked = Mockito.mockStatic(Execution.class)) {
+            mocked.when(() -> Execution.executeCommand(anyList(), any(), any(Function.class)))
+                    .thenAnswer(invocation -> {
+                        List<String> arguments = invocation.getArgument(0);
+                        String queryId = arguments.get(arguments.indexOf(CxConstants.QUERY_ID) + 1);
+                        if ("q3".equals(queryId)) {
+                            throw new CxException(1, "query not found");
+                        }
+                        return "q1".equals(queryId)
+                                ? Collections.singletonList(node("b", 2, "A.java"))
+                                : Collections.singletonList(node("b", 8, "B.java"));
+                    });
+
+            Map<String, Integer> indexes = subject.getResultsBflBatch(SCAN_ID, resultNodes);
+
+            assertEquals(2, indexes.size());
+            assertEquals(1, indexes.get("q1"));
+            assertEquals(-1, indexes.get("q2"));
+        }
+    }
+
+    private static Node node(String id, int line, String fileName) {
+        return new Node(id, line, "name", 5, 4, "method", 0, "dom", fileName, "full", "type", "1", null);
+    }
+}
@@ -0,0 +1,102 @@
+package com.checkmarx.ast.wrapper;
+
+import com.checkmarx.ast.containersrealtime.ContainersRealtimeImage;
+import com.checkmarx.ast.containersrealtime.ContainersRealtimeResults;
+import com.checkmarx.ast.realtime.RealtimeLocation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.MockedStatic;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.slf4j.Logger;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("CxWrapperContainersRealtimeCacheTest")
+class CxWrapperContainersRealtimeCacheTest {
+
+    @Mock
+    Logger logger;
+
+    @TempDir
+    Path workspace;
+
+    private CxWrapper subject;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        CxConfig config = CxConfig.builder()
+                .pathToExecutable("/opt/cx")
+                .containersRealtimeCacheTtl(Duration.ofMinutes(10))
+                .build();
+        subject = new CxWrapper(config, logger);
+    }
+
+    @Test
+    @DisplayName("compose file referencing a scanned image is answered in-process")
+    void testCachedImagesAnsweredInProcess() throws Exception {
+        Path dockerfile = write("Dockerfile", "FROM nginx:1.25\nEXPOSE 80\n");
+        Path compose = write("docker-compose.yml", "services:\n  web:\n    image: nginx:1.25\n");
+        AtomicInteger invocations = new AtomicInteger();
+
+        try (MockedStatic<Execution> mocked = Mockito.mockStatic(Execution.class)) {
+            mocked.when(() -> Execution.executeCommand(anyList(), any(), any(Function.class)))
+                    .thenAnswer(invocation -> {
+                        invocations.incrementAndGet();
+                        return new ContainersRealtimeResults(Collections.singletonList(
+                                new ContainersRealtimeImage("nginx", "1.25", dockerfile.toString(),
+                                        Collections.singletonList(new RealtimeLocation(0, 5, 15)), "Vulnerable",
+                                        Collections.emptyList())));
+                    });
+
+            subject.containersRealtimeScan(dockerfile.toString(), null);
+            ContainersRealtimeResults results = subject.containersRealtimeScan(compose.toString(), null);
+
+            assertEquals(1, invocations.get());
+            ContainersRealtimeImage image = results.getImages().get(0);
+            assertEquals(compose.toString(), image.getFilePath());
+            assertEquals(new RealtimeLocation(2, 11, 21), image.getLocations().get(0));
+            assertEquals("Vulnerable", image.getStatus());
+        }
+    }
+
+    @Test
+    @DisplayName("scans with an ignored file path always reach the CLI")
+    void testIgnoredFilePathBypassesCache() throws Exception {
+        Path dockerfile = write("Dockerfile", "FROM nginx:1.25\n");
+        AtomicInteger invocations = new AtomicInteger();
+
+        try (MockedStatic<Execution> mocked = Mockito.mockStatic(Execution.class)) {
+            mocked.when(() -> Execution.executeCommand(anyList(), any(), any(Function.class)))
+                    .thenAnswer(invocation -> {
+                        invocations.incrementAndGet();
+                        return new ContainersRealtimeResults(Collections.singletonList(
+                                new ContainersRealtimeImage("nginx", "1.25", dockerfile.toString(), null, "OK", null)));
+                    });
+
+            subject.containersRealtimeScan(dockerfile.toString(), null);
+            subject.containersRealtimeScan(dockerfile.toString(), "/tmp/ignored.json");
+
+            assertEquals(2, invocations.get());
+        }
+    }
+
+    private Path write(String name, String content) throws Exception {
+        return Files.write(workspace.resolve(name), content.getBytes(StandardCharsets.UTF_8));
+    }
+}
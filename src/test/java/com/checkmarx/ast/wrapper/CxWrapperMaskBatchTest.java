@@ -0,0 +1,107 @@
+package com.checkmarx.ast.wrapper;
+
+import com.checkmarx.ast.mask.MaskBatchResults;
+import com.checkmarx.ast.mask.MaskResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.MockedStatic;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.slf4j.Logger;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("CxWrapperMaskBatchTest")
+class CxWrapperMaskBatchTest {
+
+    @Mock
+    Logger logger;
+
+    @TempDir
+    Path directory;
+
+    private CxWrapper subject;
+    private final List<List<String>> invocations = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        // static mocks are thread local, so commands run on the calling thread
+        subject = new CxWrapper(CxConfig.builder().pathToExecutable("/opt/cx").maxParallelCommands(1).build(), logger);
+    }
+
+    @Test
+    @DisplayName("identical contents are masked once per session")
+    @SuppressWarnings("unchecked")
+    void testSameContentMaskedOnce() throws Exception {
+        Path first = write("first.json", "{\"password\":\"hunter2\"}");
+        Path copy = write("copy.json", "{\"password\":\"hunter2\"}");
+        Path other = write("other.json", "{\"token\":\"abc\"}");
+        Path missing = directory.resolve("missing.json");
+
+        try (MockedStatic<Execution> mocked = Mockito.mockStatic(Execution.class)) {
+            mocked.when(() -> Execution.executeCommand(anyList(), any(), any(Function.class)))
+                    .thenAnswer(invocation -> {
+                        List<String> arguments = invocation.getArgument(0);
+                        invocations.add(new ArrayList<>(arguments));
+                        String file = arguments.get(arguments.indexOf(CxConstants.RESULT_FILE) + 1);
+                        return new MaskResult(Collections.emptyList(), "masked:" + fileName(file));
+                    });
+
+            MaskBatchResults batch = subject.maskSecretsBatch(Arrays.asList(first, copy, other, missing));
+
+            assertEquals(2, invocations.size());
+            assertEquals(4, batch.getFileCount());
+            assertEquals(2, batch.getMaskedCount());
+            assertEquals(0, batch.getCachedCount());
+            assertEquals(Arrays.asList(first, copy, other), new ArrayList<>(batch.getResults().keySet()));
+            assertSame(batch.getResults().get(first), batch.getResults().get(copy));
+            assertEquals(Collections.singleton(missing), batch.getFailures().keySet());
+            assertTrue(batch.getBytesRead() > 0);
+
+            MaskBatchResults again = subject.maskSecretsBatch(Collections.singletonList(copy));
+
+            assertEquals(2, invocations.size());
+            assertEquals(1, again.getCachedCount());
+            assertEquals(batch.getResults().get(first), again.getResults().get(copy));
+        }
+    }
+
+    @Test
+    @DisplayName("a failed mask is reported for every file sharing the content")
+    @SuppressWarnings("unchecked")
+    void testFailureSharedByIdenticalFiles() throws Exception {
+        Path first = write("first.json", "same");
+        Path copy = write("copy.json", "same");
+
+        try (MockedStatic<Execution> mocked = Mockito.mockStatic(Execution.class)) {
+            mocked.when(() -> Execution.executeCommand(anyList(), any(), any(Function.class)))
+                    .thenThrow(new CxException(1, "mask failed"));
+
+            MaskBatchResults batch = subject.maskSecretsBatch(Arrays.asList(first, copy));
+
+            assertTrue(batch.getResults().isEmpty());
+            assertEquals(new HashSet<>(Arrays.asList(first, copy)), batch.getFailures().keySet());
+        }
+    }
+
+    private static String fileName(String file) {
+        return file.substring(file.lastIndexOf('/') + 1);
+    }
+
+    private Path write(String name, String content) throws Exception {
+        return Files.write(directory.resolve(name), content.getBytes(StandardCharsets.UTF_8));
+    }
+}
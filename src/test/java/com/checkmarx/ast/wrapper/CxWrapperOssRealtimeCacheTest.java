@@ -0,0 +1,212 @@
+package com.checkmarx.ast.wrapper;
+
+import com.checkmarx.ast.ossrealtime.OssRealtimeResults;
+import com.checkmarx.ast.ossrealtime.OssRealtimeScanPackage;
+import com.checkmarx.ast.realtime.RealtimeLocation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.MockedStatic;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.slf4j.Logger;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("CxWrapperOssRealtimeCacheTest")
+class CxWrapperOssRealtimeCacheTest {
+
+    @Mock
+    Logger logger;
+
+    @TempDir
+    Path workspace;
+
+    private CxWrapper subject;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        CxConfig config = CxConfig.builder()
+                .apiKey("test-api-key")
+                .pathToExecutable("/opt/cx")
+                .ossRealtimeCacheTtl(Duration.ofMinutes(10))
+                .build();
+        subject = new CxWrapper(config, logger);
+    }
+
+    @Test
+    @DisplayName("manifest with only known packages is answered without the CLI")
+    void testKnownPackagesAnsweredInProcess() throws Exception {
+        Path first = manifest("a", "lodash", "express");
+        Path second = manifest("b", "express");
+        List<List<String>> invocations = new ArrayList<>();
+
+        try (MockedStatic<Execution> mocked = Mockito.mockStatic(Execution.class)) {
+            mocked.when(() -> Execution.executeCommand(anyList(), any(), any(Function.class)))
+                    .thenAnswer(invocation -> {
+                        invocations.add(new ArrayList<>(invocation.getArgument(0)));
+                        return new OssRealtimeResults(Arrays.asList(
+                                scanPackage("lodash", first.toString()),
+                                scanPackage("express", first.toString())));
+                    });
+
+            subject.ossRealtimeScan(first.toString(), null);
+            OssRealtimeResults results = subject.ossRealtimeScan(second.toString(), null);
+
+            assertEquals(1, invocations.size());
+            assertEquals(1, results.getPackages().size());
+            OssRealtimeScanPackage express = results.getPackages().get(0);
+            assertEquals("express", express.getPackageName());
+            assertEquals(second.toString(), express.getFilePath());
+            assertEquals(4, express.getLocations().get(0).getLine());
+        }
+    }
+
+    @Test
+    @DisplayName("unknown packages are scanned through a reduced manifest and merged")
+    void testUnknownRemainderScannedThroughReducedManifest() throws Exception {
+        Path first = manifest("a", "lodash");
+        Path second = manifest("b", "lodash", "express");
+        List<String> scannedPaths = new ArrayList<>();
+        List<String> reducedContent = new ArrayList<>();
+
+        try (MockedStatic<Execution> mocked = Mockito.mockStatic(Execution.class)) {
+            mocked.when(() -> Execution.executeCommand(anyList(), any(), any(Function.class)))
+                    .thenAnswer(invocation -> {
+                        List<String> arguments = invocation.getArgument(0);
+                        String source = arguments.get(arguments.indexOf(CxConstants.SOURCE) + 1);
+                        scannedPaths.add(source);
+                        if (scannedPaths.size() == 1) {
+                            return new OssRealtimeResults(Collections.singletonList(scanPackage("lodash", source)));
+                        }
+                        reducedContent.add(new String(Files.readAllBytes(Paths.get(source)), StandardCharsets.UTF_8));
+                        return new OssRealtimeResults(Collections.singletonList(scanPackage("express", source)));
+                    });
+
+            subject.ossRealtimeScan(first.toString(), null);
+            OssRealtimeResults results = subject.ossRealtimeScan(second.toString(), null);
+
+            assertEquals(2, scannedPaths.size());
+            assertNotEquals(second.toString(), scannedPaths.get(1));
+            assertTrue(scannedPaths.get(1).endsWith("package.json"));
+            assertTrue(reducedContent.get(0).contains("express"));
+            assertFalse(reducedContent.get(0).contains("lodash"));
+            assertEquals(2, results.getPackages().size());
+            for (OssRealtimeScanPackage scanPackage : results.getPackages()) {
+                assertEquals(second.toString(), scanPackage.getFilePath());
+            }
+            assertEquals(5, results.getPackages().get(1).getLocations().get(0).getLine());
+        }
+    }
+
+    @Test
+    @DisplayName("reduced answer that cannot be paired falls back to a scan of the whole manifest")
+    void testUnpairedReducedAnswerFallsBackToFullScan() throws Exception {
+        Path first = manifest("a", "lodash");
+        Path second = manifest("b", "lodash", "express");
+        List<String> scannedPaths = new ArrayList<>();
+
+        try (MockedStatic<Execution> mocked = Mockito.mockStatic(Execution.class)) {
+            mocked.when(() -> Execution.executeCommand(anyList(), any(), any(Function.class)))
+                    .thenAnswer(invocation -> {
+                        List<String> arguments = invocation.getArgument(0);
+                        String source = arguments.get(arguments.indexOf(CxConstants.SOURCE) + 1);
+                        scannedPaths.add(source);
+                        if (scannedPaths.size() == 2) {
+                            return new OssRealtimeResults(Collections.singletonList(scanPackage("express-alias", source)));
+                        }
+                        return new OssRealtimeResults(Collections.singletonList(scanPackage("lodash", source)));
+                    });
+
+            subject.ossRealtimeScan(first.toString(), null);
+            OssRealtimeResults results = subject.ossRealtimeScan(second.toString(), null);
+
+            assertEquals(3, scannedPaths.size());
+            assertEquals(second.toString(), scannedPaths.get(2));
+            assertEquals(second.toString(), results.getPackages().get(0).getFilePath());
+        }
+    }
+
+    @Test
+    @DisplayName("answers filtered by the ignore file are not reused once the ignore file changes")
+    void testLastScanDependsOnIgnoreFile() throws Exception {
+        Path first = manifest("a", "lodash");
+        Path ignoreFile = Files.write(workspace.resolve("ignored.json"),
+                "[{\"PackageManager\": \"npm\", \"PackageName\": \"lodash\"}]".getBytes(StandardCharsets.UTF_8));
+        List<Boolean> ignoring = new ArrayList<>();
+
+        try (MockedStatic<Execution> mocked = Mockito.mockStatic(Execution.class)) {
+            mocked.when(() -> Execution.executeCommand(anyList(), any(), any(Function.class)))
+                    .thenAnswer(invocation -> {
+                        boolean ignored = new String(Files.readAllBytes(ignoreFile), StandardCharsets.UTF_8).contains("lodash");
+                        ignoring.add(ignored);
+                        return new OssRealtimeResults(ignored
+                                ? Collections.emptyList()
+                                : Collections.singletonList(scanPackage("lodash", first.toString())));
+                    });
+
+            assertTrue(subject.ossRealtimeScan(first.toString(), ignoreFile.toString()).getPackages().isEmpty());
+            assertTrue(subject.ossRealtimeScan(first.toString(), ignoreFile.toString()).getPackages().isEmpty());
+            assertEquals(1, ignoring.size());
+
+            Files.write(ignoreFile, "[]".getBytes(StandardCharsets.UTF_8));
+            OssRealtimeResults results = subject.ossRealtimeScan(first.toString(), ignoreFile.toString());
+
+            assertEquals(Arrays.asList(true, false), ignoring);
+            assertEquals("lodash", results.getPackages().get(0).getPackageName());
+        }
+    }
+
+    @Test
+    @DisplayName("cache is bypassed when it is not configured")
+    void testCacheDisabledByDefault() throws Exception {
+        CxWrapper uncached = new CxWrapper(CxConfig.builder().pathToExecutable("/opt/cx").build(), logger);
+        Path first = manifest("a", "lodash");
+        List<String> scannedPaths = new ArrayList<>();
+
+        try (MockedStatic<Execution> mocked = Mockito.mockStatic(Execution.class)) {
+            mocked.when(() -> Execution.executeCommand(anyList(), any(), any(Function.class)))
+                    .thenAnswer(invocation -> {
+                        scannedPaths.add(first.toString());
+                        return new OssRealtimeResults(Collections.singletonList(scanPackage("lodash", first.toString())));
+                    });
+
+            uncached.ossRealtimeScan(first.toString(), null);
+            uncached.ossRealtimeScan(first.toString(), null);
+
+            assertEquals(2, scannedPaths.size());
+        }
+    }
+
+    private Path manifest(String directory, String... packages) throws Exception {
+        StringBuilder content = new StringBuilder("{\n  \"name\": \"").append(directory).append("\",\n  \"version\": \"1.0.0\",\n  \"dependencies\": {\n");
+        for (int i = 0; i < packages.length; i++) {
+            content.append("    \"").append(packages[i]).append("\": \"1.0.0\"").append(i < packages.length - 1 ? "," : "").append('\n');
+        }
+        content.append("  }\n}\n");
+        Path dir = Files.createDirectories(workspace.resolve(directory));
+        return Files.write(dir.resolve("package.json"), content.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static OssRealtimeScanPackage scanPackage(String name, String filePath) {
+        return new OssRealtimeScanPackage("npm", name, "1.0.0", filePath,
+                Collections.singletonList(new RealtimeLocation(0, 0, 1)), "OK", Collections.emptyList());
+    }
+}
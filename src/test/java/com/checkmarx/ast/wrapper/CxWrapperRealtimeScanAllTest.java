@@ -0,0 +1,123 @@
+package com.checkmarx.ast.wrapper;
+
+import com.checkmarx.ast.iacrealtime.IacRealtimeResults;
+import com.checkmarx.ast.realtime.RealtimeBatchResults;
+import com.checkmarx.ast.realtime.RealtimeDelta;
+import com.checkmarx.ast.realtime.RealtimeLocation;
+import com.checkmarx.ast.secretsrealtime.SecretsRealtimeResults;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.MockedStatic;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.slf4j.Logger;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("CxWrapperRealtimeScanAllTest")
+class CxWrapperRealtimeScanAllTest {
+
+    @Mock
+    Logger logger;
+
+    private CxWrapper subject;
+    private final List<List<String>> invocations = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        // static mocks are thread local, so scans run on the calling thread
+        subject = new CxWrapper(CxConfig.builder().pathToExecutable("/opt/cx").maxParallelCommands(1).build(), logger);
+    }
+
+    @Test
+    @DisplayName("realtimeScanAll scans each file once and keys results by file")
+    @SuppressWarnings("unchecked")
+    void testScanAll() throws Exception {
+        Path first = Paths.get("/work/a.env");
+        Path second = Paths.get("/work/b.env");
+        Path broken = Paths.get("/work/c.env");
+        Map<Path, SecretsRealtimeResults> streamed = new LinkedHashMap<>();
+
+        try (MockedStatic<Execution> mocked = Mockito.mockStatic(Execution.class)) {
+            mocked.when(() -> Execution.executeCommand(anyList(), any(), any(Function.class)))
+                    .thenAnswer(invocation -> {
+                        List<String> arguments = invocation.getArgument(0);
+                        invocations.add(new ArrayList<>(arguments));
+                        if (arguments.contains(broken.toString())) {
+                            throw new CxException(1, "scan failed");
+                        }
+                        return new SecretsRealtimeResults(Collections.emptyList());
+                    });
+
+            RealtimeBatchResults<SecretsRealtimeResults> results = subject.realtimeScanAll(RealtimeEngine.SECRETS,
+                    Arrays.asList(second, first, second, broken), null, streamed::put);
+
+            assertEquals(3, invocations.size());
+            assertTrue(invocations.get(0).contains(CxConstants.SUB_CMD_SECRETS_REALTIME));
+            assertEquals(Arrays.asList(second, first), new ArrayList<>(results.getResults().keySet()));
+            assertEquals(results.getResults(), streamed);
+            assertEquals(Collections.singleton(broken), results.getFailures().keySet());
+            assertFalse(results.isComplete());
+        }
+    }
+
+    @Test
+    @DisplayName("the IaC engine passes its container tool")
+    @SuppressWarnings("unchecked")
+    void testIacEngineContainerTool() throws Exception {
+        try (MockedStatic<Execution> mocked = Mockito.mockStatic(Execution.class)) {
+            mocked.when(() -> Execution.executeCommand(anyList(), any(), any(Function.class)))
+                    .thenAnswer(invocation -> {
+                        invocations.add(new ArrayList<>(invocation.<List<String>>getArgument(0)));
+                        return null;
+                    });
+
+            RealtimeBatchResults<?> results = subject.realtimeScanAll(RealtimeEngine.iac("podman"),
+                    Collections.singletonList(Paths.get("/work/main.tf")));
+
+            assertTrue(invocations.get(0).contains("podman"));
+            assertTrue(results.getResults().isEmpty());
+            assertTrue(results.isComplete());
+        }
+    }
+
+    @Test
+    @DisplayName("realtimeScanDelta reports only what changed since the previous scan of the file")
+    void testScanDelta() throws Exception {
+        String file = "/work/main.tf";
+        IacRealtimeResults before = new IacRealtimeResults(Arrays.asList(iacIssue("SIM-1", 3), iacIssue("SIM-2", 8)));
+        IacRealtimeResults after = new IacRealtimeResults(Arrays.asList(iacIssue("SIM-1", 4), iacIssue("SIM-3", 9)));
+
+        try (MockedStatic<Execution> mocked = Mockito.mockStatic(Execution.class)) {
+            mocked.when(() -> Execution.executeCommand(anyList(), any(), any(Function.class)))
+                    .thenReturn(before, after, after);
+
+            RealtimeDelta first = subject.realtimeScanDelta(RealtimeEngine.IAC, file, null);
+            RealtimeDelta second = subject.realtimeScanDelta(RealtimeEngine.IAC, file, null);
+            subject.forgetRealtimeDelta(RealtimeEngine.IAC, file);
+            RealtimeDelta afterForget = subject.realtimeScanDelta(RealtimeEngine.IAC, file, null);
+
+            assertEquals(2, first.getAdded().size());
+            assertEquals("SIM-3", second.getAdded().get(0).getId());
+            assertEquals("SIM-2", second.getRemoved().get(0).getId());
+            assertEquals("SIM-1", second.getMoved().get(0).getId());
+            assertEquals(2, afterForget.getAdded().size());
+        }
+    }
+
+    private static IacRealtimeResults.Issue iacIssue(String similarityId, int line) {
+        return new IacRealtimeResults.Issue("Title", "desc", similarityId, "/work/main.tf", "High", "e", "a",
+                Collections.singletonList(new RealtimeLocation(line, 0, 5)));
+    }
+}
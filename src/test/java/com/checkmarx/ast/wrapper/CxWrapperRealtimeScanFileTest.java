@@ -0,0 +1,201 @@
+package com.checkmarx.ast.wrapper;
+
+import com.checkmarx.ast.asca.ScanDetail;
+import com.checkmarx.ast.asca.ScanResult;
+import com.checkmarx.ast.containersrealtime.ContainersRealtimeImage;
+import com.checkmarx.ast.containersrealtime.ContainersRealtimeResults;
+import com.checkmarx.ast.iacrealtime.IacRealtimeResults;
+import com.checkmarx.ast.realtime.RealtimeLocation;
+import com.checkmarx.ast.secretsrealtime.SecretsRealtimeResults;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.MockedStatic;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.slf4j.Logger;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("CxWrapperRealtimeScanFileTest")
+class CxWrapperRealtimeScanFileTest {
+
+    @Mock
+    Logger logger;
+
+    @TempDir
+    Path workspace;
+
+    private CxWrapper subject;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        // static mocks are thread local, so engines run on the calling thread
+        subject = new CxWrapper(CxConfig.builder().pathToExecutable("/opt/cx").maxParallelCommands(1).build(), logger);
+    }
+
+    @Test
+    @DisplayName("applicable engines scan one snapshot and results point at the original file")
+    void testEnginesShareSnapshot() throws Exception {
+        Path dockerfile = workspace.resolve("Dockerfile");
+        Files.write(dockerfile, "FROM nginx:1.25\n".getBytes(StandardCharsets.UTF_8));
+        Map<String, String> scannedBySubCommand = new LinkedHashMap<>();
+        List<String> snapshotContents = new ArrayList<>();
+
+        try (MockedStatic<Execution> mocked = Mockito.mockStatic(Execution.class)) {
+            mocked.when(() -> Execution.executeCommand(anyList(), any(), any(Function.class)))
+                    .thenAnswer(invocation -> {
+                        List<String> arguments = invocation.getArgument(0);
+                        String subCommand = arguments.contains(CxConstants.SUB_CMD_SECRETS_REALTIME)
+                                ? CxConstants.SUB_CMD_SECRETS_REALTIME
+                                : arguments.contains(CxConstants.SUB_CMD_CONTAINERS_REALTIME)
+                                ? CxConstants.SUB_CMD_CONTAINERS_REALTIME : CxConstants.SUB_CMD_IAC_REALTIME;
+                        String source = arguments.get(arguments.indexOf(CxConstants.SOURCE) + 1);
+                        scannedBySubCommand.put(subCommand, source);
+                        snapshotContents.add(new String(Files.readAllBytes(Paths.get(source)), StandardCharsets.UTF_8));
+                        List<RealtimeLocation> locations = Collections.singletonList(new RealtimeLocation(0, 5, 15));
+                        if (CxConstants.SUB_CMD_SECRETS_REALTIME.equals(subCommand)) {
+                            return new SecretsRealtimeResults(Collections.emptyList());
+                        }
+                        if (CxConstants.SUB_CMD_CONTAINERS_REALTIME.equals(subCommand)) {
+                            return new ContainersRealtimeResults(Collections.singletonList(
+                                    new ContainersRealtimeImage("nginx", "1.25", source, locations, "Vulnerable", null)));
+                        }
+                        throw new CxException(1, "iac engine unavailable");
+                    });
+
+            RealtimeFileResults results = subject.realtimeScanFile(dockerfile, RealtimeEngine.all());
+
+            assertEquals(Arrays.asList("oss", "asca"), results.getSkipped());
+            assertEquals(3, scannedBySubCommand.size());
+            assertEquals(1, new HashSet<>(scannedBySubCommand.values()).size());
+            String snapshot = scannedBySubCommand.values().iterator().next();
+            assertNotEquals(dockerfile.toString(), snapshot);
+            assertTrue(snapshot.endsWith("Dockerfile"));
+            assertFalse(Files.exists(Paths.get(snapshot)));
+            assertEquals(Collections.nCopies(3, "FROM nginx:1.25\n"), snapshotContents);
+
+            ContainersRealtimeResults containers = results.getResult(RealtimeEngine.CONTAINERS);
+            assertEquals(dockerfile.toString(), containers.getImages().get(0).getFilePath());
+            assertEquals(dockerfile.toString(), results.getIssues().get("containers").get(0).getFilePath());
+            assertNull(results.getResult(RealtimeEngine.IAC));
+            assertTrue(results.getFailures().get("iac") instanceof CxException);
+            assertFalse(results.isComplete());
+            assertEquals(new HashSet<>(Arrays.asList("secrets", "containers", "iac")), results.getElapsedMillis().keySet());
+            assertEquals(1, results.getAllIssues().size());
+        }
+    }
+
+    @Test
+    @DisplayName("a single applicable engine scans the file itself")
+    void testSingleEngineScansFileDirectly() throws Exception {
+        Path source = workspace.resolve("notes.txt");
+        Files.write(source, "hello\n".getBytes(StandardCharsets.UTF_8));
+        List<String> scanned = new ArrayList<>();
+
+        try (MockedStatic<Execution> mocked = Mockito.mockStatic(Execution.class)) {
+            mocked.when(() -> Execution.executeCommand(anyList(), any(), any(Function.class)))
+                    .thenAnswer(invocation -> {
+                        List<String> arguments = invocation.getArgument(0);
+                        scanned.add(arguments.get(arguments.indexOf(CxConstants.SOURCE) + 1));
+                        return new SecretsRealtimeResults(Collections.emptyList());
+                    });
+
+            RealtimeFileResults results = subject.realtimeScanFile(source, RealtimeEngine.all());
+
+            assertEquals(Collections.singletonList(source.toString()), scanned);
+            assertEquals(Arrays.asList("oss", "containers", "iac", "asca"), results.getSkipped());
+            assertTrue(results.isComplete());
+        }
+    }
+
+    @Test
+    @DisplayName("unsaved content is staged under its file name and reported at the logical path")
+    void testRealtimeScanContent() throws Exception {
+        String logicalPath = workspace.resolve("src").resolve("config.env").toString();
+        List<String> scanned = new ArrayList<>();
+        List<String> stagedContents = new ArrayList<>();
+
+        try (MockedStatic<Execution> mocked = Mockito.mockStatic(Execution.class)) {
+            mocked.when(() -> Execution.executeCommand(anyList(), any(), any(Function.class)))
+                    .thenAnswer(invocation -> {
+                        List<String> arguments = invocation.getArgument(0);
+                        String source = arguments.get(arguments.indexOf(CxConstants.SOURCE) + 1);
+                        scanned.add(source);
+                        stagedContents.add(new String(Files.readAllBytes(Paths.get(source)), StandardCharsets.UTF_8));
+                        return new SecretsRealtimeResults(Collections.singletonList(new SecretsRealtimeResults.Secret(
+                                "generic-api-key", "Generic API key", "secret", source, "High",
+                                Collections.singletonList(new RealtimeLocation(0, 8, 20)))));
+                    });
+
+            SecretsRealtimeResults first = subject.realtimeScanContent(RealtimeEngine.SECRETS, logicalPath,
+                    "API_KEY=abcdef123456\n", null);
+            subject.realtimeScanContent(RealtimeEngine.SECRETS, logicalPath,
+                    "API_KEY=abcdef123456\n".getBytes(StandardCharsets.UTF_8), null);
+
+            assertEquals(2, scanned.size());
+            assertEquals(scanned.get(0), scanned.get(1));
+            assertTrue(scanned.get(0).endsWith("config.env"));
+            assertNotEquals(logicalPath, scanned.get(0));
+            assertFalse(Files.exists(Paths.get(scanned.get(0))));
+            assertFalse(Files.exists(Paths.get(logicalPath)));
+            assertEquals(Collections.nCopies(2, "API_KEY=abcdef123456\n"), stagedContents);
+            assertEquals(logicalPath, first.getSecrets().get(0).getFilePath());
+        }
+    }
+
+    @Test
+    @DisplayName("ASCA scans of unsaved content report the logical path")
+    void testScanAscaContent() throws Exception {
+        String logicalPath = workspace.resolve("Main.java").toString();
+        List<String> scanned = new ArrayList<>();
+
+        try (MockedStatic<Execution> mocked = Mockito.mockStatic(Execution.class)) {
+            mocked.when(() -> Execution.executeCommand(anyList(), any(), any(Function.class), any(BiFunction.class)))
+                    .thenAnswer(invocation -> {
+                        List<String> arguments = invocation.getArgument(0);
+                        String source = arguments.get(arguments.indexOf(CxConstants.FILE_SOURCE) + 1);
+                        scanned.add(source);
+                        return new ScanResult("request", true, "ok", Collections.singletonList(new ScanDetail(
+                                1, "java", "Hardcoded password", "High", source, 3, "String password = \"x\";",
+                                1, "Use a vault", "Hardcoded password")), null);
+                    });
+
+            ScanResult result = subject.ScanAsca(logicalPath, "class Main {}\n", false, null, null);
+
+            assertEquals(1, scanned.size());
+            assertTrue(scanned.get(0).endsWith("Main.java"));
+            assertFalse(Files.exists(Paths.get(scanned.get(0))));
+            assertEquals(logicalPath, result.getScanDetails().get(0).getFileName());
+        }
+    }
+
+    @Test
+    @DisplayName("engines apply by file name")
+    void testApplicability() {
+        assertTrue(RealtimeEngine.OSS.appliesTo(Paths.get("/w/package.json")));
+        assertTrue(RealtimeEngine.OSS.appliesTo(Paths.get("/w/requirements-dev.txt")));
+        assertTrue(RealtimeEngine.OSS.appliesTo(Paths.get("/w/App.csproj")));
+        assertFalse(RealtimeEngine.OSS.appliesTo(Paths.get("/w/README.md")));
+        assertTrue(RealtimeEngine.IAC.appliesTo(Paths.get("/w/main.tf")));
+        assertTrue(RealtimeEngine.IAC.appliesTo(Paths.get("/w/k8s/deploy.yaml")));
+        assertFalse(RealtimeEngine.IAC.appliesTo(Paths.get("/w/Main.java")));
+        assertTrue(RealtimeEngine.ASCA.appliesTo(Paths.get("/w/Main.java")));
+        assertTrue(RealtimeEngine.CONTAINERS.appliesTo(Paths.get("/w/docker-compose.yml")));
+        assertTrue(RealtimeEngine.SECRETS.appliesTo(Paths.get("/w/anything.bin")));
+    }
+}
@@ -0,0 +1,207 @@
+package com.checkmarx.ast.wrapper;
+
+import com.checkmarx.ast.containersrealtime.ContainersRealtimeResults;
+import com.checkmarx.ast.iacrealtime.IacRealtimeResults;
+import com.checkmarx.ast.ossrealtime.OssRealtimeResults;
+import com.checkmarx.ast.secretsrealtime.SecretsRealtimeResults;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.MockedStatic;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.slf4j.Logger;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.times;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("CxWrapperRelevanceGateTest")
+class CxWrapperRelevanceGateTest {
+
+    @Mock
+    Logger logger;
+
+    @TempDir
+    Path workspace;
+
+    private CxWrapper wrapper(Map<String, RelevanceGate> gates, Integer sniffBytes) throws Exception {
+        return new CxWrapper(CxConfig.builder().pathToExecutable("/opt/cx").maxParallelCommands(1)
+                .relevanceGates(gates).relevanceSniffBytes(sniffBytes).build(), logger);
+    }
+
+    private String write(String fileName, String content) throws Exception {
+        Path file = workspace.resolve(fileName);
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+        return file.toString();
+    }
+
+    @Test
+    @DisplayName("default gates answer irrelevant files without spawning the CLI and count them")
+    void testDefaultGatesSkipSpawns() throws Exception {
+        CxWrapper subject = wrapper(RealtimeEngine.defaultRelevanceGates(), null);
+        String java = write("Main.java", "class Main {}\n");
+        String dockerfile = write("Dockerfile", "# base image comes later\nRUN echo hi\n");
+        String readme = write("README.md", "# readme\n");
+        String blank = write("notes.txt", " \n\n");
+
+        try (MockedStatic<Execution> mocked = Mockito.mockStatic(Execution.class)) {
+            assertTrue(subject.iacRealtimeScan(java, "", null).getResults().isEmpty());
+            assertTrue(subject.containersRealtimeScan(dockerfile, null).getImages().isEmpty());
+            assertTrue(subject.ossRealtimeScan(readme, null).getPackages().isEmpty());
+            assertTrue(subject.secretsRealtimeScan(blank, null).getSecrets().isEmpty());
+
+            mocked.verifyNoInteractions();
+        }
+
+        Map<String, Long> expected = new TreeMap<>();
+        expected.put("containers", 1L);
+        expected.put("iac", 1L);
+        expected.put("oss", 1L);
+        expected.put("secrets", 1L);
+        assertEquals(expected, subject.getSkippedRealtimeScans());
+    }
+
+    @Test
+    @DisplayName("relevant files are scanned")
+    void testRelevantFilesSpawn() throws Exception {
+        CxWrapper subject = wrapper(RealtimeEngine.defaultRelevanceGates(), null);
+        String dockerfile = write("Dockerfile", "FROM nginx:1.25\n");
+        String terraform = write("main.tf", "resource \"aws_s3_bucket\" \"b\" {}\n");
+
+        try (MockedStatic<Execution> mocked = Mockito.mockStatic(Execution.class)) {
+            mocked.when(() -> Execution.executeCommand(anyList(), any(), any(Function.class)))
+                    .thenReturn(new ContainersRealtimeResults(Collections.emptyList()))
+                    .thenReturn(new IacRealtimeResults(Collections.emptyList()));
+
+            subject.containersRealtimeScan(dockerfile, null);
+            subject.iacRealtimeScan(terraform, "", null);
+
+            mocked.verify(() -> Execution.executeCommand(anyList(), any(), any(Function.class)), times(2));
+        }
+        assertTrue(subject.getSkippedRealtimeScans().isEmpty());
+    }
+
+    @Test
+    @DisplayName("without gates every scan is spawned")
+    void testGatingDisabledByDefault() throws Exception {
+        CxWrapper subject = wrapper(null, null);
+        String java = write("Main.java", "class Main {}\n");
+
+        try (MockedStatic<Execution> mocked = Mockito.mockStatic(Execution.class)) {
+            mocked.when(() -> Execution.executeCommand(anyList(), any(), any(Function.class)))
+                    .thenReturn(new IacRealtimeResults(Collections.emptyList()));
+
+            subject.iacRealtimeScan(java, "", null);
+
+            mocked.verify(() -> Execution.executeCommand(anyList(), any(), any(Function.class)));
+        }
+        assertTrue(subject.getSkippedRealtimeScans().isEmpty());
+    }
+
+    @Test
+    @DisplayName("custom gates see the content up to the sniff limit and failing gates never skip")
+    void testCustomGates() throws Exception {
+        AtomicReference<String> seen = new AtomicReference<>("unset");
+        Map<String, RelevanceGate> gates = new HashMap<>();
+        gates.put("oss", (file, content) -> {
+            seen.set(content);
+            return false;
+        });
+        gates.put("secrets", (file, content) -> {
+            throw new IllegalStateException("broken gate");
+        });
+        CxWrapper subject = wrapper(gates, 8);
+        String small = write("package.json", "{}");
+        String large = write("requirements.txt", "requests==2.31.0\n");
+
+        try (MockedStatic<Execution> mocked = Mockito.mockStatic(Execution.class)) {
+            mocked.when(() -> Execution.executeCommand(anyList(), any(), any(Function.class)))
+                    .thenReturn(new SecretsRealtimeResults(Collections.emptyList()));
+
+            assertTrue(subject.ossRealtimeScan(small, null).getPackages().isEmpty());
+            assertEquals("{}", seen.get());
+            subject.ossRealtimeScan(large, null);
+            assertNull(seen.get());
+            subject.secretsRealtimeScan(small, null);
+
+            mocked.verify(() -> Execution.executeCommand(anyList(), any(), any(Function.class)));
+        }
+        assertEquals(Collections.singletonMap("oss", 2L), subject.getSkippedRealtimeScans());
+    }
+
+    @Test
+    @DisplayName("realtimeScanFile reports gated engines as skipped")
+    void testRealtimeScanFileGates() throws Exception {
+        CxWrapper subject = wrapper(RealtimeEngine.defaultRelevanceGates(), null);
+        Path compose = Paths.get(write("docker-compose.yml", "services:\n  web:\n    build: .\n"));
+
+        try (MockedStatic<Execution> mocked = Mockito.mockStatic(Execution.class)) {
+            mocked.when(() -> Execution.executeCommand(anyList(), any(), any(Function.class)))
+                    .thenReturn(new IacRealtimeResults(Collections.emptyList()))
+                    .thenReturn(new SecretsRealtimeResults(Collections.emptyList()));
+
+            RealtimeFileResults results = subject.realtimeScanFile(compose,
+                    Arrays.asList(RealtimeEngine.OSS, RealtimeEngine.CONTAINERS, RealtimeEngine.IAC));
+
+            assertEquals(Arrays.asList("oss", "containers"), results.getSkipped());
+            assertEquals(Collections.singleton("iac"), results.getElapsedMillis().keySet());
+        }
+        Map<String, Long> expected = new TreeMap<>();
+        expected.put("containers", 1L);
+        expected.put("oss", 1L);
+        assertEquals(expected, subject.getSkippedRealtimeScans());
+    }
+
+    @Test
+    @DisplayName("realtimeScanFile skips engines missing from custom gates by name and asks each gate once")
+    void testRealtimeScanFileCustomGates() throws Exception {
+        AtomicInteger asked = new AtomicInteger();
+        CxWrapper subject = wrapper(Collections.singletonMap("iac", (file, content) -> {
+            asked.incrementAndGet();
+            return true;
+        }), null);
+        Path compose = Paths.get(write("docker-compose.yml", "services:\n  web:\n    build: .\n"));
+
+        try (MockedStatic<Execution> mocked = Mockito.mockStatic(Execution.class)) {
+            mocked.when(() -> Execution.executeCommand(anyList(), any(), any(Function.class)))
+                    .thenReturn(new IacRealtimeResults(Collections.emptyList()));
+
+            RealtimeFileResults results = subject.realtimeScanFile(compose,
+                    Arrays.asList(RealtimeEngine.OSS, RealtimeEngine.IAC));
+
+            assertEquals(Collections.singletonList("oss"), results.getSkipped());
+            assertEquals(Collections.singleton("iac"), results.getElapsedMillis().keySet());
+        }
+        assertEquals(1, asked.get());
+        assertEquals(Collections.singletonMap("oss", 1L), subject.getSkippedRealtimeScans());
+    }
+
+    @Test
+    @DisplayName("built-in gates rule out by name, blank content and missing image references")
+    void testBuiltInGates() {
+        assertFalse(RealtimeEngine.IAC.getGate().mayFind(Paths.get("Main.java"), null));
+        assertTrue(RealtimeEngine.IAC.getGate().mayFind(Paths.get("main.tf"), null));
+        assertFalse(RealtimeEngine.IAC.getGate().mayFind(Paths.get("main.tf"), "\n \t\n"));
+        assertTrue(RealtimeEngine.CONTAINERS.getGate().mayFind(Paths.get("Dockerfile"), null));
+        assertTrue(RealtimeEngine.CONTAINERS.getGate().mayFind(Paths.get("Dockerfile"), "ARG V\n  from alpine:${V}\n"));
+        assertFalse(RealtimeEngine.CONTAINERS.getGate().mayFind(Paths.get("Dockerfile"), "RUN echo from\n"));
+        assertTrue(RealtimeEngine.CONTAINERS.getGate().mayFind(Paths.get("compose.yaml"), "services:\n  - image: x\n"));
+        assertTrue(RealtimeEngine.SECRETS.getGate().mayFind(Paths.get("any.bin"), null));
+        assertTrue(RealtimeEngine.OSS.getGate().and(RelevanceGate.ALWAYS).mayFind(Paths.get("go.mod"), "module x\n"));
+        assertFalse(RelevanceGate.byName(file -> false).mayFind(Paths.get("go.mod"), null));
+    }
+}
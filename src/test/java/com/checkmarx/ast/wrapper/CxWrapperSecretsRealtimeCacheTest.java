@@ -0,0 +1,107 @@
+package com.checkmarx.ast.wrapper;
+
+import com.checkmarx.ast.realtime.RealtimeLocation;
+import com.checkmarx.ast.secretsrealtime.SecretsRealtimeResults;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.MockedStatic;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.slf4j.Logger;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("CxWrapperSecretsRealtimeCacheTest")
+class CxWrapperSecretsRealtimeCacheTest {
+
+    @Mock
+    Logger logger;
+
+    @TempDir
+    Path workspace;
+
+    private CxWrapper subject;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        CxConfig config = CxConfig.builder()
+                .apiKey("test-api-key")
+                .pathToExecutable("/opt/cx")
+                .secretsRealtimeCacheTtl(Duration.ofMinutes(10))
+                .build();
+        subject = new CxWrapper(config, logger);
+    }
+
+    @Test
+    @DisplayName("edited file is rescanned through a slice and locations are mapped back")
+    void testEditScansChangedLinesOnly() throws Exception {
+        Path file = workspace.resolve("app.env");
+        List<String> content = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            content.add("KEY_" + i + "=value");
+        }
+        write(file, content);
+        List<String> scanned = new ArrayList<>();
+
+        try (MockedStatic<Execution> mocked = Mockito.mockStatic(Execution.class)) {
+            mocked.when(() -> Execution.executeCommand(anyList(), any(), any(Function.class)))
+                    .thenAnswer(invocation -> {
+                        List<String> arguments = invocation.getArgument(0);
+                        String source = arguments.get(arguments.indexOf(CxConstants.SOURCE) + 1);
+                        List<String> lines = Files.readAllLines(Paths.get(source), StandardCharsets.UTF_8);
+                        scanned.add(source);
+                        List<SecretsRealtimeResults.Secret> secrets = new ArrayList<>();
+                        for (int i = 0; i < lines.size(); i++) {
+                            if (lines.get(i).startsWith("TOKEN=")) {
+                                secrets.add(new SecretsRealtimeResults.Secret("Generic", "d", "s", source, "High",
+                                        Collections.singletonList(new RealtimeLocation(i, 6, 12))));
+                            }
+                        }
+                        return new SecretsRealtimeResults(secrets);
+                    });
+
+            content.set(40, "TOKEN=abcdef");
+            write(file, content);
+            subject.secretsRealtimeScan(file.toString(), null);
+
+            content.add(10, "TOKEN=123456");
+            write(file, content);
+            SecretsRealtimeResults results = subject.secretsRealtimeScan(file.toString(), null);
+            SecretsRealtimeResults unchanged = subject.secretsRealtimeScan(file.toString(), null);
+
+            assertEquals(2, scanned.size());
+            assertEquals(file.toString(), scanned.get(0));
+            assertNotEquals(file.toString(), scanned.get(1));
+            assertTrue(scanned.get(1).endsWith("app.env"));
+            assertFalse(Files.exists(Paths.get(scanned.get(1))));
+            assertEquals(2, results.getSecrets().size());
+            assertEquals(10, results.getSecrets().get(0).getLocations().get(0).getLine());
+            assertEquals(41, results.getSecrets().get(1).getLocations().get(0).getLine());
+            for (SecretsRealtimeResults.Secret secret : results.getSecrets()) {
+                assertEquals(file.toString(), secret.getFilePath());
+            }
+            assertEquals(results, unchanged);
+        }
+    }
+
+    private static void write(Path file, List<String> lines) throws Exception {
+        Files.write(file, String.join("\n", lines).getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,78 @@
+package com.checkmarx.ast.wrapper;
+
+import com.checkmarx.ast.results.ResultsSink;
+import com.checkmarx.ast.results.result.Result;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.MockedStatic;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.slf4j.Logger;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("CxWrapperStreamResultsTest")
+class CxWrapperStreamResultsTest {
+
+    private static final UUID FIRST = UUID.fromString("0b8c8a4e-5f0e-4c1a-9d3b-2f7e6a1c4d10");
+    private static final UUID SECOND = UUID.fromString("7d2e4f6a-8b1c-4e3d-a5f7-9c0b1d2e3f40");
+
+    @Mock
+    Logger logger;
+
+    @Test
+    @DisplayName("streamResults tags each result with its scan and deletes the reports")
+    void testStreamResults() throws Exception {
+        CxWrapper subject = new CxWrapper(CxConfig.builder().pathToExecutable("/opt/cx").build(), logger);
+        List<Path> reports = new ArrayList<>();
+        Map<UUID, List<String>> received = new LinkedHashMap<>();
+        Map<UUID, Integer> completed = new LinkedHashMap<>();
+
+        try (MockedStatic<Execution> mocked = Mockito.mockStatic(Execution.class)) {
+            mocked.when(() -> Execution.executeCommandToFile(anyList(), any(), anyString(), anyString()))
+                    .thenAnswer(invocation -> {
+                        List<String> arguments = invocation.getArgument(0);
+                        String scanId = arguments.get(arguments.indexOf(CxConstants.SCAN_ID) + 1);
+                        if (SECOND.toString().equals(scanId)) {
+                            throw new CxException(1, "scan not found");
+                        }
+                        Path report = Paths.get(invocation.<String>getArgument(2), invocation.<String>getArgument(3));
+                        Files.write(report, ("{\"totalCount\":2,\"results\":[{\"similarityId\":\"a\"},"
+                                + "{\"similarityId\":\"b\"}]}").getBytes(StandardCharsets.UTF_8));
+                        reports.add(report);
+                        return report;
+                    });
+
+            // static mocks are thread local, so reports are fetched on the calling thread
+            Map<UUID, Exception> failures = subject.streamResults(Arrays.asList(FIRST, SECOND, FIRST), 1, new ResultsSink() {
+                @Override
+                public void accept(UUID scanId, Result result) {
+                    received.computeIfAbsent(scanId, id -> new ArrayList<>()).add(result.getSimilarityId());
+                }
+
+                @Override
+                public void complete(UUID scanId, int totalCount) {
+                    completed.put(scanId, totalCount);
+                }
+            });
+
+            assertEquals(Collections.singletonMap(FIRST, Arrays.asList("a", "b")), received);
+            assertEquals(Collections.singletonMap(FIRST, 2), completed);
+            assertEquals(Collections.singleton(SECOND), failures.keySet());
+            assertEquals(1, reports.size());
+            assertFalse(Files.exists(reports.get(0).getParent()));
+        }
+    }
+}
@@ -0,0 +1,239 @@
+package com.checkmarx.ast.wrapper;
+
+import com.checkmarx.ast.predicate.Predicate;
+import com.checkmarx.ast.predicate.TriageUpdate;
+import com.checkmarx.ast.predicate.TriageUpdateOutcome;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.MockedStatic;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.slf4j.Logger;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("CxWrapperTriageBatchTest")
+class CxWrapperTriageBatchTest {
+
+    private static final UUID PROJECT_ID = UUID.fromString("3f6a5b2c-1d4e-4f8a-9c0b-7e2d1a3f5c8e");
+
+    @Mock
+    Logger logger;
+
+    private CxWrapper subject;
+    private final List<List<String>> invocations = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        // static mocks are thread local, so commands run on the calling thread
+        CxConfig config = CxConfig.builder()
+                .pathToExecutable("/opt/cx")
+                .maxParallelCommands(1)
+                .build();
+        subject = new CxWrapper(config, logger);
+    }
+
+    @Test
+    @DisplayName("SCA updates sharing state and comment are merged into one command")
+    void testScaUpdatesGrouped() throws Exception {
+        List<TriageUpdate> updates = Arrays.asList(
+                sca("pkg-a", "NOT_EXPLOITABLE", "fp"),
+                sca("pkg-b", "NOT_EXPLOITABLE", "fp"),
+                sca("pkg-c", "CONFIRMED", "fp"),
+                TriageUpdate.builder().projectId(PROJECT_ID).scanType("sast").similarityId("sim-1")
+                        .state("CONFIRMED").severity("HIGH").build());
+
+        try (MockedStatic<Execution> mocked = mockExecution(null)) {
+            List<TriageUpdateOutcome> outcomes = subject.triageUpdateBatch(updates);
+
+            assertEquals(3, invocations.size());
+            assertTrue(outcomes.stream().allMatch(TriageUpdateOutcome::isSuccess));
+            assertSame(updates.get(3), outcomes.get(3).getUpdate());
+            assertTrue(invocations.stream().anyMatch(arguments -> arguments.contains("pkg-a;pkg-b")));
+            assertTrue(invocations.stream().anyMatch(arguments -> arguments.contains("sim-1")));
+        }
+    }
+
+    @Test
+    @DisplayName("a failed command is reported for every update it carried")
+    void testFailureReportedPerItem() throws Exception {
+        List<TriageUpdate> updates = Arrays.asList(
+                sca("pkg-a", "NOT_EXPLOITABLE", "fp"),
+                sca("pkg-b", "NOT_EXPLOITABLE", "fp"),
+                sca(" ", "NOT_EXPLOITABLE", "fp"));
+
+        try (MockedStatic<Execution> mocked = mockExecution(new CxException(1, "denied"))) {
+            List<TriageUpdateOutcome> outcomes = subject.triageUpdateBatch(updates);
+
+            assertEquals(1, invocations.size());
+            assertEquals("denied", outcomes.get(0).getError().getMessage());
+            assertSame(outcomes.get(0).getError(), outcomes.get(1).getError());
+            assertTrue(outcomes.get(2).getError() instanceof IllegalArgumentException);
+        }
+    }
+
+    @Test
+    @DisplayName("merged identifiers are split to stay within the command line limit")
+    void testLongIdentifierListsChunked() throws Exception {
+        List<TriageUpdate> updates = new ArrayList<>();
+        char[] filler = new char[999];
+        Arrays.fill(filler, 'x');
+        for (int i = 0; i < 40; i++) {
+            updates.add(sca(new String(filler) + i % 10, "NOT_EXPLOITABLE", "fp"));
+        }
+
+        try (MockedStatic<Execution> mocked = mockExecution(null)) {
+            subject.triageUpdateBatch(updates);
+
+            assertEquals(3, invocations.size());
+            for (List<String> arguments : invocations) {
+                String identifiers = arguments.get(arguments.indexOf(CxConstants.VULNERABILITY_IDENTIFIERS) + 1);
+                assertTrue(identifiers.length() <= CxWrapper.SCA_IDENTIFIERS_MAX_LENGTH);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("commands run with bounded parallelism")
+    void testBoundedParallelism() throws Exception {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        List<Integer> items = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            items.add(i);
+        }
+
+        ParallelCommands.forEach(items, 3, item -> {
+            peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+            Thread.sleep(10);
+            running.decrementAndGet();
+        });
+
+        assertTrue(peak.get() <= 3);
+        assertTrue(peak.get() > 1);
+    }
+
+    @Test
+    @DisplayName("triageShowBatch deduplicates ids and streams each result to the callback")
+    void testShowBatchDeduplicatesAndStreams() throws Exception {
+        Map<String, List<Predicate>> streamed = new LinkedHashMap<>();
+        try (MockedStatic<Execution> mocked = Mockito.mockStatic(Execution.class)) {
+            mocked.when(() -> Execution.executeCommand(anyList(), any(), any(Function.class), any(BiFunction.class)))
+                    .thenAnswer(invocation -> {
+                        List<String> arguments = invocation.getArgument(0);
+                        invocations.add(new ArrayList<>(arguments));
+                        String similarityId = arguments.get(arguments.indexOf(CxConstants.SIMILARITY_ID) + 1);
+                        if ("sim-broken".equals(similarityId)) {
+                            throw new CxException(1, "not found");
+                        }
+                        return Collections.singletonList(new Predicate("id", similarityId, PROJECT_ID.toString(),
+                                "TO_VERIFY", "HIGH", "", "user", "", "", null));
+                    });
+
+            Map<String, List<Predicate>> result = subject.triageShowBatch(PROJECT_ID, "sast",
+                    Arrays.asList("sim-2", "sim-1", "sim-2", " ", "sim-broken"), streamed::put);
+
+            assertEquals(3, invocations.size());
+            assertEquals(Arrays.asList("sim-2", "sim-1"), new ArrayList<>(result.keySet()));
+            assertEquals("sim-1", result.get("sim-1").get(0).getSimilarityId());
+            assertEquals(result, streamed);
+        }
+    }
+
+    @Test
+    @DisplayName("long SCA identifier lists are split on their own separator")
+    void testScaIdentifierChunks() {
+        assertEquals(Collections.singletonList("a,b"), CxWrapper.scaIdentifierChunks("a,b"));
+
+        List<String> chunks = CxWrapper.scaIdentifierChunks(identifiers(40, ";"));
+        assertEquals(3, chunks.size());
+        for (String chunk : chunks) {
+            assertTrue(chunk.length() <= CxWrapper.SCA_IDENTIFIERS_MAX_LENGTH);
+            assertTrue(chunk.contains("packagename="));
+        }
+        assertEquals(identifiers(40, ";"), String.join(";", chunks));
+    }
+
+    @Test
+    @DisplayName("triageScaShow merges the predicates of every chunk")
+    void testScaShowChunksMerged() throws Exception {
+        try (MockedStatic<Execution> mocked = Mockito.mockStatic(Execution.class)) {
+            mocked.when(() -> Execution.executeCommand(anyList(), any(), any(Function.class), any(BiFunction.class)))
+                    .thenAnswer(invocation -> {
+                        invocations.add(new ArrayList<>(invocation.<List<String>>getArgument(0)));
+                        return Collections.singletonList(new Predicate("id-" + invocations.size(), null,
+                                PROJECT_ID.toString(), "TO_VERIFY", "HIGH", "", "user", "", "", null));
+                    });
+
+            List<Predicate> predicates = subject.triageScaShow(PROJECT_ID, identifiers(40, ";"), "sca");
+
+            assertEquals(3, invocations.size());
+            assertEquals(Arrays.asList("id-1", "id-2", "id-3"),
+                    Arrays.asList(predicates.get(0).getId(), predicates.get(1).getId(), predicates.get(2).getId()));
+        }
+    }
+
+    @Test
+    @DisplayName("triageScaUpdate reports the failure of each chunk")
+    void testScaUpdatePartialFailure() throws Exception {
+        try (MockedStatic<Execution> mocked = Mockito.mockStatic(Execution.class)) {
+            mocked.when(() -> Execution.executeCommand(anyList(), any(), any(Function.class)))
+                    .thenAnswer(invocation -> {
+                        invocations.add(new ArrayList<>(invocation.<List<String>>getArgument(0)));
+                        if (invocations.size() == 2) {
+                            throw new CxException(2, "rejected");
+                        }
+                        return null;
+                    });
+
+            CxPartialFailureException e = assertThrows(CxPartialFailureException.class, () ->
+                    subject.triageScaUpdate(PROJECT_ID, "NOT_EXPLOITABLE", "fp", identifiers(40, ";"), "sca"));
+
+            assertEquals(3, invocations.size());
+            assertEquals(3, e.getChunkCount());
+            assertEquals(1, e.getChunkFailures().size());
+            assertEquals(2, e.getExitCode());
+        }
+    }
+
+    private static String identifiers(int count, String separator) {
+        StringJoiner joiner = new StringJoiner(separator);
+        char[] filler = new char[900];
+        Arrays.fill(filler, 'x');
+        for (int i = 0; i < count; i++) {
+            joiner.add("packagename=" + new String(filler) + i + ",packageversion=1.0.0,vulnerabilityId=CVE-" + i
+                    + ",packagemanager=npm");
+        }
+        return joiner.toString();
+    }
+
+    private static TriageUpdate sca(String vulnerabilities, String state, String comment) {
+        return TriageUpdate.builder().projectId(PROJECT_ID).scanType("SCA").vulnerabilities(vulnerabilities)
+                .state(state).comment(comment).build();
+    }
+
+    @SuppressWarnings("unchecked")
+    private MockedStatic<Execution> mockExecution(CxException failure) {
+        MockedStatic<Execution> mocked = Mockito.mockStatic(Execution.class);
+        mocked.when(() -> Execution.executeCommand(anyList(), any(), any(Function.class)))
+                .thenAnswer(invocation -> {
+                    invocations.add(new ArrayList<>(invocation.<List<String>>getArgument(0)));
+                    if (failure != null) {
+                        throw failure;
+                    }
+                    return null;
+                });
+        return mocked;
+    }
+}
@@ -0,0 +1,109 @@
+package com.checkmarx.ast.wrapper;
+
+import com.checkmarx.ast.predicate.CustomState;
+import com.checkmarx.ast.predicate.Predicate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.MockedStatic;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.slf4j.Logger;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("CxWrapperTriageCacheTest")
+class CxWrapperTriageCacheTest {
+
+    private static final UUID PROJECT_ID = UUID.fromString("3f6a5b2c-1d4e-4f8a-9c0b-7e2d1a3f5c8e");
+
+    @Mock
+    Logger logger;
+
+    private CxWrapper subject;
+    private final List<List<String>> invocations = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        CxConfig config = CxConfig.builder()
+                .pathToExecutable("/opt/cx")
+                .triageCacheTtl(Duration.ofMinutes(5))
+                .build();
+        subject = new CxWrapper(config, logger);
+    }
+
+    @Test
+    @DisplayName("triageShow is answered from the cache until triageUpdate invalidates it")
+    void testTriageShowCachedUntilUpdate() throws Exception {
+        try (MockedStatic<Execution> mocked = mockExecution()) {
+            subject.triageShow(PROJECT_ID, "sim-1", "sast");
+            List<Predicate> cached = subject.triageShow(PROJECT_ID, "sim-1", "sast");
+            assertEquals(1, invocations.size());
+            assertEquals("sim-1", cached.get(0).getSimilarityId());
+
+            subject.triageUpdate(PROJECT_ID, "sim-1", "sast", "CONFIRMED", "ok", "HIGH");
+            subject.triageShow(PROJECT_ID, "sim-1", "sast");
+
+            assertEquals(3, invocations.size());
+        }
+    }
+
+    @Test
+    @DisplayName("triageScaUpdate invalidates overlapping SCA entries")
+    void testScaUpdateInvalidatesOverlappingEntries() throws Exception {
+        try (MockedStatic<Execution> mocked = mockExecution()) {
+            subject.triageScaShow(PROJECT_ID, "pkg-a,pkg-b", "sca");
+            subject.triageScaShow(PROJECT_ID, "pkg-c", "sca");
+            subject.triageScaUpdate(PROJECT_ID, "NOT_EXPLOITABLE", "fp", "pkg-b", "sca");
+            subject.triageScaShow(PROJECT_ID, "pkg-b,pkg-a", "sca");
+            subject.triageScaShow(PROJECT_ID, "pkg-c", "sca");
+
+            assertEquals(4, invocations.size());
+        }
+    }
+
+    @Test
+    @DisplayName("triageGetStates is cached per flag")
+    void testGetStatesCached() throws Exception {
+        try (MockedStatic<Execution> mocked = mockExecution()) {
+            subject.triageGetStates(true);
+            subject.triageGetStates(true);
+            subject.triageGetStates(false);
+
+            assertEquals(2, invocations.size());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private MockedStatic<Execution> mockExecution() {
+        MockedStatic<Execution> mocked = Mockito.mockStatic(Execution.class);
+        mocked.when(() -> Execution.executeCommand(anyList(), any(), any(Function.class), any(BiFunction.class)))
+                .thenAnswer(invocation -> {
+                    invocations.add(invocation.getArgument(0));
+                    return Collections.singletonList(new Predicate("id", "sim-1", PROJECT_ID.toString(),
+                            "TO_VERIFY", "HIGH", "", "user", "", "", null));
+                });
+        mocked.when(() -> Execution.executeCommand(anyList(), any(), any(Function.class)))
+                .thenAnswer(invocation -> {
+                    invocations.add(invocation.getArgument(0));
+                    List<String> arguments = invocation.getArgument(0);
+                    return arguments.contains(CxConstants.SUB_CMD_GET_STATES)
+                            ? Collections.singletonList(new CustomState(1, "Confirmed", "System"))
+                            : null;
+                });
+        return mocked;
+    }
+}
@@ -0,0 +1,52 @@
+package com.checkmarx.ast.wrapper;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("ParallelCommandsTest")
+class ParallelCommandsTest {
+
+    @Test
+    @DisplayName("an interrupted task is rethrown after the other tasks finish")
+    void testInterruptedTaskIsRethrown() {
+        List<Integer> items = Arrays.asList(1, 2, 3, 4);
+        AtomicInteger finished = new AtomicInteger();
+
+        try {
+            assertThrows(InterruptedException.class, () -> ParallelCommands.forEach(items, 2, item -> {
+                if (item == 2) {
+                    throw new InterruptedException("stopped");
+                }
+                finished.incrementAndGet();
+            }));
+            assertTrue(Thread.currentThread().isInterrupted());
+            assertEquals(3, finished.get());
+        } finally {
+            Thread.interrupted();
+        }
+    }
+
+    @Test
+    @DisplayName("a runtime exception of a task is rethrown")
+    void testRuntimeExceptionIsRethrown() {
+        IllegalStateException thrown = assertThrows(IllegalStateException.class, () ->
+                ParallelCommands.forEach(Arrays.asList(1, 2), 2, item -> {
+                    throw new IllegalStateException("task " + item);
+                }));
+        assertTrue(thrown.getMessage().startsWith("task "));
+    }
+
+    @Test
+    @DisplayName("single item batches run on the calling thread")
+    void testInline() throws Exception {
+        Thread caller = Thread.currentThread();
+        ParallelCommands.forEach(Collections.singletonList(1), 4, item -> assertSame(caller, Thread.currentThread()));
+    }
+}
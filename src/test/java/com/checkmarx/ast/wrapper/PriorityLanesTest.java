@@ -0,0 +1,119 @@
+package com.checkmarx.ast.wrapper;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PriorityLanesTest {
+
+    @Test
+    void testForegroundStartsBeforeQueuedBackground() throws Exception {
+        PriorityLanes lanes = new PriorityLanes(1, 1);
+        try {
+            CountDownLatch backgroundBusy = new CountDownLatch(1);
+            CountDownLatch foregroundBusy = new CountDownLatch(1);
+            CountDownLatch release = new CountDownLatch(1);
+            // the background worker also takes foreground tasks, so it is occupied first
+            lanes.execute(ScanPriority.BACKGROUND, () -> {
+                backgroundBusy.countDown();
+                await(release);
+            });
+            assertTrue(backgroundBusy.await(5, TimeUnit.SECONDS));
+            lanes.execute(ScanPriority.FOREGROUND, () -> {
+                foregroundBusy.countDown();
+                await(release);
+            });
+            assertTrue(foregroundBusy.await(5, TimeUnit.SECONDS));
+
+            List<String> order = Collections.synchronizedList(new ArrayList<>());
+            CountDownLatch done = new CountDownLatch(4);
+            for (String name : new String[]{"bg-1", "bg-2"}) {
+                lanes.execute(ScanPriority.BACKGROUND, () -> {
+                    order.add(name);
+                    done.countDown();
+                });
+            }
+            for (String name : new String[]{"fg-1", "fg-2"}) {
+                lanes.execute(ScanPriority.FOREGROUND, () -> {
+                    order.add(name);
+                    done.countDown();
+                });
+            }
+            assertEquals(2, lanes.getStats(ScanPriority.BACKGROUND).getQueued());
+            release.countDown();
+
+            assertTrue(done.await(5, TimeUnit.SECONDS));
+            assertTrue(order.indexOf("fg-1") < order.indexOf("bg-1"));
+            assertTrue(order.indexOf("fg-2") < order.indexOf("bg-1"));
+            LaneStats background = lanes.getStats(ScanPriority.BACKGROUND);
+            assertEquals(3, background.getSubmitted());
+            assertEquals(3, background.getStarted());
+            assertEquals(0, background.getQueued());
+            assertTrue(background.getMaxWaitMillis() >= background.getMeanWaitMillis());
+        } finally {
+            lanes.shutdownNow();
+        }
+    }
+
+    @Test
+    void testBackgroundNeverExceedsBudget() throws Exception {
+        PriorityLanes lanes = new PriorityLanes(3, 1);
+        try {
+            AtomicInteger running = new AtomicInteger();
+            AtomicInteger peak = new AtomicInteger();
+            CountDownLatch done = new CountDownLatch(6);
+            for (int i = 0; i < 6; i++) {
+                lanes.execute(ScanPriority.BACKGROUND, () -> {
+                    peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+                    sleep();
+                    running.decrementAndGet();
+                    done.countDown();
+                });
+            }
+            assertTrue(done.await(5, TimeUnit.SECONDS));
+            assertEquals(1, peak.get());
+        } finally {
+            lanes.shutdownNow();
+        }
+    }
+
+    @Test
+    void testSchedulerRunsBackgroundSubmissions() throws Exception {
+        RealtimeEngine<String> engine = new RealtimeEngine<>("test", (wrapper, sourcePath, ignored, checkRelevance) -> "done");
+        CxWrapper wrapper = new CxWrapper(CxConfig.builder().pathToExecutable("/opt/cx").build());
+        try (RealtimeScanScheduler scheduler = new RealtimeScanScheduler(wrapper, Duration.ZERO, 1, 1)) {
+            CompletableFuture<String> result = scheduler.submit(Paths.get("/work/a.tf"), engine, null,
+                    ScanPriority.BACKGROUND);
+
+            assertEquals("done", result.get(5, TimeUnit.SECONDS));
+            assertEquals(1, scheduler.getLaneStats(ScanPriority.BACKGROUND).getStarted());
+            assertEquals(0, scheduler.getLaneStats(ScanPriority.FOREGROUND).getStarted());
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sleep() {
+        try {
+            Thread.sleep(10);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
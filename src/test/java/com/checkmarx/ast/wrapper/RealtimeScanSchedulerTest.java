@@ -0,0 +1,105 @@
+package com.checkmarx.ast.wrapper;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+import org.slf4j.LoggerFactory;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RealtimeScanSchedulerTest {
+
+    private static final Path FILE = Paths.get("/work/package.json");
+
+    @Test
+    void testRapidSubmissionsCoalesced() throws Exception {
+        AtomicInteger scans = new AtomicInteger();
+        RealtimeEngine<String> engine = new RealtimeEngine<>("test", (wrapper, sourcePath, ignored, checkRelevance) ->
+                "scan-" + scans.incrementAndGet());
+
+        try (RealtimeScanScheduler scheduler = new RealtimeScanScheduler(wrapper(), Duration.ofMillis(200), 2)) {
+            CompletableFuture<String> first = scheduler.submit(FILE, engine, null);
+            CompletableFuture<String> second = scheduler.submit(FILE, engine, null);
+            CompletableFuture<String> third = scheduler.submit(FILE, engine, null);
+
+            assertEquals("scan-1", third.get(5, TimeUnit.SECONDS));
+            assertTrue(first.isCancelled());
+            assertTrue(second.isCancelled());
+            assertEquals(1, scans.get());
+            assertEquals(0, scheduler.getActiveCount());
+        }
+    }
+
+    @Test
+    void testInFlightScanSupersededAndDiscarded() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger scans = new AtomicInteger();
+        RealtimeEngine<String> engine = new RealtimeEngine<>("test", (wrapper, sourcePath, ignored, checkRelevance) -> {
+            int scan = scans.incrementAndGet();
+            if (scan == 1) {
+                started.countDown();
+                release.await();
+            }
+            return "scan-" + scan;
+        });
+
+        try (RealtimeScanScheduler scheduler = new RealtimeScanScheduler(wrapper(), Duration.ZERO, 2)) {
+            CompletableFuture<String> stale = scheduler.submit(FILE, engine, null);
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            CompletableFuture<String> latest = scheduler.submit(FILE, engine, null);
+
+            assertEquals("scan-2", latest.get(5, TimeUnit.SECONDS));
+            release.countDown();
+            assertTrue(stale.isCancelled());
+        }
+    }
+
+    @Test
+    void testKeysAreIndependent() throws Exception {
+        RealtimeEngine<String> engine = new RealtimeEngine<>("test", (wrapper, sourcePath, ignored, checkRelevance) -> sourcePath);
+        RealtimeEngine<String> other = new RealtimeEngine<>("other", (wrapper, sourcePath, ignored, checkRelevance) -> "other");
+
+        try (RealtimeScanScheduler scheduler = new RealtimeScanScheduler(wrapper(), Duration.ZERO, 2)) {
+            CompletableFuture<String> first = scheduler.submit(FILE, engine, null);
+            CompletableFuture<String> second = scheduler.submit(Paths.get("/work/requirements.txt"), engine, null);
+            CompletableFuture<String> third = scheduler.submit(FILE, other, null);
+
+            assertEquals(FILE.toAbsolutePath().toString(), first.get(5, TimeUnit.SECONDS));
+            assertTrue(second.get(5, TimeUnit.SECONDS).endsWith("requirements.txt"));
+            assertEquals("other", third.get(5, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    @EnabledOnOs({OS.LINUX, OS.MAC})
+    void testCancellationKillsRunningProcess() throws Exception {
+        CommandCancellation cancellation = new CommandCancellation();
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<Object> running = executor.submit(() -> cancellation.run(() ->
+                    Execution.executeCommand(Arrays.asList("sleep", "30"), LoggerFactory.getLogger(getClass()),
+                            line -> line)));
+            Thread.sleep(200);
+            long start = System.nanoTime();
+            cancellation.cancel();
+
+            ExecutionException e = assertThrows(ExecutionException.class, () -> running.get(5, TimeUnit.SECONDS));
+            assertTrue(e.getCause() instanceof CancellationException);
+            assertTrue(TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start) < 5);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static CxWrapper wrapper() throws Exception {
+        return new CxWrapper(CxConfig.builder().pathToExecutable("/opt/cx").build());
+    }
+}
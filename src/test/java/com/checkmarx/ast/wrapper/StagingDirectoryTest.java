@@ -0,0 +1,95 @@
+package com.checkmarx.ast.wrapper;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("StagingDirectoryTest")
+class StagingDirectoryTest {
+
+    @TempDir
+    Path parent;
+
+    @Test
+    @DisplayName("the staging directory is created once under the preferred parent")
+    void testPreferredParent() throws Exception {
+        StagingDirectory staging = new StagingDirectory(parent);
+
+        Path root = staging.root();
+
+        assertEquals(parent, root.getParent());
+        assertTrue(Files.isDirectory(root));
+        assertSame(root, staging.root());
+        assertTrue(staging.isPreferred());
+    }
+
+    @Test
+    @DisplayName("a missing preferred parent falls back to the default temporary directory")
+    void testFallback() throws Exception {
+        StagingDirectory staging = new StagingDirectory(parent.resolve("missing"));
+
+        Path root = staging.root();
+        try {
+            assertTrue(Files.isDirectory(root));
+            assertFalse(staging.isPreferred());
+        } finally {
+            staging.delete();
+        }
+    }
+
+    @Test
+    @DisplayName("unstaging the last file of a directory deletes the directory")
+    void testUnstageDeletesEmptyDirectory() throws Exception {
+        StagingDirectory staging = new StagingDirectory(parent);
+        Path directory = Files.createDirectories(staging.root().resolve("key"));
+        Path first = Files.write(directory.resolve("a.tf"), new byte[0]);
+        Path second = Files.write(directory.resolve("b.tf"), new byte[0]);
+
+        StagingDirectory.unstage(first);
+        assertTrue(Files.isDirectory(directory));
+
+        StagingDirectory.unstage(second);
+        assertFalse(Files.exists(directory));
+    }
+
+    @Test
+    @DisplayName("deleting removes the staging directory, and the next use creates a new one")
+    void testDelete() throws Exception {
+        StagingDirectory staging = new StagingDirectory(parent);
+        Path root = staging.root();
+        Files.write(Files.createDirectories(root.resolve("key")).resolve("a.tf"), new byte[0]);
+
+        staging.delete();
+
+        assertFalse(Files.exists(root));
+        Path next = staging.root();
+        assertNotEquals(root, next);
+        assertTrue(Files.isDirectory(next));
+        staging.delete();
+    }
+
+    @Test
+    @DisplayName("creating a staging directory deletes those left unlocked by exited JVMs, and keeps live ones")
+    void testSweepsAbandonedDirectories() throws Exception {
+        Path abandoned = Files.createDirectory(parent.resolve("cx-staging-abandoned"));
+        Files.write(abandoned.resolve(".lock"), new byte[0]);
+        Files.write(Files.createDirectory(abandoned.resolve("key")).resolve("a.tf"), new byte[0]);
+        Path unrelated = Files.createDirectory(parent.resolve("cx-staging-unrelated"));
+        StagingDirectory live = new StagingDirectory(parent);
+        Path liveRoot = live.root();
+
+        StagingDirectory staging = new StagingDirectory(parent);
+        staging.root();
+
+        assertFalse(Files.exists(abandoned));
+        assertTrue(Files.isDirectory(liveRoot));
+        assertTrue(Files.isDirectory(unrelated));
+        staging.delete();
+        live.delete();
+    }
+}
@@ -0,0 +1,55 @@
+package com.checkmarx.ast.wrapper;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("StagingLocksTest")
+class StagingLocksTest {
+
+    @Test
+    @DisplayName("keys are forgotten once no scan holds or waits for them")
+    void testReleasedKeysAreForgotten() throws Exception {
+        StagingLocks locks = new StagingLocks();
+
+        try (StagingLocks.Lease first = locks.acquire("/repo/a.tf");
+             StagingLocks.Lease second = locks.acquire("/repo/b.tf")) {
+            assertEquals(2, locks.size());
+        }
+
+        assertEquals(0, locks.size());
+    }
+
+    @Test
+    @DisplayName("a second scan of the same key waits, and can be interrupted while waiting")
+    void testSameKeyIsExclusive() throws Exception {
+        StagingLocks locks = new StagingLocks();
+        CountDownLatch waiting = new CountDownLatch(1);
+        AtomicBoolean acquired = new AtomicBoolean();
+        AtomicBoolean interrupted = new AtomicBoolean();
+
+        try (StagingLocks.Lease lease = locks.acquire("/repo/a.tf")) {
+            Thread waiter = new Thread(() -> {
+                waiting.countDown();
+                try (StagingLocks.Lease other = locks.acquire("/repo/a.tf")) {
+                    acquired.set(true);
+                } catch (InterruptedException e) {
+                    interrupted.set(true);
+                }
+            });
+            waiter.start();
+            assertTrue(waiting.await(5, TimeUnit.SECONDS));
+            waiter.interrupt();
+            waiter.join(5_000);
+        }
+
+        assertFalse(acquired.get());
+        assertTrue(interrupted.get());
+        assertEquals(0, locks.size());
+    }
+}